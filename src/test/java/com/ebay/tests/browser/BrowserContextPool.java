@@ -0,0 +1,148 @@
+package com.ebay.tests.browser;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * BrowserContextPool.java
+ * Keeps one browser alive and a few pre-created (warm) contexts ready
+ * Tests lease a context instead of launching a browser, and a retried
+ * test gets a fresh context in milliseconds rather than a new Chromium
+ * The browser comes from BrowserServer (in-process or shared per machine)
+ */
+public class BrowserContextPool implements AutoCloseable {
+
+    private static final int DEFAULT_WARM_CONTEXTS = 2;
+
+    private final BrowserServer server;
+    private final int warmSize;
+    private final Deque<BrowserContext> warmContexts = new ArrayDeque<>();
+    private int leased;
+    private long totalLeases;
+
+    public BrowserContextPool(BrowserServer server, int warmSize) {
+        this.server = server;
+        this.warmSize = warmSize;
+        refill();
+    }
+
+    /**
+     * Get a browser (see BrowserServer for -Dbrowser.server) and wrap it in a pool
+     */
+    public static BrowserContextPool launch(Playwright playwright) {
+        return new BrowserContextPool(BrowserServer.connect(playwright), DEFAULT_WARM_CONTEXTS);
+    }
+
+    /**
+     * Lease a clean context (warm if available)
+     */
+    public synchronized BrowserContext acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Lease a context created with options; warm contexts are only used when options is null
+     */
+    public synchronized BrowserContext acquire(Browser.NewContextOptions options) {
+        if (leased == 0 && server.needsRecycle()) {
+            // Nothing in flight: drop warm contexts so the browser can restart
+            closeWarmContexts();
+            server.recycleIfNeeded();
+            refill();
+        }
+        if (leased == 0) {
+            server.beginUse();
+            // Another JVM may have restarted a shared server while this one was idle
+            if (!server.isHealthy()) {
+                closeWarmContexts();
+            }
+        }
+
+        BrowserContext context;
+        try {
+            context = options == null ? warmContexts.pollFirst() : null;
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            metrics.cacheLookup("warm_contexts", context != null);
+            metrics.counter("context_leases_total").increment();
+            if (context == null) {
+                context = server.newContext(options);
+            }
+        } catch (RuntimeException e) {
+            if (leased == 0) {
+                server.endUse();
+            }
+            throw e;
+        }
+        leased++;
+        totalLeases++;
+        return context;
+    }
+
+    /**
+     * Return a leased context; it is closed, never reused, and the pool is topped up
+     */
+    public synchronized void release(BrowserContext context) {
+        if (context == null) {
+            return;
+        }
+        leased--;
+        // Last chance to see this context's pages' heap
+        server.sampleMemory();
+        try {
+            context.close();
+        } catch (Exception e) {
+            System.out.println("Context close error: " + e.getMessage());
+        }
+        try {
+            refill();
+        } finally {
+            if (leased == 0) {
+                server.endUse();
+            }
+        }
+    }
+
+    public Browser getBrowser() {
+        return server.getBrowser();
+    }
+
+    public synchronized int getLeasedCount() {
+        return leased;
+    }
+
+    public synchronized long getTotalLeases() {
+        return totalLeases;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (leased > 0) {
+            System.out.println("Closing pool with " + leased + " leased context(s)");
+            server.endUse();
+        }
+        closeWarmContexts();
+        // Reports contexts that were leased and never released
+        server.close();
+    }
+
+    private void refill() {
+        while (warmContexts.size() < warmSize && server.isHealthy()) {
+            warmContexts.addLast(server.newContext());
+        }
+    }
+
+    private void closeWarmContexts() {
+        for (BrowserContext context : warmContexts) {
+            try {
+                context.close();
+            } catch (Exception e) {
+                System.out.println("Context close error: " + e.getMessage());
+            }
+        }
+        warmContexts.clear();
+    }
+}
@@ -0,0 +1,213 @@
+package com.ebay.tests.browser;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BrowserLifecycleManager.java
+ * Tracks every page created through BasePage and watches browser memory
+ *
+ * Memory is sampled while pages are live (BrowserContextPool samples as a
+ * context is released, before it closes), at most every
+ * -Dbrowser.sample.interval.ms (default 5000):
+ *   - browser RSS (all Chromium processes) via BrowserMemory
+ *   - JS heap per page via CDP Performance.getMetrics
+ * A browser whose last sample was over -Dbrowser.max.rss.mb (2048) or had a
+ * page over -Dbrowser.max.js.heap.mb (512) is flagged; BrowserServer
+ * recycles it once no test is using it, so in-flight tests are never
+ * interrupted.
+ * Pages still open at JVM exit are reported as leaks.
+ */
+public class BrowserLifecycleManager {
+
+    private static final long MB = 1024 * 1024;
+
+    private static final BrowserLifecycleManager DEFAULT = new BrowserLifecycleManager(
+            Long.getLong("browser.max.rss.mb", 2048) * MB,
+            Long.getLong("browser.max.js.heap.mb", 512) * MB,
+            Long.getLong("browser.sample.interval.ms", 5000));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DEFAULT::reportLeaks));
+    }
+
+    private final long maxRssBytes;
+    private final long maxJsHeapBytes;
+    private final long sampleIntervalMs;
+    private final Set<Page> openPages = ConcurrentHashMap.newKeySet();
+    private final Map<Browser, Sample> lastSamples = new ConcurrentHashMap<>();
+    private long pagesTracked;
+
+    public BrowserLifecycleManager(long maxRssBytes, long maxJsHeapBytes, long sampleIntervalMs) {
+        this.maxRssBytes = maxRssBytes;
+        this.maxJsHeapBytes = maxJsHeapBytes;
+        this.sampleIntervalMs = sampleIntervalMs;
+    }
+
+    public static BrowserLifecycleManager getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Start tracking a page until it closes
+     */
+    public void track(Page page) {
+        if (page == null || !openPages.add(page)) {
+            return;
+        }
+        synchronized (this) {
+            pagesTracked++;
+        }
+        page.onClose(openPages::remove);
+    }
+
+    public int getOpenPageCount() {
+        return openPages.size();
+    }
+
+    /**
+     * Distinct contexts that still have a tracked page open
+     */
+    public int getOpenContextCount() {
+        Set<BrowserContext> contexts = new HashSet<>();
+        for (Page page : openPages) {
+            contexts.add(page.context());
+        }
+        return contexts.size();
+    }
+
+    public long getSampleIntervalMs() {
+        return sampleIntervalMs;
+    }
+
+    public synchronized long getPagesTracked() {
+        return pagesTracked;
+    }
+
+    /**
+     * True if the browser crossed a memory threshold at its last sample.
+     * Never samples: an idle browser has no pages left to measure.
+     */
+    public boolean isOverThreshold(Browser browser) {
+        Sample sample = browser != null ? lastSamples.get(browser) : null;
+        if (sample == null) {
+            return false;
+        }
+        boolean over = (sample.rssBytes != BrowserMemory.UNKNOWN && sample.rssBytes > maxRssBytes)
+                || sample.maxJsHeapBytes > maxJsHeapBytes;
+        if (over) {
+            System.out.println("Browser over memory threshold: " + sample);
+        }
+        return over;
+    }
+
+    /**
+     * Sample memory for a browser
+     * @param force ignore the sample interval
+     */
+    public Sample sample(Browser browser, boolean force) {
+        Sample last = lastSamples.get(browser);
+        long now = System.currentTimeMillis();
+        if (!force && last != null && now - last.timestampMs < sampleIntervalMs) {
+            return last;
+        }
+
+        long maxHeap = 0;
+        for (Page page : openPages) {
+            if (page.isClosed() || page.context().browser() != browser) {
+                continue;
+            }
+            maxHeap = Math.max(maxHeap, jsHeapUsedBytes(page));
+        }
+        Sample sample = new Sample(now, BrowserMemory.residentBytes(browser), maxHeap);
+        lastSamples.put(browser, sample);
+        return sample;
+    }
+
+    /**
+     * Drop samples for a browser that was closed or recycled
+     */
+    public void forget(Browser browser) {
+        lastSamples.remove(browser);
+    }
+
+    /**
+     * JS heap in use for a page (CDP Performance.getMetrics, Chromium only)
+     */
+    public static long jsHeapUsedBytes(Page page) {
+        CDPSession session = null;
+        try {
+            session = page.context().newCDPSession(page);
+            session.send("Performance.enable");
+            JsonObject result = session.send("Performance.getMetrics");
+            for (JsonElement metric : result.getAsJsonArray("metrics")) {
+                JsonObject entry = metric.getAsJsonObject();
+                if ("JSHeapUsedSize".equals(entry.get("name").getAsString())) {
+                    return entry.get("value").getAsLong();
+                }
+            }
+            return 0;
+        } catch (Exception e) {
+            return 0;
+        } finally {
+            if (session != null) {
+                try {
+                    session.detach();
+                } catch (Exception ignored) {
+                    // Page closed while sampling
+                }
+            }
+        }
+    }
+
+    /**
+     * Log pages that were never closed
+     */
+    public void reportLeaks() {
+        List<Page> leaked = new ArrayList<>(openPages);
+        if (!leaked.isEmpty()) {
+            System.out.println("Page leak: " + leaked.size() + " page(s) never closed");
+        }
+    }
+
+    /**
+     * One memory sample of a browser
+     */
+    public static class Sample {
+
+        private final long timestampMs;
+        private final long rssBytes;
+        private final long maxJsHeapBytes;
+
+        Sample(long timestampMs, long rssBytes, long maxJsHeapBytes) {
+            this.timestampMs = timestampMs;
+            this.rssBytes = rssBytes;
+            this.maxJsHeapBytes = maxJsHeapBytes;
+        }
+
+        public long getRssBytes() {
+            return rssBytes;
+        }
+
+        // Largest JS heap of any tracked page
+        public long getMaxJsHeapBytes() {
+            return maxJsHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "rss=" + (rssBytes < 0 ? "?" : rssBytes / MB + "MB")
+                    + ", maxJsHeap=" + maxJsHeapBytes / MB + "MB";
+        }
+    }
+}
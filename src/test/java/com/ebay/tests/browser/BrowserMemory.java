@@ -0,0 +1,81 @@
+package com.ebay.tests.browser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.CDPSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * BrowserMemory.java
+ * Resident memory of a Chromium instance (browser + renderers + GPU)
+ * Process ids come from CDP SystemInfo.getProcessInfo; RSS is read from
+ * /proc, so this only reports on Linux (returns -1 elsewhere)
+ */
+public final class BrowserMemory {
+
+    public static final long UNKNOWN = -1;
+
+    private BrowserMemory() {
+    }
+
+    /**
+     * Total RSS in bytes of all processes belonging to the browser
+     */
+    public static long residentBytes(Browser browser) {
+        if (!Files.isDirectory(Paths.get("/proc"))) {
+            return UNKNOWN;
+        }
+
+        CDPSession session = null;
+        try {
+            session = browser.newBrowserCDPSession();
+            JsonObject info = session.send("SystemInfo.getProcessInfo");
+            JsonArray processes = info.getAsJsonArray("processInfo");
+
+            long total = 0;
+            for (JsonElement process : processes) {
+                long rss = residentBytes(process.getAsJsonObject().get("id").getAsLong());
+                if (rss > 0) {
+                    total += rss;
+                }
+            }
+            return total;
+        } catch (Exception e) {
+            return UNKNOWN;
+        } finally {
+            if (session != null) {
+                try {
+                    session.detach();
+                } catch (Exception ignored) {
+                    // Session already gone with the browser
+                }
+            }
+        }
+    }
+
+    /**
+     * RSS in bytes of a single process from /proc/{pid}/status
+     */
+    public static long residentBytes(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try {
+            List<String> lines = Files.readAllLines(status, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return UNKNOWN;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,403 @@
+package com.ebay.tests.browser;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Playwright;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * BrowserServer.java
+ * Attaches test JVMs to one long-lived headless Chromium per machine
+ *
+ * -Dbrowser.server not set   launch Chromium in-process (old behaviour)
+ * -Dbrowser.server=auto      attach to http://127.0.0.1:9222, starting a
+ *                            detached Chromium there if nothing answers
+ * -Dbrowser.server=URL       attach to an already running CDP endpoint
+ *
+ * A started server outlives the JVM, so the next run attaches in
+ * milliseconds. After -Dbrowser.server.max.contexts contexts (default 500),
+ * or when BrowserLifecycleManager flags it over a memory threshold, the
+ * browser is recycled, but only when this JVM holds no open contexts.
+ * An auto-started server is restarted whichever JVM launched it, once no JVM
+ * on the machine has a context leased (BrowserServerLock, next to the
+ * profile directory, also keeps two forks from both starting one); a
+ * -Dbrowser.server=URL server is only reattached. The health check runs at most once per
+ * -Dbrowser.sample.interval.ms, not on every lease; the memory check reads
+ * the sample taken as the last context was released.
+ *
+ * -Ddevice.profile=mobile-3g emulates that device in every context (see DeviceProfile).
+ * -Dbrowser.bfcache=true keeps Chromium's back/forward cache on (see NavigationTiming).
+ */
+public class BrowserServer implements AutoCloseable {
+
+    private static final String AUTO = "auto";
+    private static final String DEFAULT_ENDPOINT = "http://127.0.0.1:9222";
+    private static final int HEALTH_TIMEOUT_MS = 1000;
+    private static final int STARTUP_TIMEOUT_MS = 15000;
+    private static final String USER_DATA_DIR = "target/browser-server-profile";
+    private static final String LOG_FILE = "target/browser-server.log";
+    // Shared by every BrowserServer in this JVM: file locks are per process
+    private static final BrowserServerLock LOCK = new BrowserServerLock(Paths.get("target/browser-server.lock"));
+
+    private final Playwright playwright;
+    private final Supplier<Browser> launcher;
+    private final String endpoint;
+    private final boolean autoStart;
+    private final int maxContexts;
+    private final BrowserLifecycleManager lifecycle;
+    private final Set<BrowserContext> openContexts = ConcurrentHashMap.newKeySet();
+    private Browser browser;
+    private int contextsSinceRecycle;
+    private int recycles;
+    private long lastHealthCheckMs;
+
+    private BrowserServer(Playwright playwright, String endpoint, boolean autoStart) {
+        this.playwright = playwright;
+        this.launcher = () -> playwright.chromium().launch(launchOptions(Boolean.getBoolean("browser.bfcache")));
+        this.endpoint = endpoint;
+        this.autoStart = autoStart;
+        this.maxContexts = Integer.getInteger("browser.server.max.contexts", 500);
+        this.lifecycle = BrowserLifecycleManager.getDefault();
+    }
+
+    /**
+     * In-process browsers from launcher (called again on every recycle)
+     */
+    public BrowserServer(Supplier<Browser> launcher, BrowserLifecycleManager lifecycle, int maxContexts) {
+        this.playwright = null;
+        this.launcher = launcher;
+        this.endpoint = null;
+        this.autoStart = false;
+        this.maxContexts = maxContexts;
+        this.lifecycle = lifecycle;
+        attach();
+    }
+
+    /**
+     * Headless launch options; Playwright disables the back/forward cache by
+     * default, backForwardCache = true turns it back on (-Dbrowser.bfcache=true
+     * for browsers this class launches)
+     */
+    public static BrowserType.LaunchOptions launchOptions(boolean backForwardCache) {
+        BrowserType.LaunchOptions options = new BrowserType.LaunchOptions().setHeadless(true);
+        if (backForwardCache) {
+            options.setIgnoreDefaultArgs(Arrays.asList("--disable-back-forward-cache"));
+        }
+        return options;
+    }
+
+    /**
+     * Connect according to -Dbrowser.server
+     */
+    public static BrowserServer connect(Playwright playwright) {
+        String setting = System.getProperty("browser.server", "");
+        BrowserServer server;
+        if (setting.isEmpty()) {
+            server = new BrowserServer(playwright, null, false);
+        } else if (AUTO.equals(setting)) {
+            server = new BrowserServer(playwright, DEFAULT_ENDPOINT, true);
+        } else {
+            server = new BrowserServer(playwright, setting, false);
+        }
+        server.attach();
+        return server;
+    }
+
+    public synchronized Browser getBrowser() {
+        if (!isHealthy()) {
+            System.out.println("Browser server unhealthy, reattaching");
+            attach();
+        }
+        return browser;
+    }
+
+    /**
+     * Create a context and track it for leak detection and recycling
+     */
+    public synchronized BrowserContext newContext() {
+        return newContext(null);
+    }
+
+    /**
+     * Create a tracked context with options (e.g. HAR recording)
+     */
+    public synchronized BrowserContext newContext(Browser.NewContextOptions options) {
+        // -Ddevice.profile=mobile-3g runs every context as that device
+        DeviceProfile profile = DeviceProfile.fromSystemProperty(null);
+        if (profile != null) {
+            options = profile.contextOptions(options);
+        }
+        BrowserContext context = getBrowser().newContext(options);
+        if (profile != null && profile.isThrottled()) {
+            context.onPage(profile::throttle);
+        }
+        openContexts.add(context);
+        context.onClose(openContexts::remove);
+        contextsSinceRecycle++;
+        return context;
+    }
+
+    /**
+     * Connected and (for a remote server) answering on its HTTP endpoint;
+     * the endpoint is asked at most once per sample interval
+     */
+    public synchronized boolean isHealthy() {
+        if (browser == null || !browser.isConnected()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (endpoint == null || now - lastHealthCheckMs < lifecycle.getSampleIntervalMs()) {
+            return true;
+        }
+        lastHealthCheckMs = now;
+        return fetchVersion(endpoint) != null;
+    }
+
+    /**
+     * Due for a restart: too many contexts, or over a memory threshold at the
+     * last sample (reads the sample, never takes one)
+     */
+    public synchronized boolean needsRecycle() {
+        if (contextsSinceRecycle >= maxContexts) {
+            return true;
+        }
+        return lifecycle.isOverThreshold(browser);
+    }
+
+    /**
+     * Sample memory while pages are open (rate-limited by the sample interval)
+     */
+    public synchronized void sampleMemory() {
+        if (browser == null) {
+            return;
+        }
+        try {
+            lifecycle.sample(browser, false);
+        } catch (Exception e) {
+            System.out.println("Memory sample error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restart the browser if it is due and nothing from this JVM is using it.
+     * An auto-started server is only restarted while no other JVM has it in
+     * use; a -Dbrowser.server=URL server is never shut down, only reattached.
+     * @return true if the browser was recycled
+     */
+    public synchronized boolean recycleIfNeeded() {
+        if (!openContexts.isEmpty() || !needsRecycle()) {
+            return false;
+        }
+        if (endpoint != null && autoStart) {
+            if (!LOCK.ifIdle(this::restartServer)) {
+                System.out.println("Browser server in use by another JVM, recycling later");
+                return false;
+            }
+        } else {
+            System.out.println("Recycling browser after " + contextsSinceRecycle + " contexts");
+            closeQuietly();
+            attach();
+        }
+        recycles++;
+        return true;
+    }
+
+    /**
+     * A test in this JVM is about to use the browser. While any JVM has a
+     * shared server in use it is not restarted; this waits for a restart
+     * another JVM has in progress.
+     */
+    public void beginUse() {
+        if (endpoint != null) {
+            LOCK.enterUse();
+        }
+    }
+
+    /**
+     * Pairs with beginUse once this JVM has nothing leased
+     */
+    public void endUse() {
+        if (endpoint != null) {
+            LOCK.exitUse();
+        }
+    }
+
+    /**
+     * Contexts created through this server and never closed
+     */
+    public List<BrowserContext> findLeakedContexts() {
+        return new ArrayList<>(openContexts);
+    }
+
+    public synchronized int getRecycleCount() {
+        return recycles;
+    }
+
+    /**
+     * Report and close leaked contexts, then detach (a shared server keeps running)
+     */
+    @Override
+    public synchronized void close() {
+        List<BrowserContext> leaked = findLeakedContexts();
+        if (!leaked.isEmpty()) {
+            System.out.println("Context leak: " + leaked.size() + " context(s) never closed");
+            for (BrowserContext context : leaked) {
+                try {
+                    context.close();
+                } catch (Exception e) {
+                    System.out.println("Context close error: " + e.getMessage());
+                }
+            }
+        }
+        closeQuietly();
+    }
+
+    private void attach() {
+        contextsSinceRecycle = 0;
+        lastHealthCheckMs = System.currentTimeMillis();
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        if (endpoint == null) {
+            browser = launcher.get();
+            metrics.counter("browser_launches_total", "mode", "local").increment();
+            return;
+        }
+
+        if (fetchVersion(endpoint) == null) {
+            if (!autoStart) {
+                throw new RuntimeException("No browser server at " + endpoint);
+            }
+            // Another fork may be starting it at the same moment
+            LOCK.whileStarting(() -> {
+                if (fetchVersion(endpoint) == null) {
+                    startServer();
+                    metrics.counter("browser_launches_total", "mode", "server").increment();
+                }
+            });
+        }
+        browser = playwright.chromium().connectOverCDP(endpoint);
+        metrics.counter("browser_attaches_total").increment();
+        System.out.println("Attached to browser server " + endpoint + " (" + browser.version() + ")");
+    }
+
+    private void startServer() {
+        try {
+            URL url = new URL(endpoint);
+            Path log = Paths.get(LOG_FILE);
+            Files.createDirectories(log.toAbsolutePath().getParent());
+
+            List<String> command = new ArrayList<>(Arrays.asList(
+                    playwright.chromium().executablePath(),
+                    "--headless=new",
+                    "--remote-debugging-address=" + url.getHost(),
+                    "--remote-debugging-port=" + url.getPort(),
+                    "--user-data-dir=" + new File(USER_DATA_DIR).getAbsolutePath(),
+                    "--no-first-run",
+                    "--no-default-browser-check",
+                    "about:blank"));
+            // Not destroyed on JVM exit: the next run reuses it
+            new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                    .start();
+            System.out.println("Started browser server on " + endpoint);
+
+            long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+            while (System.currentTimeMillis() < deadline) {
+                if (fetchVersion(endpoint) != null) {
+                    return;
+                }
+                Thread.sleep(100);
+            }
+            throw new RuntimeException("Browser server did not start within " + STARTUP_TIMEOUT_MS + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted starting browser server");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to start browser server: " + e.getMessage(), e);
+        }
+    }
+
+    // Called holding the exclusive use lock: no JVM has a context leased
+    private void restartServer() {
+        System.out.println("Restarting browser server after " + contextsSinceRecycle + " contexts");
+        LOCK.whileStarting(this::shutDownRemote);
+        closeQuietly();
+        attach();
+    }
+
+    private void shutDownRemote() {
+        try {
+            CDPSession session = browser.newBrowserCDPSession();
+            session.send("Browser.close");
+        } catch (Exception e) {
+            // Expected: the connection drops as the browser exits
+        }
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MS;
+        while (fetchVersion(endpoint) != null && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (browser != null) {
+                lifecycle.forget(browser);
+                // For a CDP connection this only disconnects
+                browser.close();
+            }
+        } catch (Exception e) {
+            System.out.println("Browser close error: " + e.getMessage());
+        }
+        browser = null;
+    }
+
+    /**
+     * GET {endpoint}/json/version, null if the server does not answer
+     */
+    static JsonObject fetchVersion(String endpoint) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(endpoint + "/json/version").openConnection();
+            connection.setConnectTimeout(HEALTH_TIMEOUT_MS);
+            connection.setReadTimeout(HEALTH_TIMEOUT_MS);
+            if (connection.getResponseCode() != 200) {
+                return null;
+            }
+            try (InputStream in = connection.getInputStream();
+                 Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return JsonParser.parseReader(reader).getAsJsonObject();
+            }
+        } catch (Exception e) {
+            return null;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
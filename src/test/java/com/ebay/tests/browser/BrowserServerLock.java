@@ -0,0 +1,121 @@
+package com.ebay.tests.browser;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BrowserServerLock.java
+ * Coordinates the JVMs sharing one browser server through a lock file
+ *
+ * Byte 0 is held exclusively while a JVM checks for and starts the server,
+ * so two forks never both launch Chromium. Byte 1 is held shared while a JVM
+ * has contexts leased; a restart takes it exclusively, so the server is only
+ * restarted when no JVM on the machine is running a test on it, and a JVM
+ * about to lease waits until the restart is done.
+ *
+ * File locks belong to the whole process: uses within this JVM are counted
+ * and the shared lock is held from the first to the last.
+ */
+public class BrowserServerLock {
+
+    private static final long START = 0;
+    private static final long USE = 1;
+
+    private final Path file;
+    private FileChannel channel;
+    private FileLock useLock;
+    private int uses;
+
+    public BrowserServerLock(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Run action while no other JVM is starting or stopping the server
+     */
+    public synchronized void whileStarting(Runnable action) {
+        FileLock lock = lock(START, false);
+        try {
+            action.run();
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * This JVM is about to use the server; waits for a restart in progress
+     */
+    public synchronized void enterUse() {
+        if (uses++ == 0) {
+            useLock = lock(USE, true);
+        }
+    }
+
+    public synchronized void exitUse() {
+        if (uses == 0) {
+            return;
+        }
+        if (--uses == 0) {
+            release(useLock);
+            useLock = null;
+        }
+    }
+
+    /**
+     * Run action only if no JVM, this one included, has the server in use
+     * @return false if it is in use (action not run)
+     */
+    public synchronized boolean ifIdle(Runnable action) {
+        if (uses > 0) {
+            return false;
+        }
+        FileLock lock;
+        try {
+            lock = channel().tryLock(USE, 1, false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to lock " + file + ": " + e.getMessage());
+        }
+        if (lock == null) {
+            return false;
+        }
+        try {
+            action.run();
+            return true;
+        } finally {
+            release(lock);
+        }
+    }
+
+    private FileLock lock(long position, boolean shared) {
+        try {
+            return channel().lock(position, 1, shared);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to lock " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void release(FileLock lock) {
+        try {
+            lock.release();
+        } catch (IOException e) {
+            System.out.println("Lock release error: " + e.getMessage());
+        }
+    }
+
+    // Kept open for the JVM's lifetime; closing it would drop every lock held through it
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+}
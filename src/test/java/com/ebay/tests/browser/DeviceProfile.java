@@ -0,0 +1,213 @@
+package com.ebay.tests.browser;
+
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * DeviceProfile.java
+ * Device emulation for perf tests: viewport, device scale, network and CPU throttling
+ *
+ *   DESKTOP     1920x1080, no throttling
+ *   MOBILE      375x667 @2x, touch, no throttling
+ *   MOBILE_4G   375x667 @2x, 150 ms RTT, 1.6 Mbps down / 750 Kbps up, CPU 4x slower
+ *   MOBILE_3G   375x667 @2x, 563 ms RTT, 1.44 Mbps down / 675 Kbps up, CPU 4x slower
+ *   LOW_END_3G  360x640 @2x, 2000 ms RTT, 400 Kbps down / 400 Kbps up, CPU 6x slower
+ * (network values follow the Chrome DevTools / Lighthouse presets)
+ *
+ * Two ways to use a profile:
+ *   - contextOptions() when creating a context (exact device emulation), then
+ *     throttle() each page; -Ddevice.profile=mobile-3g does this for every
+ *     context BrowserServer creates
+ *   - apply(page) on an existing page (viewport, device metrics and throttling
+ *     through CDP)
+ * Throttling needs Chromium; elsewhere it is skipped with a message.
+ */
+public enum DeviceProfile {
+
+    DESKTOP(1920, 1080, 1.0, false, 0, -1, -1, 1),
+    MOBILE(375, 667, 2.0, true, 0, -1, -1, 1),
+    MOBILE_4G(375, 667, 2.0, true, 150, 1_600, 750, 4),
+    MOBILE_3G(375, 667, 2.0, true, 563, 1_440, 675, 4),
+    LOW_END_3G(360, 640, 2.0, true, 2_000, 400, 400, 6);
+
+    // Emulation lasts only as long as the CDP session that set it
+    private static final Map<Page, CDPSession> SESSIONS = new WeakHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final double deviceScaleFactor;
+    private final boolean mobile;
+    private final int latencyMs;
+    private final int downloadKbps;
+    private final int uploadKbps;
+    private final double cpuSlowdown;
+
+    DeviceProfile(int width, int height, double deviceScaleFactor, boolean mobile,
+                  int latencyMs, int downloadKbps, int uploadKbps, double cpuSlowdown) {
+        this.width = width;
+        this.height = height;
+        this.deviceScaleFactor = deviceScaleFactor;
+        this.mobile = mobile;
+        this.latencyMs = latencyMs;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+        this.cpuSlowdown = cpuSlowdown;
+    }
+
+    /**
+     * Profile named by -Ddevice.profile (e.g. "mobile-3g"), or fallback if unset
+     */
+    public static DeviceProfile fromSystemProperty(DeviceProfile fallback) {
+        String name = System.getProperty("device.profile", "");
+        return name.isEmpty() ? fallback : fromName(name);
+    }
+
+    /**
+     * @param name "mobile-3g", "MOBILE_3G"...
+     */
+    public static DeviceProfile fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown device profile: " + name);
+        }
+    }
+
+    // For logs and metric labels, e.g. "mobile-3g"
+    public String getLabel() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getDeviceScaleFactor() {
+        return deviceScaleFactor;
+    }
+
+    public boolean isMobile() {
+        return mobile;
+    }
+
+    public int getLatencyMs() {
+        return latencyMs;
+    }
+
+    // -1 means unthrottled
+    public int getDownloadKbps() {
+        return downloadKbps;
+    }
+
+    public int getUploadKbps() {
+        return uploadKbps;
+    }
+
+    public double getCpuSlowdown() {
+        return cpuSlowdown;
+    }
+
+    public boolean isThrottled() {
+        return latencyMs > 0 || downloadKbps > 0 || uploadKbps > 0 || cpuSlowdown > 1;
+    }
+
+    /**
+     * Context options emulating this device
+     * @param base options to add to (e.g. from HarArchive), or null
+     */
+    public Browser.NewContextOptions contextOptions(Browser.NewContextOptions base) {
+        Browser.NewContextOptions options = base != null ? base : new Browser.NewContextOptions();
+        return options.setViewportSize(width, height)
+                .setDeviceScaleFactor(deviceScaleFactor)
+                .setIsMobile(mobile)
+                .setHasTouch(mobile);
+    }
+
+    /**
+     * Emulate this device on an existing page: viewport, device metrics, then throttling
+     * @param page the raw (uninstrumented) page
+     */
+    public void apply(Page page) {
+        page.setViewportSize(width, height);
+        try {
+            CDPSession session = session(page);
+            JsonObject metrics = new JsonObject();
+            metrics.addProperty("width", width);
+            metrics.addProperty("height", height);
+            metrics.addProperty("deviceScaleFactor", deviceScaleFactor);
+            metrics.addProperty("mobile", mobile);
+            session.send("Emulation.setDeviceMetricsOverride", metrics);
+            JsonObject touch = new JsonObject();
+            touch.addProperty("enabled", mobile);
+            session.send("Emulation.setTouchEmulationEnabled", touch);
+        } catch (Exception e) {
+            System.out.println("Device metrics not emulated (" + getLabel() + "): " + e.getMessage());
+        }
+        throttle(page);
+    }
+
+    /**
+     * Apply network and CPU throttling to a page (no-op for unthrottled profiles)
+     * @param page the raw (uninstrumented) page
+     */
+    public void throttle(Page page) {
+        if (!isThrottled()) {
+            return;
+        }
+        try {
+            CDPSession session = session(page);
+            session.send("Network.enable");
+            JsonObject network = new JsonObject();
+            network.addProperty("offline", false);
+            network.addProperty("latency", latencyMs);
+            // CDP wants bytes per second; -1 disables throttling
+            network.addProperty("downloadThroughput", downloadKbps > 0 ? downloadKbps * 1000 / 8 : -1);
+            network.addProperty("uploadThroughput", uploadKbps > 0 ? uploadKbps * 1000 / 8 : -1);
+            session.send("Network.emulateNetworkConditions", network);
+
+            JsonObject cpu = new JsonObject();
+            cpu.addProperty("rate", cpuSlowdown);
+            session.send("Emulation.setCPUThrottlingRate", cpu);
+            System.out.println("Throttling (" + getLabel() + "): " + getDescription());
+        } catch (Exception e) {
+            System.out.println("Throttling not available (" + getLabel() + "): " + e.getMessage());
+        }
+    }
+
+    private static synchronized CDPSession session(Page page) {
+        CDPSession session = SESSIONS.get(page);
+        if (session == null) {
+            session = page.context().newCDPSession(page);
+            SESSIONS.put(page, session);
+        }
+        return session;
+    }
+
+    // e.g. "375x667 @2.0x mobile, 563 ms RTT, 1440/675 Kbps, CPU 4.0x slower"
+    public String getDescription() {
+        StringBuilder out = new StringBuilder();
+        out.append(width).append('x').append(height).append(" @").append(deviceScaleFactor).append('x');
+        if (mobile) {
+            out.append(" mobile");
+        }
+        if (latencyMs > 0) {
+            out.append(", ").append(latencyMs).append(" ms RTT");
+        }
+        if (downloadKbps > 0) {
+            out.append(", ").append(downloadKbps).append('/').append(uploadKbps).append(" Kbps");
+        }
+        if (cpuSlowdown > 1) {
+            out.append(", CPU ").append(cpuSlowdown).append("x slower");
+        }
+        return out.toString();
+    }
+}
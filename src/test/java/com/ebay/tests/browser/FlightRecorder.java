@@ -0,0 +1,257 @@
+package com.ebay.tests.browser;
+
+import com.ebay.tests.reporting.ReportingListener;
+import com.ebay.tests.utils.TimedRingBuffer;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.ConsoleMessage;
+import com.microsoft.playwright.Frame;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Tracing;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * FlightRecorder.java
+ * Always-on, failure-only tracing for a page's context
+ *
+ * While a test runs, Playwright tracing records into the driver and the last
+ * N seconds of network, console and navigation events are kept in a bounded
+ * in-memory ring. The trace is recorded in chunks of one window: when a chunk
+ * is a window old it is stopped into a temp file, replacing the one before,
+ * and a new chunk starts, so the driver never holds more than one window and
+ * a failure gets the last one to two. Tests shorter than the window touch
+ * nothing on disk on a pass: detach() simply discards the trace. dump()
+ * (called from the failure path) stops the current chunk into a temp file and
+ * hands the rest - moving the zips and writing the event log - to a
+ * background writer thread.
+ *
+ * Settings:
+ *   -Dflight.recorder=false        disable entirely
+ *   -Dflight.recorder.window.s=30  event and trace window in seconds
+ *   -Dflight.recorder.snapshots=false  trace actions only (cheapest)
+ *   -Dflight.recorder.screenshots=true  also record a screencast (off by default)
+ */
+public class FlightRecorder {
+
+    private static final String TRACES_DIR = "target/traces";
+    private static final int MAX_EVENTS = 2000;
+    private static final int MAX_TEXT = 300;
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("flight.recorder", "true"));
+    private static final long WINDOW_MS =
+            Long.getLong("flight.recorder.window.s", 30) * 1000;
+    private static final boolean SNAPSHOTS =
+            Boolean.parseBoolean(System.getProperty("flight.recorder.snapshots", "true"));
+    private static final boolean SCREENSHOTS =
+            Boolean.getBoolean("flight.recorder.screenshots");
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "flight-recorder-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Let pending dumps finish before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            WRITER.shutdown();
+            try {
+                WRITER.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    private final Page page;
+    private final BrowserContext context;
+    private final TimedRingBuffer<String> events = new TimedRingBuffer<>(MAX_EVENTS, WINDOW_MS);
+    private final Consumer<Request> onRequest = r -> record("request", r.method() + " " + r.url());
+    private final Consumer<Response> onResponse = r -> record("response", r.status() + " " + r.url());
+    private final Consumer<Request> onRequestFailed = r -> record("failed", r.url() + " " + r.failure());
+    private final Consumer<ConsoleMessage> onConsole = m -> record("console." + m.type(), m.text());
+    private final Consumer<String> onPageError = e -> record("pageerror", e);
+    private final Consumer<Frame> onNavigated = f -> {
+        if (f.parentFrame() == null) {
+            record("navigated", f.url());
+        }
+    };
+    private boolean tracing;
+    private boolean rotating;
+    private long chunkStartedMs;
+    private Path previousChunk;
+
+    private FlightRecorder(Page page) {
+        this.page = page;
+        this.context = page.context();
+    }
+
+    /**
+     * Start recording for a page (no-op recorder when disabled)
+     */
+    public static FlightRecorder attach(Page page) {
+        FlightRecorder recorder = new FlightRecorder(page);
+        if (ENABLED) {
+            recorder.start();
+        }
+        return recorder;
+    }
+
+    /**
+     * Write the trace and recent events for a failed test
+     * @param testName artifact name (e.g. "TC_008_failed")
+     */
+    public void dump(String testName) {
+        if (!tracing) {
+            return;
+        }
+        tracing = false;
+
+        final List<String> recent = events.snapshot();
+        final long dropped = events.getDropped();
+        final Path earlierTrace = previousChunk;
+        previousChunk = null;
+        final Path tempTrace;
+        try {
+            // Must stay on the Playwright thread; the driver writes the zip
+            tempTrace = Files.createTempFile("trace", ".zip");
+            context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(tempTrace));
+            context.tracing().stop();
+        } catch (Exception e) {
+            System.out.println("Could not stop trace: " + e.getMessage());
+            deleteQuietly(earlierTrace);
+            return;
+        }
+
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        final Path traceFile = Paths.get(TRACES_DIR, testName + "_" + stamp + ".zip");
+        final Path earlierFile = Paths.get(TRACES_DIR, testName + "_" + stamp + ".earlier.zip");
+        final Path eventsFile = Paths.get(TRACES_DIR, testName + "_" + stamp + ".events.log");
+        // Still on the test thread; the files follow shortly from the writer
+        ReportingListener.artifact(traceFile.toString());
+        if (earlierTrace != null) {
+            ReportingListener.artifact(earlierFile.toString());
+        }
+        ReportingListener.artifact(eventsFile.toString());
+
+        WRITER.submit(() -> {
+            try {
+                Files.createDirectories(traceFile.getParent());
+                Files.move(tempTrace, traceFile, StandardCopyOption.REPLACE_EXISTING);
+                if (earlierTrace != null) {
+                    Files.move(earlierTrace, earlierFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(eventsFile, StandardCharsets.UTF_8)) {
+                    writer.write("# last " + (WINDOW_MS / 1000) + "s, " + dropped + " older events dropped");
+                    writer.newLine();
+                    for (String event : recent) {
+                        writer.write(event);
+                        writer.newLine();
+                    }
+                }
+                System.out.println("Trace: " + traceFile + " (view with: playwright show-trace)");
+            } catch (IOException e) {
+                System.out.println("Could not write trace: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stop recording; discards the trace if the test passed
+     */
+    public void detach() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            page.offRequest(onRequest);
+            page.offResponse(onResponse);
+            page.offRequestFailed(onRequestFailed);
+            page.offConsoleMessage(onConsole);
+            page.offPageError(onPageError);
+            page.offFrameNavigated(onNavigated);
+            if (tracing) {
+                tracing = false;
+                context.tracing().stop();
+            }
+        } catch (Exception e) {
+            System.out.println("Flight recorder detach error: " + e.getMessage());
+        }
+        deleteQuietly(previousChunk);
+        previousChunk = null;
+        events.clear();
+    }
+
+    private void start() {
+        try {
+            context.tracing().start(new Tracing.StartOptions()
+                    .setScreenshots(SCREENSHOTS)
+                    .setSnapshots(SNAPSHOTS));
+            context.tracing().startChunk();
+            chunkStartedMs = System.currentTimeMillis();
+            tracing = true;
+        } catch (Exception e) {
+            System.out.println("Tracing unavailable: " + e.getMessage());
+        }
+        page.onRequest(onRequest);
+        page.onResponse(onResponse);
+        page.onRequestFailed(onRequestFailed);
+        page.onConsoleMessage(onConsole);
+        page.onPageError(onPageError);
+        page.onFrameNavigated(onNavigated);
+    }
+
+    private void record(String type, String text) {
+        if (text != null && text.length() > MAX_TEXT) {
+            text = text.substring(0, MAX_TEXT) + "...";
+        }
+        long now = System.currentTimeMillis();
+        events.add(now + " " + type + " " + text);
+        rotateIfDue(now);
+    }
+
+    // Runs from the page listeners, so already on the Playwright thread
+    private void rotateIfDue(long now) {
+        if (!tracing || rotating || now - chunkStartedMs < WINDOW_MS) {
+            return;
+        }
+        rotating = true;
+        try {
+            Path chunk = Files.createTempFile("trace-chunk", ".zip");
+            context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(chunk));
+            deleteQuietly(previousChunk);
+            previousChunk = chunk;
+            context.tracing().startChunk();
+            chunkStartedMs = System.currentTimeMillis();
+        } catch (Exception e) {
+            System.out.println("Could not rotate trace: " + e.getMessage());
+        } finally {
+            rotating = false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+}
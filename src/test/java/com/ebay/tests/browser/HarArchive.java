@@ -0,0 +1,121 @@
+package com.ebay.tests.browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.HarContentPolicy;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * HarArchive.java
+ * Record/replay of a test's network traffic, for repeatable timings offline
+ *
+ * -Dhar.mode=record   save every response the context loads to <har.dir>/<name>.har
+ * -Dhar.mode=replay   serve responses from the archive; unrecorded requests are aborted
+ * -Dhar.timing=zero   replay instantly (default), or "original" to keep recorded latencies
+ * -Dhar.dir=.har      archive directory
+ *
+ * Usage: create the context with contextOptions() (null = defaults), then apply().
+ */
+public class HarArchive {
+
+    /**
+     * What a run does with archives
+     */
+    public enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private final Mode mode;
+    private final boolean originalTiming;
+    private final Path path;
+
+    public HarArchive(Mode mode, boolean originalTiming, Path path) {
+        this.mode = mode;
+        this.originalTiming = originalTiming;
+        this.path = path;
+    }
+
+    /**
+     * Archive for a test, configured from system properties
+     * @param name e.g. "FunctionalTests/testTC_008_CardLayoutAndSpacing"
+     */
+    public static HarArchive forTest(String name) {
+        Mode mode = Mode.valueOf(System.getProperty("har.mode", "off").toUpperCase(Locale.ROOT));
+        boolean originalTiming = "original".equalsIgnoreCase(System.getProperty("har.timing", "zero"));
+        Path path = Paths.get(System.getProperty("har.dir", ".har"), name + ".har");
+        return new HarArchive(mode, originalTiming, path);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Options the context must be created with, or null if defaults will do
+     */
+    public Browser.NewContextOptions contextOptions() {
+        if (mode == Mode.RECORD) {
+            return new Browser.NewContextOptions()
+                    .setRecordHarPath(path)
+                    .setRecordHarMode(HarMode.FULL)
+                    .setRecordHarContent(HarContentPolicy.EMBED);
+        }
+        if (mode == Mode.REPLAY && originalTiming) {
+            // Replay server uses a self-signed certificate
+            return new Browser.NewContextOptions().setIgnoreHTTPSErrors(true);
+        }
+        return null;
+    }
+
+    /**
+     * Install replay routes on a context made with contextOptions()
+     * (recording needs nothing more; the HAR is written when the context closes)
+     */
+    public void apply(BrowserContext context) {
+        if (mode == Mode.RECORD) {
+            try {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            } catch (Exception e) {
+                System.out.println("Could not create HAR directory: " + e.getMessage());
+            }
+            System.out.println("Recording HAR: " + path);
+            return;
+        }
+        if (mode != Mode.REPLAY) {
+            return;
+        }
+        if (!Files.exists(path)) {
+            throw new RuntimeException("No HAR recorded at " + path + " (run once with -Dhar.mode=record)");
+        }
+
+        if (!originalTiming) {
+            context.routeFromHAR(path, new BrowserContext.RouteFromHAROptions().setNotFound(HarNotFound.ABORT));
+            System.out.println("Replaying HAR: " + path);
+            return;
+        }
+
+        final HarReplayServer server = HarReplayServer.start(path);
+        context.onClose(closed -> server.close());
+        context.route("**/*", route -> replay(server, route));
+        System.out.println("Replaying HAR with recorded timing: " + path + " (" + server.getEntryCount() + " entries)");
+    }
+
+    private static void replay(HarReplayServer server, Route route) {
+        String url = server.replayUrl(route.request().method(), route.request().url());
+        if (url == null) {
+            route.abort();
+        } else {
+            route.resume(new Route.ResumeOptions().setUrl(url));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ebay.tests.browser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+/**
+ * HarReplayServer.java
+ * Serves recorded HAR responses with their original timing
+ *
+ * A route handler can't wait without stalling every other request (Playwright
+ * calls are single-threaded), so timed replay sends each request to this local
+ * server instead: the route rewrites the URL to /<entry index> and a server
+ * thread sleeps for the recorded time before answering. Requests still overlap
+ * the way they did when recorded.
+ *
+ * HTTPS entries are served over TLS with a self-signed certificate generated
+ * with keytool into target/ (contexts need ignoreHTTPSErrors).
+ */
+public class HarReplayServer implements AutoCloseable {
+
+    private static final String KEYSTORE = "target/har-replay.p12";
+    private static final String KEYSTORE_PASSWORD = "har-replay";
+
+    // Body is sent decoded and re-framed by the server
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "keep-alive"));
+
+    private final List<JsonObject> entries;
+    private final Map<String, List<Integer>> entriesByRequest = new HashMap<>();
+    private final Map<String, Integer> servedByRequest = new HashMap<>();
+    private final ExecutorService executor;
+    private final HttpServer http;
+    private final HttpsServer https;
+
+    private HarReplayServer(List<JsonObject> entries) throws Exception {
+        this.entries = entries;
+        for (int i = 0; i < entries.size(); i++) {
+            JsonObject request = entries.get(i).getAsJsonObject("request");
+            String key = key(request.get("method").getAsString(), request.get("url").getAsString());
+            entriesByRequest.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "har-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpHandler handler = this::serve;
+
+        http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        http.createContext("/", handler);
+        http.setExecutor(executor);
+        http.start();
+
+        https = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        https.setHttpsConfigurator(new HttpsConfigurator(sslContext()));
+        https.createContext("/", handler);
+        https.setExecutor(executor);
+        https.start();
+    }
+
+    /**
+     * Load a HAR and start serving it
+     */
+    public static HarReplayServer start(Path har) {
+        try (Reader reader = Files.newBufferedReader(har, StandardCharsets.UTF_8)) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonObject()
+                    .getAsJsonObject("log").getAsJsonArray("entries");
+            List<JsonObject> entries = new ArrayList<>();
+            for (JsonElement entry : array) {
+                entries.add(entry.getAsJsonObject());
+            }
+            return new HarReplayServer(entries);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to start HAR replay for " + har + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Where to send a request, or null if it was never recorded
+     * Repeated requests get the recorded responses in order, then the last one again.
+     */
+    public synchronized String replayUrl(String method, String url) {
+        String key = key(method, url);
+        List<Integer> candidates = entriesByRequest.get(key);
+        if (candidates == null) {
+            return null;
+        }
+        int served = servedByRequest.merge(key, 1, Integer::sum) - 1;
+        int index = candidates.get(Math.min(served, candidates.size() - 1));
+
+        boolean secure = url.startsWith("https:");
+        int port = (secure ? https : http).getAddress().getPort();
+        return (secure ? "https" : "http") + "://127.0.0.1:" + port + "/" + index;
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            int index = Integer.parseInt(exchange.getRequestURI().getPath().substring(1));
+            JsonObject entry = entries.get(index);
+            JsonObject response = entry.getAsJsonObject("response");
+
+            long delayMs = entry.has("time") ? (long) entry.get("time").getAsDouble() : 0;
+            if (delayMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(delayMs);
+            }
+
+            for (JsonElement header : response.getAsJsonArray("headers")) {
+                String name = header.getAsJsonObject().get("name").getAsString();
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase()) && !name.startsWith(":")) {
+                    exchange.getResponseHeaders().add(name, header.getAsJsonObject().get("value").getAsString());
+                }
+            }
+            byte[] body = body(response.getAsJsonObject("content"));
+            int status = response.get("status").getAsInt();
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(502, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] body(JsonObject content) {
+        if (content == null || !content.has("text")) {
+            return new byte[0];
+        }
+        String text = content.get("text").getAsString();
+        boolean base64 = content.has("encoding") && "base64".equals(content.get("encoding").getAsString());
+        return base64 ? Base64.getDecoder().decode(text) : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+    private static SSLContext sslContext() throws Exception {
+        Path keystore = Paths.get(KEYSTORE);
+        if (!Files.exists(keystore)) {
+            generateKeystore(keystore);
+        }
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new FileInputStream(keystore.toFile())) {
+            store.load(in, KEYSTORE_PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(store, KEYSTORE_PASSWORD.toCharArray());
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keys.getKeyManagers(), null, null);
+        return context;
+    }
+
+    private static void generateKeystore(Path keystore) throws Exception {
+        Files.createDirectories(keystore.toAbsolutePath().getParent());
+        String keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "har-replay",
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "3650",
+                "-dname", "CN=127.0.0.1", "-ext", "SAN=ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                "-storepass", KEYSTORE_PASSWORD, "-keypass", KEYSTORE_PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            throw new IOException("keytool failed to create " + keystore);
+        }
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        https.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ebay.tests.extension;
+
+import com.ebay.tests.metrics.ResourceMeter;
+import com.ebay.tests.runner.Budget;
+import com.ebay.tests.runner.BudgetEnforcer;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * BudgetExtension.java
+ * Enforces @Budget on JUnit 5 tests (see BudgetEnforcer)
+ *
+ * Register before PlaywrightExtension so injected pages are metered.
+ */
+public class BudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (budget(context) != null && !"off".equals(BudgetEnforcer.getMode())) {
+            ResourceMeter.start();
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ResourceMeter.Usage usage = ResourceMeter.stop();
+        if (usage == null) {
+            return;
+        }
+        System.out.println("Usage: " + usage);
+        // The test's own failure takes precedence
+        if (!context.getExecutionException().isPresent()) {
+            BudgetEnforcer.enforce(context.getRequiredTestClass().getSimpleName() + "."
+                    + context.getRequiredTestMethod().getName(), budget(context), usage);
+        }
+    }
+
+    private static Budget budget(ExtensionContext context) {
+        return BudgetEnforcer.resolve(
+                context.getRequiredTestClass().getAnnotation(Budget.class),
+                context.getRequiredTestMethod().getAnnotation(Budget.class));
+    }
+}
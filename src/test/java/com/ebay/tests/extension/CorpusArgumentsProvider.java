@@ -0,0 +1,82 @@
+package com.ebay.tests.extension;
+
+import com.ebay.tests.utils.FixtureCorpus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+/**
+ * CorpusArgumentsProvider.java
+ * Resolves @CorpusSource into (name, html) pairs, one page decompressed at a time
+ */
+public class CorpusArgumentsProvider implements ArgumentsProvider, AnnotationConsumer<CorpusSource> {
+
+    private static final Path RESOURCES = Paths.get("src/test/resources");
+    private static final Path PACKED_DIR = Paths.get("target/fixtures");
+
+    // Fallback glob -> corpus packed from it by this JVM
+    private static final Map<String, Path> PACKED = new HashMap<>();
+
+    private String fallback;
+
+    @Override
+    public void accept(CorpusSource source) {
+        fallback = source.fallback();
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        String configured = System.getProperty("fixture.corpus", "");
+        Path path;
+        if (configured.isEmpty()) {
+            path = packFallback(fallback);
+        } else {
+            path = Paths.get(configured);
+        }
+
+        FixtureCorpus corpus = FixtureCorpus.open(path);
+        if (corpus.size() == 0) {
+            corpus.close();
+            throw new IllegalStateException("Fixture corpus " + path + " is empty");
+        }
+        return corpus.stream()
+                .map(entry -> Arguments.of(entry.getName(), entry.getHtml()))
+                .onClose(corpus::close);
+    }
+
+    /**
+     * Pack the loose pages once per JVM. The corpus is written to a temp file
+     * and moved into place, so a file that another class (or fork) has mapped
+     * is never rewritten under it.
+     */
+    private static synchronized Path packFallback(String glob) {
+        Path packed = PACKED.get(glob);
+        if (packed != null) {
+            return packed;
+        }
+        packed = PACKED_DIR.resolve("mock-" + Integer.toHexString(glob.hashCode()) + ".corpus");
+        try {
+            Files.createDirectories(PACKED_DIR);
+            Path temp = Files.createTempFile(PACKED_DIR, "mock-", ".corpus.tmp");
+            try {
+                FixtureCorpus.pack(RESOURCES, glob, temp, FixtureCorpus.Codec.DEFLATE);
+                Files.move(temp, packed, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to pack " + glob + " into " + packed + ": " + e.getMessage());
+        }
+        PACKED.put(glob, packed);
+        return packed;
+    }
+}
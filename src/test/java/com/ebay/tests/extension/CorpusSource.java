@@ -0,0 +1,26 @@
+package com.ebay.tests.extension;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+/**
+ * CorpusSource.java
+ * Feeds every page of a packed fixture corpus to a @ParameterizedTest
+ *
+ * Each page is passed as (String name, String html), streamed in file order.
+ * The corpus is -Dfixture.corpus if set; otherwise the loose mock fixtures are
+ * packed into target/fixtures/mock-<glob hash>.corpus, once per JVM.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(CorpusArgumentsProvider.class)
+public @interface CorpusSource {
+
+    // Glob within src/test/resources packed when no corpus is given
+    String fallback() default "mock_ebay_*.html";
+}
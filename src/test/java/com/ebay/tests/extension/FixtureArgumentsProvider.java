@@ -0,0 +1,46 @@
+package com.ebay.tests.extension;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+/**
+ * FixtureArgumentsProvider.java
+ * Resolves @FixtureSource into fixture file paths
+ */
+public class FixtureArgumentsProvider implements ArgumentsProvider, AnnotationConsumer<FixtureSource> {
+
+    private static final Path RESOURCES = Paths.get("src/test/resources");
+
+    private String glob;
+
+    @Override
+    public void accept(FixtureSource source) {
+        glob = source.value();
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) throws IOException {
+        List<Path> fixtures = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(RESOURCES, glob)) {
+            for (Path file : files) {
+                fixtures.add(file);
+            }
+        }
+        if (fixtures.isEmpty()) {
+            throw new IllegalStateException("No fixtures match " + RESOURCES + "/" + glob);
+        }
+        Collections.sort(fixtures);
+        return fixtures.stream().map(Arguments::of);
+    }
+}
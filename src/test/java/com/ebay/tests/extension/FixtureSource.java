@@ -0,0 +1,24 @@
+package com.ebay.tests.extension;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+/**
+ * FixtureSource.java
+ * Feeds mock HTML fixtures from src/test/resources to a @ParameterizedTest
+ *
+ * Each matching file is passed as a Path, in name order.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(FixtureArgumentsProvider.class)
+public @interface FixtureSource {
+
+    // Glob within src/test/resources
+    String value() default "mock_ebay_*.html";
+}
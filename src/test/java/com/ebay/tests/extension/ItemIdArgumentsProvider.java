@@ -0,0 +1,43 @@
+package com.ebay.tests.extension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+/**
+ * ItemIdArgumentsProvider.java
+ * Resolves @ItemIdSource into item URLs
+ */
+public class ItemIdArgumentsProvider implements ArgumentsProvider, AnnotationConsumer<ItemIdSource> {
+
+    private static final String DEFAULT_BASE_URL = "https://www.ebay.com/itm/";
+
+    private List<String> ids;
+
+    @Override
+    public void accept(ItemIdSource source) {
+        String override = System.getProperty("item.ids", "");
+        ids = override.trim().isEmpty() ? Arrays.asList(source.value()) : split(override);
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        String baseUrl = System.getProperty("item.base.url", DEFAULT_BASE_URL);
+        return ids.stream().map(id -> Arguments.of(baseUrl + id));
+    }
+
+    private static List<String> split(String ids) {
+        List<String> list = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.trim().isEmpty()) {
+                list.add(id.trim());
+            }
+        }
+        return list;
+    }
+}
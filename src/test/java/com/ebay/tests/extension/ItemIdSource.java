@@ -0,0 +1,26 @@
+package com.ebay.tests.extension;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+/**
+ * ItemIdSource.java
+ * Feeds item page URLs to a @ParameterizedTest
+ *
+ * Ids come from -Ditem.ids=1,2,3 if set, else from value(). URLs are
+ * -Ditem.base.url (default https://www.ebay.com/itm/) + id, so the same
+ * tests can target a local stand-in or staging copy.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(ItemIdArgumentsProvider.class)
+public @interface ItemIdSource {
+
+    // Default item ids
+    String[] value();
+}
@@ -0,0 +1,208 @@
+package com.ebay.tests.extension;
+
+import com.ebay.tests.browser.BrowserContextPool;
+import com.ebay.tests.browser.FlightRecorder;
+import com.ebay.tests.browser.HarArchive;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.BasePage;
+import com.ebay.tests.reporting.ReportingListener;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+/**
+ * PlaywrightExtension.java
+ * JUnit 5 setup/teardown for browser tests
+ *
+ * Test methods declare what they need and get it injected:
+ *   void test(RelatedProductsPage relatedPage)   any BasePage with a (Page) constructor
+ *   void test(Page page), void test(BrowserContext context)
+ * All parameters of one test share one pooled context and page, released
+ * after the test. On failure a screenshot and the flight-recorder trace are
+ * saved, and the TestWatcher lists the artifacts.
+ *
+ * Each execution thread gets its own Playwright and BrowserContextPool
+ * (Playwright objects are single-threaded), so classes can run in parallel
+ * (see junit-platform.properties). -Dhar.mode applies per test.
+ * Tests that ResultCacheExtension reports as cached passes get null.
+ */
+public class PlaywrightExtension implements ParameterResolver, AfterTestExecutionCallback, TestWatcher {
+
+    private static final String SCREENSHOTS_DIR = "target/screenshots";
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(PlaywrightExtension.class);
+
+    private static final ThreadLocal<Session> SESSIONS = new ThreadLocal<>();
+    private static final Map<String, List<String>> ARTIFACTS = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == Page.class || type == BrowserContext.class || BasePage.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        if (ResultCacheExtension.isCachedPass(extensionContext)) {
+            // Body is skipped; don't start a browser for it
+            return null;
+        }
+        Lease lease = lease(extensionContext);
+        Class<?> type = parameterContext.getParameter().getType();
+        if (type == Page.class) {
+            return lease.page;
+        }
+        if (type == BrowserContext.class) {
+            return lease.context;
+        }
+        try {
+            return type.getConstructor(Page.class).newInstance(lease.page);
+        } catch (ReflectiveOperationException e) {
+            throw new ParameterResolutionException("Cannot create " + type.getSimpleName() + "(Page)", e);
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Lease lease = context.getStore(NAMESPACE).get(Lease.class, Lease.class);
+        if (lease == null || !context.getExecutionException().isPresent()) {
+            return;
+        }
+        // Page is still open here; @AfterEach and the lease release run later
+        String name = testName(context);
+        List<String> artifacts = new ArrayList<>();
+        try {
+            new File(SCREENSHOTS_DIR).mkdirs();
+            String filename = SCREENSHOTS_DIR + "/" + name + "_" + System.currentTimeMillis() + ".png";
+            byte[] image = lease.page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            MetricsRegistry.getDefault().counter("screenshot_bytes_total").add(image.length);
+            artifacts.add(filename);
+            ReportingListener.artifact(filename);
+        } catch (Exception e) {
+            System.out.println("Could not capture: " + e.getMessage());
+        }
+        lease.recorder.dump(name);
+        artifacts.add("target/traces/" + name + "_*.zip");
+        ARTIFACTS.put(context.getUniqueId(), artifacts);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        List<String> artifacts = ARTIFACTS.remove(context.getUniqueId());
+        System.out.println("FAILED " + context.getDisplayName() + ": " + cause.getMessage());
+        if (artifacts != null) {
+            for (String artifact : artifacts) {
+                System.out.println("  artifact: " + artifact);
+            }
+        }
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        System.out.println("PASSED " + context.getDisplayName());
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        System.out.println("SKIPPED " + context.getDisplayName() + ": " + cause.getMessage());
+    }
+
+    private Lease lease(ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(Lease.class, key -> {
+            BrowserContextPool pool = session(context).pool;
+            HarArchive har = HarArchive.forTest(context.getRequiredTestClass().getSimpleName()
+                    + "/" + testName(context));
+            BrowserContext browserContext = pool.acquire(har.contextOptions());
+            har.apply(browserContext);
+            Page page = browserContext.newPage();
+            return new Lease(pool, browserContext, page, FlightRecorder.attach(page));
+        }, Lease.class);
+    }
+
+    /**
+     * This thread's Playwright and pool, closed when the whole run ends
+     */
+    private static Session session(ExtensionContext context) {
+        Session session = SESSIONS.get();
+        if (session == null || session.closed) {
+            session = new Session();
+            SESSIONS.set(session);
+            context.getRoot().getStore(NAMESPACE).put(session, session);
+        }
+        return session;
+    }
+
+    // Method name, plus the invocation for parameterized tests
+    static String testName(ExtensionContext context) {
+        String method = context.getTestMethod().map(Method::getName).orElse("test");
+        Optional<String> invocation = Optional.of(context.getDisplayName())
+                .filter(name -> !name.equals(method + "()"));
+        return method + invocation.map(name -> "_" + name.replaceAll("[^A-Za-z0-9._-]+", "_")).orElse("");
+    }
+
+    /**
+     * Context and page for one test
+     */
+    private static class Lease implements ExtensionContext.Store.CloseableResource {
+
+        private final BrowserContextPool pool;
+        private final BrowserContext context;
+        private final Page page;
+        private final FlightRecorder recorder;
+
+        Lease(BrowserContextPool pool, BrowserContext context, Page page, FlightRecorder recorder) {
+            this.pool = pool;
+            this.context = context;
+            this.page = page;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void close() {
+            try {
+                recorder.detach();
+                if (!page.isClosed()) {
+                    page.close();
+                }
+            } catch (Exception e) {
+                System.out.println("Teardown error: " + e.getMessage());
+            }
+            pool.release(context);
+        }
+    }
+
+    /**
+     * Playwright and context pool owned by one execution thread
+     */
+    private static class Session implements ExtensionContext.Store.CloseableResource {
+
+        private final Playwright playwright = Playwright.create();
+        private final BrowserContextPool pool = BrowserContextPool.launch(playwright);
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+            try {
+                pool.close();
+                playwright.close();
+            } catch (Exception e) {
+                System.out.println("Teardown error: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ebay.tests.extension;
+
+import com.ebay.tests.runner.ResultCache;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+/**
+ * ResultCacheExtension.java
+ * Reports unchanged @Cached JUnit 5 tests as cached passes (see ResultCache)
+ *
+ * The decision is made before parameters are resolved, so PlaywrightExtension
+ * injects nothing (null) for a cached test and no browser is started; the
+ * test body is skipped and JUnit counts it as passed.
+ * Parameterized invocations are cached by display name, e.g. each fixture.
+ */
+public class ResultCacheExtension implements BeforeEachCallback, InvocationInterceptor, TestWatcher {
+
+    // Unique id -> decision, until the test is reported
+    private static final Map<String, Lookup> LOOKUPS = new ConcurrentHashMap<>();
+
+    /**
+     * True if this test is a cached pass and will not run
+     */
+    public static boolean isCachedPass(ExtensionContext context) {
+        Lookup lookup = LOOKUPS.get(context.getUniqueId());
+        return lookup != null && lookup.hit;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (ResultCache.getMode() == ResultCache.Mode.OFF) {
+            return;
+        }
+        ResultCache cache = ResultCache.getDefault();
+        String key = cache.key(context.getRequiredTestClass(), PlaywrightExtension.testName(context));
+        if (key == null) {
+            return;
+        }
+        String testId = context.getRequiredTestClass().getName() + "#" + PlaywrightExtension.testName(context);
+        LOOKUPS.put(context.getUniqueId(), new Lookup(testId, key, cache.isCachedPass(testId, key)));
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        proceedUnlessCached(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        proceedUnlessCached(invocation, extensionContext);
+    }
+
+    private static void proceedUnlessCached(Invocation<Void> invocation, ExtensionContext context) throws Throwable {
+        if (isCachedPass(context)) {
+            System.out.println("PASSED (cached) " + context.getDisplayName());
+            invocation.skip();
+        } else {
+            invocation.proceed();
+        }
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        record(context, true);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        record(context, false);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        record(context, false);
+    }
+
+    private static void record(ExtensionContext context, boolean passed) {
+        Lookup lookup = LOOKUPS.remove(context.getUniqueId());
+        if (lookup != null && !lookup.hit) {
+            ResultCache.getDefault().record(lookup.testId, lookup.key, passed);
+        }
+    }
+
+    /**
+     * Cache decision for one test
+     */
+    private static class Lookup {
+
+        private final String testId;
+        private final String key;
+        private final boolean hit;
+
+        Lookup(String testId, String key, boolean hit) {
+            this.testId = testId;
+            this.key = key;
+            this.hit = hit;
+        }
+    }
+}
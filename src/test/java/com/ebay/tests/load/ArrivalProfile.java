@@ -0,0 +1,152 @@
+package com.ebay.tests.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ArrivalProfile.java
+ * Open-model arrival schedule: when each request is supposed to start
+ *
+ * The rate changes linearly through a list of stages, starting from 0/s.
+ * "30s:10,120s:10,15s:0" ramps up to 10/s over 30s, holds for 2 minutes and
+ * ramps down over 15s. Arrivals are evenly spaced along the rate curve and do
+ * not depend on how fast the system answers.
+ */
+public class ArrivalProfile {
+
+    private final List<Stage> stages;
+    private final long[] arrivalNanos;
+
+    public ArrivalProfile(List<Stage> stages) {
+        this.stages = new ArrayList<>(stages);
+        this.arrivalNanos = schedule(this.stages);
+    }
+
+    /**
+     * Constant rate after a linear ramp-up
+     */
+    public static ArrivalProfile rampThenHold(double ratePerSecond, double rampUpSeconds, double holdSeconds) {
+        List<Stage> stages = new ArrayList<>();
+        if (rampUpSeconds > 0) {
+            stages.add(new Stage(rampUpSeconds, ratePerSecond));
+        }
+        stages.add(new Stage(holdSeconds, ratePerSecond, ratePerSecond));
+        return new ArrivalProfile(stages);
+    }
+
+    /**
+     * Parse "duration:targetRate,..." e.g. "30s:10,2m:10,15s:0"
+     */
+    public static ArrivalProfile parse(String spec) {
+        List<Stage> stages = new ArrayList<>();
+        double rate = 0;
+        for (String part : spec.split(",")) {
+            String[] pieces = part.trim().split(":");
+            if (pieces.length != 2) {
+                throw new IllegalArgumentException("Stage must be duration:rate, got: " + part);
+            }
+            double target = Double.parseDouble(pieces[1].trim());
+            stages.add(new Stage(parseSeconds(pieces[0].trim()), rate, target));
+            rate = target;
+        }
+        return new ArrivalProfile(stages);
+    }
+
+    private static double parseSeconds(String duration) {
+        if (duration.endsWith("ms")) {
+            return Double.parseDouble(duration.substring(0, duration.length() - 2)) / 1000;
+        }
+        if (duration.endsWith("m")) {
+            return Double.parseDouble(duration.substring(0, duration.length() - 1)) * 60;
+        }
+        if (duration.endsWith("s")) {
+            return Double.parseDouble(duration.substring(0, duration.length() - 1));
+        }
+        return Double.parseDouble(duration);
+    }
+
+    private static long[] schedule(List<Stage> stages) {
+        long[] arrivals = new long[16];
+        int count = 0;
+        double stageStart = 0;
+        double cumulative = 0;
+
+        for (Stage stage : stages) {
+            double a = stage.fromRate;
+            double slope = (stage.toRate - stage.fromRate) / stage.seconds;
+            double area = (stage.fromRate + stage.toRate) / 2 * stage.seconds;
+
+            // Arrival k happens when the integral of the rate reaches k
+            while (count < cumulative + area) {
+                double n = count - cumulative;
+                double t = slope == 0 ? n / a : (-a + Math.sqrt(a * a + 2 * slope * n)) / slope;
+                if (count == arrivals.length) {
+                    arrivals = Arrays.copyOf(arrivals, count * 2);
+                }
+                arrivals[count++] = (long) ((stageStart + t) * 1e9);
+            }
+            cumulative += area;
+            stageStart += stage.seconds;
+        }
+        return Arrays.copyOf(arrivals, count);
+    }
+
+    public int getArrivalCount() {
+        return arrivalNanos.length;
+    }
+
+    // Intended start of arrival i, in nanos after the run starts
+    public long getArrivalNanos(int index) {
+        return arrivalNanos[index];
+    }
+
+    public double getDurationSeconds() {
+        double total = 0;
+        for (Stage stage : stages) {
+            total += stage.seconds;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Stage stage : stages) {
+            if (out.length() > 0) {
+                out.append(", ");
+            }
+            out.append(stage);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Linear change of rate over a period
+     */
+    public static class Stage {
+
+        private final double seconds;
+        private final double fromRate;
+        private final double toRate;
+
+        // Ramp from 0/s
+        public Stage(double seconds, double toRate) {
+            this(seconds, 0, toRate);
+        }
+
+        public Stage(double seconds, double fromRate, double toRate) {
+            if (seconds <= 0 || fromRate < 0 || toRate < 0) {
+                throw new IllegalArgumentException("Invalid stage: " + seconds + "s " + fromRate + "->" + toRate);
+            }
+            this.seconds = seconds;
+            this.fromRate = fromRate;
+            this.toRate = toRate;
+        }
+
+        @Override
+        public String toString() {
+            return seconds + "s " + fromRate + "->" + toRate + "/s";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ebay.tests.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram.java
+ * Log-linear latency histogram in the style of HdrHistogram
+ *
+ * Values (microseconds) below 256 get exact buckets; above that each power of
+ * two is split into 128 equal buckets, so any recorded value is off by less
+ * than 1%. Memory is fixed (~3.5k counters for up to an hour) and recording
+ * is lock-free, so many load workers can share one histogram.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 256;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int HALF_MAGNITUDE = 7;
+    private static final long DEFAULT_MAX_MICROS = 3_600_000_000L;
+
+    private final long maxValue;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        this(DEFAULT_MAX_MICROS);
+    }
+
+    /**
+     * @param maxValue largest trackable value; larger values are clamped
+     */
+    public LatencyHistogram(long maxValue) {
+        this.maxValue = Math.max(SUB_BUCKETS, maxValue);
+        this.counts = new AtomicLongArray(indexOf(this.maxValue) + 1);
+    }
+
+    public void recordValue(long value) {
+        long clamped = Math.min(Math.max(0, value), maxValue);
+        counts.incrementAndGet(indexOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Record a value from a closed-loop caller that meant to send one request
+     * every expectedInterval: a stall also delayed the requests that could not
+     * be sent, so their (shrinking) latencies are filled in too.
+     */
+    public void recordValueWithExpectedInterval(long value, long expectedInterval) {
+        recordValue(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+            recordValue(missing);
+        }
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < Math.min(counts.length(), other.counts.length()); i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.getTotalCount());
+        totalValue.add(other.totalValue.sum());
+        max.accumulate(other.getMaxValue());
+    }
+
+    /**
+     * @param percentile 0..100
+     * @return highest value equivalent to the bucket holding that percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxValue() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // value >> shift lands in [128, 256)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - HALF_MAGNITUDE;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >> shift) - HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
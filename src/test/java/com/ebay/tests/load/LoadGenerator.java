@@ -0,0 +1,139 @@
+package com.ebay.tests.load;
+
+import com.ebay.tests.browser.BrowserServer;
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator.java
+ * Drives the related-products page objects at an open-model arrival rate
+ *
+ * The calling thread releases arrivals at their scheduled times onto a queue;
+ * each session thread (own Playwright, context and page, since Playwright
+ * objects are single-threaded) takes the next arrival and runs
+ * navigateTo + waitForRelatedProductsToLoad. The schedule starts once every
+ * session has its browser and page, so startup is not charged to the first
+ * arrivals.
+ *
+ * Latency is measured from the scheduled start, not from when a session got
+ * to it, so time spent waiting behind a slow response is counted
+ * (coordinated omission correction). Service time is recorded separately.
+ */
+public class LoadGenerator {
+
+    private static final long STOP = Long.MIN_VALUE;
+
+    private final String url;
+    private final ArrivalProfile profile;
+    private final int sessions;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    public LoadGenerator(String url, ArrivalProfile profile, int sessions) {
+        this.url = url;
+        this.profile = profile;
+        this.sessions = sessions;
+    }
+
+    public LoadReport run() {
+        BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+        CountDownLatch ready = new CountDownLatch(sessions);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Thread worker = new Thread(() -> runSession(arrivals, ready), "load-session-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        try {
+            ready.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < sessions; i++) {
+                arrivals.add(STOP);
+            }
+            throw new RuntimeException("Failed to start load sessions: " + e.getMessage());
+        }
+
+        System.out.println("Load: " + profile.getArrivalCount() + " arrivals over "
+                + profile.getDurationSeconds() + "s (" + profile + "), " + sessions + " sessions -> " + url);
+        long start = System.nanoTime();
+        for (int i = 0; i < profile.getArrivalCount(); i++) {
+            long due = start + profile.getArrivalNanos(i);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            arrivals.add(due);
+        }
+        for (int i = 0; i < sessions; i++) {
+            arrivals.add(STOP);
+        }
+
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new LoadReport(url, profile, sessions, latency, serviceTime, errors.get(), elapsedNanos);
+    }
+
+    // Counts down on ready once set up, or on failure so run() never waits forever
+    private void runSession(BlockingQueue<Long> arrivals, CountDownLatch ready) {
+        boolean started = false;
+        try (Playwright playwright = Playwright.create();
+             BrowserServer server = BrowserServer.connect(playwright)) {
+            BrowserContext context = server.newContext();
+            RelatedProductsPage relatedPage = new RelatedProductsPage(context.newPage());
+            started = true;
+            ready.countDown();
+
+            while (true) {
+                long due = arrivals.take();
+                if (due == STOP) {
+                    break;
+                }
+                long begin = System.nanoTime();
+                boolean ok;
+                try {
+                    relatedPage.navigateTo(url);
+                    relatedPage.waitForRelatedProductsToLoad();
+                    ok = relatedPage.getRelatedProductsCount() > 0;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long end = System.nanoTime();
+
+                latency.recordValue(TimeUnit.NANOSECONDS.toMicros(end - due));
+                serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(end - begin));
+                if (!ok) {
+                    errors.incrementAndGet();
+                }
+            }
+            context.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Arrivals left in the queue are reported as unserved
+            System.out.println("Load session failed: " + e.getMessage());
+        } finally {
+            if (!started) {
+                ready.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ebay.tests.load;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * LoadReport.java
+ * Summary of one load run
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String url;
+    private final ArrivalProfile profile;
+    private final int sessions;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+    private final long failed;
+    private final long elapsedNanos;
+
+    LoadReport(String url, ArrivalProfile profile, int sessions, LatencyHistogram latency,
+               LatencyHistogram serviceTime, long failed, long elapsedNanos) {
+        this.url = url;
+        this.profile = profile;
+        this.sessions = sessions;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getScheduled() {
+        return profile.getArrivalCount();
+    }
+
+    public long getCompleted() {
+        return latency.getTotalCount();
+    }
+
+    // Arrivals no session got to (sessions that failed to start)
+    public long getUnserved() {
+        return getScheduled() - getCompleted();
+    }
+
+    // Failed requests plus unserved arrivals, over scheduled
+    public double getErrorRate() {
+        return getScheduled() == 0 ? 0 : (double) (failed + getUnserved()) / getScheduled();
+    }
+
+    public double getAchievedRate() {
+        return getCompleted() / (elapsedNanos / 1e9);
+    }
+
+    // Latency from scheduled start (coordinated-omission corrected), microseconds
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Latency from when a session started the request, microseconds
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public String toText() {
+        StringBuilder out = new StringBuilder();
+        out.append("=== Load Test Summary ===\n");
+        out.append("URL:       ").append(url).append('\n');
+        out.append("Profile:   ").append(profile).append('\n');
+        out.append("Sessions:  ").append(sessions).append('\n');
+        out.append(String.format(Locale.ROOT, "Requests:  %d scheduled, %d completed, %d failed, %d unserved%n",
+                getScheduled(), getCompleted(), failed, getUnserved()));
+        out.append(String.format(Locale.ROOT, "Rate:      %.2f/s achieved over %.1fs%n",
+                getAchievedRate(), elapsedNanos / 1e9));
+        out.append(String.format(Locale.ROOT, "Errors:    %.2f%%%n", getErrorRate() * 100));
+        out.append(String.format(Locale.ROOT, "%-10s %12s %12s%n", "", "latency ms", "service ms"));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(Locale.ROOT, "%-10s %12.1f %12.1f%n", "p" + trim(percentile),
+                    latency.getValueAtPercentile(percentile) / 1000.0,
+                    serviceTime.getValueAtPercentile(percentile) / 1000.0));
+        }
+        out.append(String.format(Locale.ROOT, "%-10s %12.1f %12.1f%n", "max",
+                latency.getMaxValue() / 1000.0, serviceTime.getMaxValue() / 1000.0));
+        out.append(String.format(Locale.ROOT, "%-10s %12.1f %12.1f%n", "mean",
+                latency.getMean() / 1000.0, serviceTime.getMean() / 1000.0));
+        return out.toString();
+    }
+
+    public void write(Path path) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(toText());
+            }
+            System.out.println("Load report: " + path);
+        } catch (IOException e) {
+            System.out.println("Could not write load report: " + e.getMessage());
+        }
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ebay.tests.load;
+
+import com.ebay.tests.utils.FixtureCorpus;
+import com.ebay.tests.utils.ItemIds;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LocalProductService.java
+ * Local stand-in for the product page service, for load-test dry runs
+ *
+ * Serves the mock product page (with related products) for any /itm/... path.
+ * With -Dload.corpus=<file> it serves /itm/<id> from a packed FixtureCorpus
+ * instead (404 for ids it doesn't have), read straight from the mapped file.
+ * -Dload.service.delay.ms adds a fixed server-side delay per request.
+ */
+public class LocalProductService implements AutoCloseable {
+
+    private static final String PRODUCT_HTML = "src/test/resources/mock_ebay_product.html";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FixtureCorpus corpus;
+
+    private LocalProductService(HttpServer server, ExecutorService executor, FixtureCorpus corpus) {
+        this.server = server;
+        this.executor = executor;
+        this.corpus = corpus;
+    }
+
+    /**
+     * Start on an ephemeral port
+     * @param threads request handler threads
+     */
+    public static LocalProductService start(int threads) {
+        try {
+            final byte[] html = Files.readAllBytes(Paths.get(PRODUCT_HTML));
+            final long delayMs = Long.getLong("load.service.delay.ms", 0);
+            String corpusPath = System.getProperty("load.corpus", "");
+            final FixtureCorpus corpus = corpusPath.isEmpty() ? null : FixtureCorpus.open(Paths.get(corpusPath));
+
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/itm/", exchange -> {
+                try {
+                    if (delayMs > 0) {
+                        Thread.sleep(delayMs);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] page = corpus == null ? html
+                        : corpus.get(ItemIds.parse(exchange.getRequestURI().getPath()));
+                if (page == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+                exchange.sendResponseHeaders(200, page.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(page);
+                }
+            });
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            server.setExecutor(executor);
+            server.start();
+
+            LocalProductService service = new LocalProductService(server, executor, corpus);
+            System.out.println("Local product service: " + service.getProductUrl()
+                    + (corpus != null ? " (" + corpus.size() + " pages from " + corpus.getPath() + ")" : ""));
+            return service;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start local product service: " + e.getMessage());
+        }
+    }
+
+    // First corpus item when serving a corpus
+    public String getProductUrl() {
+        long itemId = corpus != null && corpus.size() > 0 ? corpus.getIds()[0] : 123456789L;
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/itm/" + itemId;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if (corpus != null) {
+            corpus.close();
+        }
+    }
+}
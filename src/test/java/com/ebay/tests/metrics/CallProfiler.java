@@ -0,0 +1,155 @@
+package com.ebay.tests.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CallProfiler.java
+ * Profiles Playwright round trips by the code path that made them
+ *
+ * Listens to InstrumentedPlaywright and aggregates every call by its stack
+ * (test method ... page-object method -> Playwright call). Output is the
+ * collapsed-stack format used by flamegraph.pl / speedscope, weighted by
+ * microseconds:
+ *
+ *   FunctionalTests.testTC002;RelatedProductsPage.isPriceRangeValid;Locator.textContent 18250
+ *
+ * Enable with -Dplaywright.profile=true. Written at JVM exit to
+ * -Dplaywright.profile.output (default target/profile/playwright.collapsed),
+ * and the -Dplaywright.profile.top (20) busiest call sites are printed,
+ * which is where N+1 loops show up.
+ */
+public class CallProfiler implements InstrumentedPlaywright.CallListener {
+
+    private static final String DEFAULT_OUTPUT = "target/profile/playwright.collapsed";
+    private static final String OWN_PACKAGE = "com.ebay.tests.";
+    private static final String METRICS_PACKAGE = "com.ebay.tests.metrics.";
+
+    private static volatile CallProfiler installed;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    /**
+     * Install the JVM-wide profiler if -Dplaywright.profile=true
+     */
+    static void installIfEnabled() {
+        if (installed != null || !Boolean.getBoolean("playwright.profile")) {
+            return;
+        }
+        synchronized (CallProfiler.class) {
+            if (installed != null) {
+                return;
+            }
+            final CallProfiler profiler = new CallProfiler();
+            final Path output = Paths.get(System.getProperty("playwright.profile.output", DEFAULT_OUTPUT));
+            final int top = Integer.getInteger("playwright.profile.top", 20);
+            InstrumentedPlaywright.addListener(profiler);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                profiler.writeCollapsed(output);
+                profiler.printTop(top);
+            }));
+            installed = profiler;
+            System.out.println("Playwright profiling on, output: " + output);
+        }
+    }
+
+    @Override
+    public void onCall(String caller, String call, long nanos, StackTraceElement[] stack) {
+        String key = collapse(stack, call);
+        Site site = sites.get(key);
+        if (site == null) {
+            site = sites.computeIfAbsent(key, k -> new Site());
+        }
+        site.calls.increment();
+        site.nanos.add(nanos);
+    }
+
+    /**
+     * Root-first frames from this project (test and page classes), then the call;
+     * PageHelpers/PageState and lambda frames are left out
+     */
+    static String collapse(StackTraceElement[] stack, String call) {
+        StringBuilder out = new StringBuilder();
+        String previous = null;
+        for (int i = stack.length - 1; i >= 0; i--) {
+            String className = stack[i].getClassName();
+            if (!className.startsWith(OWN_PACKAGE) || className.startsWith(METRICS_PACKAGE)
+                    || InstrumentedPlaywright.isPlumbing(stack[i])) {
+                continue;
+            }
+            String frame = InstrumentedPlaywright.simpleName(className) + "." + stack[i].getMethodName();
+            // Lambdas and overload chains repeat the same frame
+            if (frame.equals(previous)) {
+                continue;
+            }
+            out.append(frame).append(';');
+            previous = frame;
+        }
+        return out.append(call).toString();
+    }
+
+    /**
+     * Collapsed stacks, weighted by microseconds
+     */
+    public List<String> getCollapsedLines() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Site> entry : sites.entrySet()) {
+            long micros = Math.max(1, entry.getValue().nanos.sum() / 1000);
+            lines.add(entry.getKey() + " " + micros);
+        }
+        Collections.sort(lines);
+        return lines;
+    }
+
+    public long getCallCount(String collapsedStack) {
+        Site site = sites.get(collapsedStack);
+        return site == null ? 0 : site.calls.sum();
+    }
+
+    public void writeCollapsed(Path path) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                for (String line : getCollapsedLines()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write profile: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Print the call sites with the most total time
+     */
+    public void printTop(int limit) {
+        List<Map.Entry<String, Site>> entries = new ArrayList<>(sites.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()));
+
+        System.out.println("=== Playwright call sites by total time ===");
+        for (int i = 0; i < Math.min(limit, entries.size()); i++) {
+            Site site = entries.get(i).getValue();
+            String stack = entries.get(i).getKey();
+            // Page-object method and call are the most useful part of the stack
+            int cut = stack.lastIndexOf(';', stack.lastIndexOf(';') - 1);
+            System.out.println(String.format("%8.1f ms %6d calls  %s",
+                    site.nanos.sum() / 1e6, site.calls.sum(), stack.substring(cut + 1)));
+        }
+    }
+
+    private static class Site {
+        final LongAdder calls = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+}
@@ -0,0 +1,231 @@
+package com.ebay.tests.metrics;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * InstrumentedPlaywright.java
+ * Wraps the Page (and Locators made from it) that page objects use
+ *
+ * Every call that talks to the browser is timed and attributed to the
+ * page-object method that made it (e.g. RelatedProductsPage.isPriceRangeValid).
+ * Locator-building calls (locator, nth, first, getBy...) are local and are
+ * only wrapped, not timed; neither are accessors answered by the client
+ * (url, isClosed, context, mainFrame, on.../off... listeners). Results go to
+ * MetricsRegistry and any registered CallListener.
+ *
+ * Disable with -Dplaywright.instrument=false. -Dplaywright.attribute=false
+ * keeps the timings but skips the stack walk that finds the page-object
+ * method (unless a CallListener needs the stack). -Dplaywright.profile=true
+ * adds a CallProfiler (collapsed stacks for flame graphs).
+ */
+public final class InstrumentedPlaywright {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("playwright.instrument", "true"));
+    private static final boolean ATTRIBUTE =
+            Boolean.parseBoolean(System.getProperty("playwright.attribute", "true"));
+    private static final String PAGES_PACKAGE = "com.ebay.tests.pages.";
+    private static final String UNATTRIBUTED = "(test)";
+    // Page-side plumbing every query passes through; the page-object method above it is the caller
+    private static final List<String> PLUMBING = Arrays.asList(
+            PAGES_PACKAGE + "PageHelpers", PAGES_PACKAGE + "PageState");
+
+    // Answered from client-side state, no driver round trip
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+            "url", "isClosed", "context", "page", "mainFrame", "frames", "frame", "frameLocator", "contentFrame",
+            "keyboard", "mouse", "touchscreen", "clock", "request", "video", "viewportSize", "workers",
+            "setDefaultTimeout", "setDefaultNavigationTimeout"));
+
+    private static final List<CallListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives every timed Playwright call
+     */
+    public interface CallListener {
+
+        /**
+         * @param caller innermost page-object method, e.g. "RelatedProductsPage.getRelatedProductsCount"
+         * @param call Playwright API, e.g. "Locator.count"
+         * @param nanos call duration
+         * @param stack stack at the call (innermost first)
+         */
+        void onCall(String caller, String call, long nanos, StackTraceElement[] stack);
+    }
+
+    static {
+        if (ENABLED) {
+            CallProfiler.installIfEnabled();
+        }
+    }
+
+    private InstrumentedPlaywright() {
+    }
+
+    public static void addListener(CallListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(CallListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Wrap a page (returns it unchanged when instrumentation is disabled)
+     */
+    public static Page wrap(Page page) {
+        if (!ENABLED || page == null || isWrapped(page)) {
+            return page;
+        }
+        return proxy(Page.class, page);
+    }
+
+    /**
+     * The real object behind a wrapped Page or Locator
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unwrap(T object) {
+        return isWrapped(object)
+                ? (T) ((Handler) Proxy.getInvocationHandler(object)).target
+                : object;
+    }
+
+    public static boolean isWrapped(Object object) {
+        return object != null && Proxy.isProxyClass(object.getClass())
+                && Proxy.getInvocationHandler(object) instanceof Handler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new Handler(type.getSimpleName(), target));
+    }
+
+    private static class Handler implements InvocationHandler {
+
+        private final String typeName;
+        private final Object target;
+
+        Handler(String typeName, Object target) {
+            this.typeName = typeName;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+            unwrapArgs(args);
+
+            // Building a locator is local: wrap the result, nothing to time
+            if (method.getReturnType() == Locator.class) {
+                return proxy(Locator.class, (Locator) call(method, args));
+            }
+            if (isLocal(method.getName())) {
+                return call(method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } finally {
+                record(typeName + "." + method.getName(), System.nanoTime() - start);
+            }
+            if (result instanceof byte[] && method.getName().equals("screenshot")) {
+                MetricsRegistry.getDefault().counter("screenshot_bytes_total").add(((byte[]) result).length);
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0] || target.equals(unwrap(args[0]));
+                case "hashCode":
+                    return target.hashCode();
+                default:
+                    return call(method, args);
+            }
+        }
+
+        private static void unwrapArgs(Object[] args) {
+            if (args == null) {
+                return;
+            }
+            for (int i = 0; i < args.length; i++) {
+                args[i] = unwrap(args[i]);
+            }
+        }
+    }
+
+    // Accessors and event (un)subscriptions (onClose, offClose, onceDialog...)
+    static boolean isLocal(String method) {
+        if (LOCAL_CALLS.contains(method)) {
+            return true;
+        }
+        int prefix = method.startsWith("once") ? 4 : method.startsWith("off") ? 3 : method.startsWith("on") ? 2 : 0;
+        return prefix > 0 && method.length() > prefix && Character.isUpperCase(method.charAt(prefix));
+    }
+
+    private static void record(String call, long nanos) {
+        // Walking the stack costs more than many calls; only when something reads it
+        StackTraceElement[] stack = ATTRIBUTE || !LISTENERS.isEmpty() ? new Throwable().getStackTrace() : null;
+        String caller = ATTRIBUTE ? findCaller(stack) : UNATTRIBUTED;
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.timer("playwright_call", "method", caller, "call", call).record(nanos);
+        if (call.startsWith("Page.waitFor") || call.equals("Locator.waitFor")) {
+            metrics.timer("playwright_wait", "method", caller).record(nanos);
+        }
+
+        for (CallListener listener : LISTENERS) {
+            listener.onCall(caller, call, nanos, stack);
+        }
+    }
+
+    private static String findCaller(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().startsWith(PAGES_PACKAGE) && !isPlumbing(frame)) {
+                return simpleName(frame.getClassName()) + "." + frame.getMethodName();
+            }
+        }
+        return UNATTRIBUTED;
+    }
+
+    /**
+     * PageHelpers/PageState frames and synthetic lambda frames, which never name the page-object method
+     */
+    static boolean isPlumbing(StackTraceElement frame) {
+        if (frame.getMethodName().startsWith("lambda$")) {
+            return true;
+        }
+        String className = frame.getClassName();
+        int inner = className.indexOf('$');
+        return PLUMBING.contains(inner > 0 ? className.substring(0, inner) : className);
+    }
+
+    static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int inner = name.indexOf('$');
+        return inner > 0 ? name.substring(0, inner) : name;
+    }
+}
@@ -0,0 +1,201 @@
+package com.ebay.tests.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * MetricsExporter.java
+ * Exposes MetricsRegistry as Prometheus text and JSON
+ *
+ * -Dmetrics.port=9464   serve http://127.0.0.1:9464/metrics (and /metrics.json)
+ * -Dmetrics.json=path   JSON written at JVM exit (default target/metrics/metrics.json)
+ */
+public final class MetricsExporter {
+
+    private static final String DEFAULT_JSON_PATH = "target/metrics/metrics.json";
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static volatile boolean started;
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * Start the HTTP endpoint (if configured) and the exit-time JSON dump, once
+     */
+    static void ensureStarted(final MetricsRegistry registry) {
+        if (started) {
+            return;
+        }
+        synchronized (MetricsExporter.class) {
+            if (started) {
+                return;
+            }
+            started = true;
+
+            Integer port = Integer.getInteger("metrics.port");
+            if (port != null) {
+                startHttpServer(registry, port);
+            }
+            final Path jsonPath = Paths.get(System.getProperty("metrics.json", DEFAULT_JSON_PATH));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeJson(registry, jsonPath)));
+        }
+    }
+
+    public static HttpServer startHttpServer(final MetricsRegistry registry, int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+            server.createContext("/metrics", exchange -> {
+                boolean json = exchange.getRequestURI().getPath().endsWith(".json");
+                respond(exchange, json ? toJson(registry) : toPrometheusText(registry),
+                        json ? "application/json" : "text/plain; version=0.0.4");
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-http");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            System.out.println("Metrics: http://127.0.0.1:" + port + "/metrics");
+            return server;
+        } catch (IOException e) {
+            System.out.println("Could not start metrics endpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static String toPrometheusText(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder();
+        String lastType = null;
+
+        for (MetricsRegistry.Counter counter : registry.getCounters()) {
+            if (!counter.getName().equals(lastType)) {
+                out.append("# TYPE ").append(counter.getName()).append(" counter\n");
+                lastType = counter.getName();
+            }
+            line(out, counter.getName(), counter.getLabels(), counter.get());
+        }
+
+        for (MetricsRegistry.Timer timer : registry.getTimers()) {
+            String base = timer.getName() + "_seconds";
+            if (!base.equals(lastType)) {
+                out.append("# TYPE ").append(base).append(" summary\n");
+                lastType = base;
+            }
+            line(out, base + "_count", timer.getLabels(), timer.getCount());
+            line(out, base + "_sum", timer.getLabels(), timer.getTotalNanos() / NANOS_PER_SECOND);
+        }
+        return out.toString();
+    }
+
+    public static String toJson(MetricsRegistry registry) {
+        JsonObject root = new JsonObject();
+
+        JsonArray counters = new JsonArray();
+        Map<String, long[]> cacheTotals = new HashMap<>();
+        for (MetricsRegistry.Counter counter : registry.getCounters()) {
+            JsonObject entry = series(counter);
+            entry.addProperty("value", counter.get());
+            counters.add(entry);
+
+            boolean hit = counter.getName().equals("cache_hits_total");
+            if (hit || counter.getName().equals("cache_misses_total")) {
+                long[] totals = cacheTotals.computeIfAbsent(counter.getLabels()[1], k -> new long[2]);
+                totals[hit ? 0 : 1] += counter.get();
+            }
+        }
+        root.add("counters", counters);
+
+        JsonArray timers = new JsonArray();
+        for (MetricsRegistry.Timer timer : registry.getTimers()) {
+            JsonObject entry = series(timer);
+            entry.addProperty("count", timer.getCount());
+            entry.addProperty("totalMs", timer.getTotalNanos() / 1e6);
+            entry.addProperty("maxMs", timer.getMaxNanos() / 1e6);
+            entry.addProperty("meanMs", timer.getCount() > 0 ? timer.getTotalNanos() / 1e6 / timer.getCount() : 0);
+            timers.add(entry);
+        }
+        root.add("timers", timers);
+
+        JsonObject hitRates = new JsonObject();
+        for (Map.Entry<String, long[]> cache : cacheTotals.entrySet()) {
+            long lookups = cache.getValue()[0] + cache.getValue()[1];
+            hitRates.addProperty(cache.getKey(), lookups > 0 ? (double) cache.getValue()[0] / lookups : 0);
+        }
+        root.add("cacheHitRates", hitRates);
+
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    public static void writeJson(MetricsRegistry registry, Path path) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(toJson(registry));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    private static JsonObject series(MetricsRegistry.Series series) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("name", series.getName());
+        String[] labels = series.getLabels();
+        if (labels.length > 0) {
+            JsonObject labelObject = new JsonObject();
+            for (int i = 0; i < labels.length; i += 2) {
+                labelObject.addProperty(labels[i], labels[i + 1]);
+            }
+            entry.add("labels", labelObject);
+        }
+        return entry;
+    }
+
+    private static void line(StringBuilder out, String name, String[] labels, double value) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels[i]).append("=\"")
+                        .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        out.append('\n');
+    }
+
+    private static void respond(HttpExchange exchange, String body, String contentType) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
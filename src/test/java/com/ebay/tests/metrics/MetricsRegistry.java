@@ -0,0 +1,169 @@
+package com.ebay.tests.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry.java
+ * Lock-free counters and timers for the test infrastructure
+ *
+ * Hot paths only touch LongAdder/LongAccumulator cells, so parallel tests do
+ * not contend. Series are keyed by name plus label pairs, e.g.
+ * timer("playwright_call", "method", "RelatedProductsPage.isPriceRangeValid").
+ * Export with MetricsExporter.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getDefault() {
+        MetricsExporter.ensureStarted(DEFAULT);
+        return DEFAULT;
+    }
+
+    /**
+     * @param labels alternating label names and values
+     */
+    public Counter counter(String name, String... labels) {
+        String key = key(name, labels);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new Counter(name, labels));
+        }
+        return counter;
+    }
+
+    public Timer timer(String name, String... labels) {
+        String key = key(name, labels);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> new Timer(name, labels));
+        }
+        return timer;
+    }
+
+    /**
+     * Record a cache lookup; hit rate is derived at export time
+     */
+    public void cacheLookup(String cache, boolean hit) {
+        counter(hit ? "cache_hits_total" : "cache_misses_total", "cache", cache).increment();
+    }
+
+    public List<Counter> getCounters() {
+        List<Counter> list = new ArrayList<>(counters.values());
+        Collections.sort(list, (a, b) -> a.id().compareTo(b.id()));
+        return list;
+    }
+
+    public List<Timer> getTimers() {
+        List<Timer> list = new ArrayList<>(timers.values());
+        Collections.sort(list, (a, b) -> a.id().compareTo(b.id()));
+        return list;
+    }
+
+    private static String key(String name, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs: " + name);
+        }
+        if (labels.length == 0) {
+            return name;
+        }
+        StringBuilder key = new StringBuilder(name);
+        for (String label : labels) {
+            key.append('\u0000').append(label);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Base for a named, labelled series
+     */
+    public abstract static class Series {
+
+        private final String name;
+        private final String[] labels;
+
+        Series(String name, String[] labels) {
+            this.name = name;
+            this.labels = labels.clone();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Alternating label names and values
+        public String[] getLabels() {
+            return labels.clone();
+        }
+
+        // Same separator as the map key, so distinct label sets never compare equal
+        String id() {
+            return key(name, labels);
+        }
+    }
+
+    /**
+     * Monotonic counter
+     */
+    public static class Counter extends Series {
+
+        private final LongAdder value = new LongAdder();
+
+        Counter(String name, String[] labels) {
+            super(name, labels);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Count, total and max of durations
+     */
+    public static class Timer extends Series {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        Timer(String name, String[] labels) {
+            super(name, labels);
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ebay.tests.metrics;
+
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ResourceMeter.java
+ * Meters what the current test thread spends: wall time, page-object
+ * Playwright calls, time in waitFor* calls and bytes received
+ *
+ * start() opens a Usage for this thread and stop() closes it. Calls come
+ * from InstrumentedPlaywright. Bytes come from CDP Network.loadingFinished
+ * on pages attached while a Usage is open (BasePage does this), so pages made
+ * outside a metered test pay nothing.
+ */
+public final class ResourceMeter {
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+    private static final InstrumentedPlaywright.CallListener LISTENER = (caller, call, nanos, stack) -> {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.calls.increment();
+            if (call.startsWith("Page.waitFor") || call.equals("Locator.waitFor")) {
+                usage.waitNanos.add(nanos);
+            }
+        }
+    };
+
+    static {
+        InstrumentedPlaywright.addListener(LISTENER);
+    }
+
+    private ResourceMeter() {
+    }
+
+    /**
+     * Start metering this thread (replaces any open Usage)
+     */
+    public static Usage start() {
+        Usage usage = new Usage();
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    /**
+     * Stop metering this thread
+     * @return the closed Usage, or null if none was open
+     */
+    public static Usage stop() {
+        Usage usage = CURRENT.get();
+        CURRENT.remove();
+        if (usage != null) {
+            usage.endNanos = System.nanoTime();
+        }
+        return usage;
+    }
+
+    public static boolean isMetering() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Count network bytes for a page into the Usage open on this thread
+     * @param page the raw (uninstrumented) page
+     */
+    public static void attach(Page page) {
+        final Usage usage = CURRENT.get();
+        if (usage == null || page == null || !usage.attachedPages.add(page)) {
+            return;
+        }
+        try {
+            CDPSession session = page.context().newCDPSession(page);
+            session.send("Network.enable");
+            session.on("Network.loadingFinished", (JsonObject event) ->
+                    usage.bytes.add((long) event.get("encodedDataLength").getAsDouble()));
+        } catch (Exception e) {
+            // Not Chromium, or page already closed: bytes stay uncounted
+            usage.bytesMetered = false;
+        }
+    }
+
+    /**
+     * Resources used by one test
+     */
+    public static class Usage {
+
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Set<Page> attachedPages = Collections.newSetFromMap(new IdentityHashMap<>());
+        private volatile boolean bytesMetered = true;
+
+        public long getWallMs() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return (end - startNanos) / 1_000_000;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getWaitMs() {
+            return waitNanos.sum() / 1_000_000;
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        // False if some page's bytes could not be counted
+        public boolean isBytesMetered() {
+            return bytesMetered;
+        }
+
+        @Override
+        public String toString() {
+            return "wall=" + getWallMs() + "ms, calls=" + getCalls() + ", wait=" + getWaitMs()
+                    + "ms, bytes=" + getBytes() + (bytesMetered ? "" : "?");
+        }
+    }
+}
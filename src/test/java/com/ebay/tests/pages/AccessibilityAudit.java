@@ -0,0 +1,314 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AccessibilityAudit.java
+ * Accessibility checks on one widget, read from the browser's accessibility tree
+ *
+ * Only the widget's subtree is fetched (CDP Accessibility.queryAXTree on the
+ * container node), never the whole page, and the checks run in Java:
+ *   LINK_WITHOUT_NAME      link with no accessible name
+ *   GENERIC_LINK_NAME      link named "click here", "more"... (meaningless out of context)
+ *   IMAGE_WITHOUT_ALT      image with no alt text
+ *   NO_HEADING             widget has no heading to navigate to
+ *   EMPTY_HEADING          heading with no text
+ *   SKIPPED_HEADING_LEVEL  heading more than one level below the previous one (h2 -> h4)
+ *
+ * Audits are cached by a hash of the container markup (PageHelpers.domHash),
+ * so identical widget markup is checked once per run whichever test loads it.
+ * Needs Chromium; elsewhere the audit is unavailable and reports no issues.
+ */
+public class AccessibilityAudit {
+
+    /**
+     * What was wrong with a node
+     */
+    public enum Issue {
+        LINK_WITHOUT_NAME, GENERIC_LINK_NAME, IMAGE_WITHOUT_ALT, NO_HEADING, EMPTY_HEADING, SKIPPED_HEADING_LEVEL
+    }
+
+    private static final int CACHE_SIZE = 256;
+    private static final Set<String> GENERIC_LINK_NAMES = new HashSet<>(Arrays.asList(
+            "click here", "here", "more", "read more", "see more", "learn more", "link", "details", "view"));
+
+    // DOM hash -> audit, least recently used dropped first
+    private static final Map<String, AccessibilityAudit> BY_DOM_HASH =
+            new LinkedHashMap<String, AccessibilityAudit>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AccessibilityAudit> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private final boolean available;
+    private final List<Node> nodes;
+    private final Map<Issue, List<String>> findings = new EnumMap<>(Issue.class);
+
+    /**
+     * @param nodes the widget's accessibility nodes in document order
+     */
+    public AccessibilityAudit(List<Node> nodes) {
+        this(true, nodes);
+    }
+
+    private AccessibilityAudit(boolean available, List<Node> nodes) {
+        this.available = available;
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        if (available) {
+            check();
+        }
+    }
+
+    /**
+     * Audit for pages where the tree could not be read (no container, no CDP)
+     */
+    public static AccessibilityAudit unavailable() {
+        return new AccessibilityAudit(false, Collections.<Node>emptyList());
+    }
+
+    /**
+     * Audit the subtree of the first element matching selector, reusing the
+     * result for markup already audited
+     * @param page the raw (uninstrumented) page
+     * @param domHash hash of the container markup, or null to always fetch
+     */
+    public static AccessibilityAudit forContainer(Page page, String selector, String domHash) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        if (domHash != null) {
+            AccessibilityAudit cached;
+            synchronized (BY_DOM_HASH) {
+                cached = BY_DOM_HASH.get(domHash);
+            }
+            if (cached != null) {
+                metrics.counter("a11y_audits_total", "cache", "hit").increment();
+                return cached;
+            }
+        }
+        metrics.counter("a11y_audits_total", "cache", "miss").increment();
+
+        long start = System.nanoTime();
+        AccessibilityAudit audit = fetch(page, selector);
+        metrics.timer("a11y_snapshot").record(System.nanoTime() - start);
+        if (domHash != null && audit.isAvailable()) {
+            synchronized (BY_DOM_HASH) {
+                BY_DOM_HASH.put(domHash, audit);
+            }
+        }
+        return audit;
+    }
+
+    /**
+     * Forget cached audits (e.g. between unrelated fixtures in a long-lived JVM)
+     */
+    public static void clearCache() {
+        synchronized (BY_DOM_HASH) {
+            BY_DOM_HASH.clear();
+        }
+    }
+
+    private static AccessibilityAudit fetch(Page page, String selector) {
+        CDPSession session;
+        try {
+            session = page.context().newCDPSession(page);
+        } catch (Exception e) {
+            System.out.println("Accessibility tree not available: " + e.getMessage());
+            return unavailable();
+        }
+        try {
+            JsonObject documentArgs = new JsonObject();
+            documentArgs.addProperty("depth", 0);
+            int documentId = session.send("DOM.getDocument", documentArgs)
+                    .getAsJsonObject("root").get("nodeId").getAsInt();
+
+            JsonObject queryArgs = new JsonObject();
+            queryArgs.addProperty("nodeId", documentId);
+            queryArgs.addProperty("selector", selector);
+            int containerId = session.send("DOM.querySelector", queryArgs).get("nodeId").getAsInt();
+            if (containerId == 0) {
+                return unavailable();
+            }
+
+            JsonObject treeArgs = new JsonObject();
+            treeArgs.addProperty("nodeId", containerId);
+            return new AccessibilityAudit(parse(session.send("Accessibility.queryAXTree", treeArgs)));
+        } catch (Exception e) {
+            System.out.println("Accessibility tree not available: " + e.getMessage());
+            return unavailable();
+        } finally {
+            try {
+                session.detach();
+            } catch (Exception e) {
+                // Page already closed
+            }
+        }
+    }
+
+    /**
+     * Nodes of a CDP Accessibility.queryAXTree result, ignored nodes left out
+     */
+    public static List<Node> parse(JsonObject result) {
+        List<Node> nodes = new ArrayList<>();
+        for (JsonElement element : result.getAsJsonArray("nodes")) {
+            JsonObject node = element.getAsJsonObject();
+            if (node.has("ignored") && node.get("ignored").getAsBoolean()) {
+                continue;
+            }
+            int level = 0;
+            if (node.has("properties")) {
+                for (JsonElement property : node.getAsJsonArray("properties")) {
+                    JsonObject p = property.getAsJsonObject();
+                    if ("level".equals(p.get("name").getAsString())) {
+                        level = p.getAsJsonObject("value").get("value").getAsInt();
+                    }
+                }
+            }
+            nodes.add(new Node(value(node, "role"), value(node, "name"), level));
+        }
+        return nodes;
+    }
+
+    // {type, value} field as a string, "" if absent
+    private static String value(JsonObject node, String field) {
+        if (!node.has(field) || !node.get(field).isJsonObject()) {
+            return "";
+        }
+        JsonElement value = node.getAsJsonObject(field).get("value");
+        return value != null && !value.isJsonNull() ? value.getAsString() : "";
+    }
+
+    private void check() {
+        int previousLevel = 0;
+        boolean heading = false;
+        for (Node node : nodes) {
+            String name = node.name.trim();
+            switch (node.role) {
+                case "link":
+                    if (name.isEmpty()) {
+                        add(Issue.LINK_WITHOUT_NAME, "link with no name");
+                    } else if (GENERIC_LINK_NAMES.contains(name.toLowerCase(Locale.ROOT))) {
+                        add(Issue.GENERIC_LINK_NAME, "link \"" + name + "\"");
+                    }
+                    break;
+                case "image":
+                case "img":
+                    if (name.isEmpty()) {
+                        add(Issue.IMAGE_WITHOUT_ALT, "image with no alt text");
+                    }
+                    break;
+                case "heading":
+                    heading = true;
+                    if (name.isEmpty()) {
+                        add(Issue.EMPTY_HEADING, "h" + node.level + " with no text");
+                    }
+                    if (previousLevel > 0 && node.level > previousLevel + 1) {
+                        add(Issue.SKIPPED_HEADING_LEVEL, "h" + previousLevel + " followed by h" + node.level
+                                + (name.isEmpty() ? "" : " \"" + name + "\""));
+                    }
+                    previousLevel = node.level;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!heading) {
+            add(Issue.NO_HEADING, "no heading");
+        }
+    }
+
+    private void add(Issue issue, String detail) {
+        findings.computeIfAbsent(issue, k -> new ArrayList<>()).add(detail);
+    }
+
+    // False if the tree could not be read
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getIssueCount(Issue issue) {
+        List<String> found = findings.get(issue);
+        return found != null ? found.size() : 0;
+    }
+
+    public boolean hasIssues() {
+        return !findings.isEmpty();
+    }
+
+    public int count(String role) {
+        int count = 0;
+        for (Node node : nodes) {
+            if (node.role.equals(role)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        if (!available) {
+            return "accessibility tree not available";
+        }
+        StringBuilder out = new StringBuilder();
+        out.append(nodes.size()).append(" nodes, ").append(count("link")).append(" links, ")
+                .append(count("image") + count("img")).append(" images, ")
+                .append(count("heading")).append(" headings");
+        for (Map.Entry<Issue, List<String>> entry : findings.entrySet()) {
+            for (String detail : entry.getValue()) {
+                out.append("\n  ").append(entry.getKey()).append(": ").append(detail);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * One accessibility node: role, accessible name, heading level (0 if none)
+     */
+    public static class Node {
+
+        private final String role;
+        private final String name;
+        private final int level;
+
+        public Node(String role, String name, int level) {
+            this.role = role;
+            this.name = name;
+            this.level = level;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        @Override
+        public String toString() {
+            return role + (level > 0 ? " " + level : "") + " \"" + name + "\"";
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.ebay.tests.pages;
 
+import com.ebay.tests.browser.BrowserLifecycleManager;
+import com.ebay.tests.browser.DeviceProfile;
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.metrics.ResourceMeter;
 import com.microsoft.playwright.Page;
+import java.util.concurrent.TimeUnit;
 
 /**
  * BasePage.java
@@ -11,13 +17,30 @@ public class BasePage {
 
     protected Page page;
 
+    // Memoized document facts, dropped on navigation/DOM change (see PageState)
+    protected final PageState state;
+
+    // Named in-page queries, injected once per context (see PageHelpers)
+    protected final PageHelpers helpers;
+
+    // Emulated device, for timing labels (-Ddevice.profile or emulate())
+    protected DeviceProfile profile = DeviceProfile.fromSystemProperty(null);
+
     // Constructor
     public BasePage(Page page) {
-        this.page = page;
+        // Leak and memory tracking (see BrowserLifecycleManager)
+        BrowserLifecycleManager.getDefault().track(page);
+        // Network bytes for @Budget, if this test is metered
+        ResourceMeter.attach(page);
+        this.state = PageState.forPage(page);
+        // Per-method call metrics (see InstrumentedPlaywright)
+        this.page = InstrumentedPlaywright.wrap(page);
+        this.helpers = PageHelpers.forPage(this.page);
     }
 
     // Navigate to URL
     public void navigateTo(String url) {
+        state.invalidate();
         page.navigate(url);
         page.waitForLoadState();
         System.out.println("Navigated to: " + url);
@@ -45,6 +68,7 @@ public class BasePage {
     // Click element
     public void clickElement(String selector) {
         page.click(selector);
+        state.invalidate();
         System.out.println("Clicked: " + selector);
     }
 
@@ -70,12 +94,14 @@ public class BasePage {
 
     // Go back
     public void goBack() {
+        state.invalidate();
         page.goBack();
         page.waitForLoadState();
     }
 
     // Reload page
     public void reloadPage() {
+        state.invalidate();
         page.reload();
         page.waitForLoadState();
     }
@@ -86,17 +112,36 @@ public class BasePage {
         System.out.println("Viewport: " + width + "x" + height);
     }
 
+    // Emulate a device (viewport, scale, network and CPU throttling) on this page
+    public void emulate(DeviceProfile profile) {
+        profile.apply(InstrumentedPlaywright.unwrap(page));
+        this.profile = profile;
+        System.out.println("Device: " + profile.getLabel() + " (" + profile.getDescription() + ")");
+    }
+
     // Measure page load time
     public long getPageLoadTime(String url) {
+        state.invalidate();
         long startTime = System.currentTimeMillis();
         page.navigate(url);
         page.waitForLoadState();
         long endTime = System.currentTimeMillis();
         long loadTime = endTime - startTime;
-        System.out.println("Load time: " + loadTime + "ms");
+        recordTiming("page_load", loadTime);
+        System.out.println("Load time: " + loadTime + "ms (" + getProfileLabel() + ")");
         return loadTime;
     }
 
+    // Timer per emulated device, so throttled and unthrottled runs aren't mixed
+    protected void recordTiming(String metric, long millis) {
+        MetricsRegistry.getDefault().timer(metric, "profile", getProfileLabel())
+                .record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    protected String getProfileLabel() {
+        return profile != null ? profile.getLabel() : "default";
+    }
+
     // Close page
     public void closePage() {
         if (page != null && !page.isClosed()) {
@@ -0,0 +1,448 @@
+package com.ebay.tests.pages;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * DomSnapshot.java
+ * Canonical, hashed copy of the related-products subtree, for before/after
+ * comparisons (TC-019 refresh, navigation)
+ *
+ * Read in one call (PageHelpers.domTree). Every node carries a Merkle hash of
+ * its tag, attributes, text and children's hashes, so equal hashes mean equal
+ * subtrees and diff() skips them in O(1): identical widgets cost one
+ * comparison, and a changed carousel costs one per card plus the changed
+ * paths. diff() reports:
+ *   added / removed  cards by item id
+ *   moved            fewest cards that must move to get the new order
+ *   price changes    per card, before -> after
+ *   changed cards    per card, the changed paths inside it
+ *   other changes    outside the cards (heading, wrappers...)
+ */
+public class DomSnapshot {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Node root;
+    private final boolean truncated;
+
+    /**
+     * @param root the container node, or null if there is no widget
+     * @param truncated true if the node limit cut the tree short
+     */
+    public DomSnapshot(Node root, boolean truncated) {
+        this.root = root;
+        this.truncated = truncated;
+    }
+
+    // Snapshot of a page without the widget
+    public static DomSnapshot empty() {
+        return new DomSnapshot(null, false);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Cards in document order, keyed by item id (repeats get "~2", "~3"...;
+     * cards without an id are "#0", "#1"... by position among such cards)
+     */
+    public Map<String, Node> getCards() {
+        Map<String, Node> cards = new LinkedHashMap<>();
+        if (root != null) {
+            collectCards(root, cards, new int[1]);
+        }
+        return cards;
+    }
+
+    private static void collectCards(Node node, Map<String, Node> cards, int[] unkeyed) {
+        if (node.isCard()) {
+            String key = node.cardKey.isEmpty() || node.cardKey.equals("-1")
+                    ? "#" + unkeyed[0]++ : node.cardKey;
+            String unique = key;
+            for (int n = 2; cards.containsKey(unique); n++) {
+                unique = key + "~" + n;
+            }
+            cards.put(unique, node);
+            return;
+        }
+        if (node.hasCards) {
+            for (Node child : node.children) {
+                collectCards(child, cards, unkeyed);
+            }
+        }
+    }
+
+    /**
+     * Minimal structural differences from before to after
+     */
+    public static Diff diff(DomSnapshot before, DomSnapshot after) {
+        Diff diff = new Diff();
+        if (before.root == null || after.root == null) {
+            if (before.root != after.root) {
+                diff.changes.add("related products " + (before.root == null ? "appeared" : "disappeared"));
+            }
+            return diff;
+        }
+        diff.compared++;
+        if (before.root.hash == after.root.hash) {
+            return diff;
+        }
+        compare(before.root, after.root, label(before.root), diff.changes, diff);
+        compareCards(before.getCards(), after.getCards(), diff);
+        return diff;
+    }
+
+    /**
+     * Changes between two nodes at the same position; cards are left to compareCards
+     */
+    private static void compare(Node a, Node b, String path, List<String> out, Diff diff) {
+        if (!a.tag.equals(b.tag)) {
+            out.add(path + ": <" + a.tag + "> replaced by <" + b.tag + ">");
+            return;
+        }
+        if (!a.text.equals(b.text)) {
+            out.add(path + " text \"" + a.text + "\" -> \"" + b.text + "\"");
+        }
+        TreeSet<String> names = new TreeSet<>(a.attributes.keySet());
+        names.addAll(b.attributes.keySet());
+        for (String name : names) {
+            String before = a.attributes.get(name);
+            String after = b.attributes.get(name);
+            if (!Objects.equals(before, after)) {
+                out.add(path + " @" + name + " " + quote(before) + " -> " + quote(after));
+            }
+        }
+
+        // Plain children line up by position; children holding cards are paired
+        // only to look for changes outside the cards
+        List<Node> plainA = new ArrayList<>();
+        List<Node> plainB = new ArrayList<>();
+        List<Node> holdersA = new ArrayList<>();
+        List<Node> holdersB = new ArrayList<>();
+        split(a, plainA, holdersA);
+        split(b, plainB, holdersB);
+        if (!labels(plainA).equals(labels(plainB))) {
+            out.add(path + " children " + labels(plainA) + " -> " + labels(plainB));
+        } else {
+            compareChildren(plainA, plainB, path, out, diff);
+        }
+        if (holdersA.size() == holdersB.size()) {
+            compareChildren(holdersA, holdersB, path, out, diff);
+        }
+    }
+
+    private static void compareChildren(List<Node> a, List<Node> b, String path, List<String> out, Diff diff) {
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < a.size(); i++) {
+            Node child = a.get(i);
+            String label = label(child);
+            int n = seen.merge(label, 1, Integer::sum);
+            if (child.isCard() || b.get(i).isCard()) {
+                continue;
+            }
+            diff.compared++;
+            if (child.hash != b.get(i).hash) {
+                compare(child, b.get(i), path + "/" + label + (n > 1 ? "[" + n + "]" : ""), out, diff);
+            }
+        }
+    }
+
+    private static void split(Node node, List<Node> plain, List<Node> holders) {
+        for (Node child : node.children) {
+            (child.hasCards ? holders : plain).add(child);
+        }
+    }
+
+    private static void compareCards(Map<String, Node> before, Map<String, Node> after, Diff diff) {
+        List<String> common = new ArrayList<>();
+        for (String key : before.keySet()) {
+            if (after.containsKey(key)) {
+                common.add(key);
+            } else {
+                diff.removed.add(key);
+            }
+        }
+        for (String key : after.keySet()) {
+            if (!before.containsKey(key)) {
+                diff.added.add(key);
+            }
+        }
+
+        // Cards in the longest run that kept its relative order stay; the rest moved
+        Map<String, Integer> newPosition = new HashMap<>();
+        int position = 0;
+        for (String key : after.keySet()) {
+            newPosition.put(key, position++);
+        }
+        int[] positions = new int[common.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = newPosition.get(common.get(i));
+        }
+        boolean[] stays = longestIncreasing(positions);
+        for (int i = 0; i < common.size(); i++) {
+            if (!stays[i]) {
+                diff.moved.add(common.get(i));
+            }
+        }
+
+        for (String key : common) {
+            Node a = before.get(key);
+            Node b = after.get(key);
+            diff.compared++;
+            if (a.hash == b.hash) {
+                continue;
+            }
+            if (!a.price.equals(b.price)) {
+                diff.priceChanges.put(key, a.price + " -> " + b.price);
+            }
+            List<String> changes = new ArrayList<>();
+            compare(a, b, label(a), changes, diff);
+            diff.changedCards.put(key, changes);
+        }
+    }
+
+    /**
+     * Members of one longest strictly increasing subsequence (patience sorting, O(n log n))
+     */
+    static boolean[] longestIncreasing(int[] values) {
+        int[] tails = new int[values.length];
+        int[] previous = new int[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] member = new boolean[values.length];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            member[i] = true;
+        }
+        return member;
+    }
+
+    // "div.product-card", "h2"
+    private static String label(Node node) {
+        String classes = node.attributes.get("class");
+        if (classes == null || classes.trim().isEmpty()) {
+            return node.tag;
+        }
+        return node.tag + "." + classes.trim().split("\\s+")[0];
+    }
+
+    private static List<String> labels(List<Node> nodes) {
+        List<String> labels = new ArrayList<>();
+        for (Node node : nodes) {
+            labels.add(label(node));
+        }
+        return labels;
+    }
+
+    private static String quote(String value) {
+        return value == null ? "(none)" : "\"" + value + "\"";
+    }
+
+    /**
+     * One element: tag, attributes, own text, children, and card data if it is a card
+     */
+    public static class Node {
+
+        private final String tag;
+        private final SortedMap<String, String> attributes;
+        private final String text;
+        private final List<Node> children;
+        private final String cardKey;
+        private final String price;
+        private final long hash;
+        private final int size;
+        private final boolean hasCards;
+
+        /**
+         * @param cardKey item id if this node is a card, else null
+         * @param price card price text, or null
+         */
+        public Node(String tag, Map<String, String> attributes, String text, List<Node> children,
+                    String cardKey, String price) {
+            this.tag = tag;
+            this.attributes = Collections.unmodifiableSortedMap(new TreeMap<>(attributes));
+            this.text = text != null ? text : "";
+            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+            this.cardKey = cardKey;
+            this.price = price != null ? price : "";
+
+            long h = fnv(FNV_OFFSET, this.tag);
+            for (Map.Entry<String, String> attribute : this.attributes.entrySet()) {
+                h = fnv(fnv(h, attribute.getKey()), attribute.getValue());
+            }
+            h = fnv(h, this.text);
+            int nodes = 1;
+            boolean cards = cardKey != null;
+            for (Node child : this.children) {
+                for (int shift = 0; shift < 64; shift += 8) {
+                    h = (h ^ ((child.hash >>> shift) & 0xff)) * FNV_PRIME;
+                }
+                nodes += child.size;
+                cards |= child.hasCards;
+            }
+            this.hash = h;
+            this.size = nodes;
+            this.hasCards = cards;
+        }
+
+        // FNV-1a over the UTF-8 bytes plus a separator
+        private static long fnv(long h, String value) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ (b & 0xff)) * FNV_PRIME;
+            }
+            return (h ^ 0xff) * FNV_PRIME;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public boolean isCard() {
+            return cardKey != null;
+        }
+
+        public String getPrice() {
+            return price;
+        }
+
+        // Merkle hash of this subtree
+        public long getHash() {
+            return hash;
+        }
+
+        // Nodes in this subtree
+        public int getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Differences between two snapshots
+     */
+    public static class Diff {
+
+        private final List<String> added = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> moved = new ArrayList<>();
+        private final Map<String, String> priceChanges = new LinkedHashMap<>();
+        private final Map<String, List<String>> changedCards = new LinkedHashMap<>();
+        private final List<String> changes = new ArrayList<>();
+        private int compared;
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public List<String> getMoved() {
+            return moved;
+        }
+
+        // Item id -> "before -> after"
+        public Map<String, String> getPriceChanges() {
+            return priceChanges;
+        }
+
+        // Item id -> changed paths inside the card
+        public Map<String, List<String>> getChangedCards() {
+            return changedCards;
+        }
+
+        // Changes outside the cards
+        public List<String> getChanges() {
+            return changes;
+        }
+
+        // Node pairs whose hashes were compared
+        public int getComparedNodes() {
+            return compared;
+        }
+
+        public boolean isIdentical() {
+            return added.isEmpty() && removed.isEmpty() && moved.isEmpty() && changedCards.isEmpty()
+                    && changes.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            if (isIdentical()) {
+                return "identical (" + compared + " nodes compared)";
+            }
+            StringBuilder out = new StringBuilder();
+            out.append(changedCards.size()).append(" changed, ").append(added.size()).append(" added, ")
+                    .append(removed.size()).append(" removed, ").append(moved.size()).append(" moved cards (")
+                    .append(compared).append(" nodes compared)");
+            for (String key : added) {
+                out.append("\n  added ").append(key);
+            }
+            for (String key : removed) {
+                out.append("\n  removed ").append(key);
+            }
+            for (String key : moved) {
+                out.append("\n  moved ").append(key);
+            }
+            for (Map.Entry<String, String> entry : priceChanges.entrySet()) {
+                out.append("\n  price ").append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+            for (Map.Entry<String, List<String>> entry : changedCards.entrySet()) {
+                for (String change : entry.getValue()) {
+                    out.append("\n  card ").append(entry.getKey()).append(": ").append(change);
+                }
+            }
+            for (String change : changes) {
+                out.append("\n  ").append(change);
+            }
+            return out.toString();
+        }
+    }
+}
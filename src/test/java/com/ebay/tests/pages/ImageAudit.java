@@ -0,0 +1,306 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageAudit.java
+ * Byte and render cost of the related-card thumbnails on one page
+ *
+ * Per card image (read in one call, see PageHelpers.imageAudit): format,
+ * natural vs rendered size, loading/decoding attributes, transfer size from
+ * resource timing and decode time. Wasteful images are flagged:
+ *   BROKEN           loaded with no pixels
+ *   MISSING          card has no image
+ *   OVERSIZED        more than 2x the pixels needed at the device pixel ratio
+ *   NOT_LAZY         below the fold without loading="lazy"
+ *   LAZY_ABOVE_FOLD  loading="lazy" on an image visible on load (delays it)
+ *   LEGACY_FORMAT    JPEG/PNG/GIF over 10 KB (WebP/AVIF would be smaller)
+ *   SLOW_DECODE      decoding took over 20 ms
+ * Sizes are -1 when unknown (data: URLs, cross-origin without Timing-Allow-Origin).
+ *
+ * record() adds the page totals to the run metrics, so widget weight can be
+ * compared across runs (target/metrics/metrics.json).
+ */
+public class ImageAudit {
+
+    /**
+     * Why an image was flagged
+     */
+    public enum Issue {
+        BROKEN, MISSING, OVERSIZED, NOT_LAZY, LAZY_ABOVE_FOLD, LEGACY_FORMAT, SLOW_DECODE
+    }
+
+    private static final double OVERSIZE_FACTOR = 2.0;
+    private static final long LEGACY_FORMAT_MIN_BYTES = 10_000;
+    private static final double SLOW_DECODE_MS = 20.0;
+    private static final Set<String> LEGACY_FORMATS = new HashSet<>(Arrays.asList("jpeg", "png", "gif", "bmp"));
+
+    private final int viewportHeight;
+    private final double devicePixelRatio;
+    private final List<Image> images;
+    private final List<Set<Issue>> issues = new ArrayList<>();
+    private final Map<Issue, Integer> issueCounts = new EnumMap<>(Issue.class);
+
+    /**
+     * @param images one per card, null where the card has no image
+     */
+    public ImageAudit(int viewportHeight, double devicePixelRatio, List<Image> images) {
+        this.viewportHeight = viewportHeight;
+        this.devicePixelRatio = devicePixelRatio > 0 ? devicePixelRatio : 1.0;
+        this.images = Collections.unmodifiableList(new ArrayList<>(images));
+        for (Image image : images) {
+            Set<Issue> found = check(image);
+            issues.add(Collections.unmodifiableSet(found));
+            for (Issue issue : found) {
+                issueCounts.merge(issue, 1, Integer::sum);
+            }
+        }
+    }
+
+    private Set<Issue> check(Image image) {
+        Set<Issue> found = EnumSet.noneOf(Issue.class);
+        if (image == null) {
+            found.add(Issue.MISSING);
+            return found;
+        }
+        if (image.complete && image.naturalWidth == 0) {
+            found.add(Issue.BROKEN);
+            return found;
+        }
+        if (getNeededPixels(image) > 0 && image.getNaturalPixels() > OVERSIZE_FACTOR * getNeededPixels(image)) {
+            found.add(Issue.OVERSIZED);
+        }
+        boolean lazy = "lazy".equalsIgnoreCase(image.loading);
+        if (image.top >= viewportHeight && !lazy) {
+            found.add(Issue.NOT_LAZY);
+        }
+        if (image.top < viewportHeight && lazy) {
+            found.add(Issue.LAZY_ABOVE_FOLD);
+        }
+        if (LEGACY_FORMATS.contains(image.format) && image.getBytes() > LEGACY_FORMAT_MIN_BYTES) {
+            found.add(Issue.LEGACY_FORMAT);
+        }
+        if (image.decodeMs > SLOW_DECODE_MS) {
+            found.add(Issue.SLOW_DECODE);
+        }
+        return found;
+    }
+
+    // Device pixels the image is displayed at
+    private double getNeededPixels(Image image) {
+        return image.renderedWidth * devicePixelRatio * image.renderedHeight * devicePixelRatio;
+    }
+
+    /**
+     * Bytes that a right-sized image would not have needed (0 unless oversized)
+     */
+    public long getWastedBytes(int index) {
+        Image image = images.get(index);
+        if (!issues.get(index).contains(Issue.OVERSIZED) || image.getBytes() <= 0) {
+            return 0;
+        }
+        return Math.round(image.getBytes() * (1 - getNeededPixels(image) / image.getNaturalPixels()));
+    }
+
+    public List<Image> getImages() {
+        return images;
+    }
+
+    public Set<Issue> getIssues(int index) {
+        return issues.get(index);
+    }
+
+    public int getIssueCount(Issue issue) {
+        return issueCounts.getOrDefault(issue, 0);
+    }
+
+    public boolean hasIssues() {
+        return !issueCounts.isEmpty();
+    }
+
+    // Known transfer bytes of all card images
+    public long getTotalBytes() {
+        long total = 0;
+        for (Image image : images) {
+            if (image != null && image.getBytes() > 0) {
+                total += image.getBytes();
+            }
+        }
+        return total;
+    }
+
+    public long getTotalWastedBytes() {
+        long total = 0;
+        for (int i = 0; i < images.size(); i++) {
+            total += getWastedBytes(i);
+        }
+        return total;
+    }
+
+    public double getTotalDecodeMs() {
+        double total = 0;
+        for (Image image : images) {
+            if (image != null && image.decodeMs > 0) {
+                total += image.decodeMs;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Add this page's totals to the run metrics
+     * @param page label, e.g. the fixture or item id
+     */
+    public void record(String page) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.counter("card_images_total", "page", page).add(images.size());
+        metrics.counter("card_image_bytes_total", "page", page).add(getTotalBytes());
+        metrics.counter("card_image_wasted_bytes_total", "page", page).add(getTotalWastedBytes());
+        for (Map.Entry<Issue, Integer> entry : issueCounts.entrySet()) {
+            metrics.counter("card_image_issues_total", "issue", entry.getKey().name()).add(entry.getValue());
+        }
+        for (Image image : images) {
+            if (image != null && image.decodeMs >= 0) {
+                metrics.timer("card_image_decode", "page", page)
+                        .record(TimeUnit.MICROSECONDS.toNanos(Math.round(image.decodeMs * 1000)));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(images.size()).append(" images, ").append(getTotalBytes()).append(" bytes, ")
+                .append(getTotalWastedBytes()).append(" wasted, ")
+                .append(String.format(Locale.ROOT, "%.1f", getTotalDecodeMs())).append(" ms decode");
+        for (int i = 0; i < images.size(); i++) {
+            if (!issues.get(i).isEmpty()) {
+                Image image = images.get(i);
+                out.append("\n  card ").append(i).append(' ').append(issues.get(i));
+                if (image != null) {
+                    out.append(' ').append(image);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * One card image as measured in the page
+     */
+    public static class Image {
+
+        private final String src;
+        private final String format;
+        private final int naturalWidth;
+        private final int naturalHeight;
+        private final double renderedWidth;
+        private final double renderedHeight;
+        private final double top;
+        private final String loading;
+        private final String decoding;
+        private final boolean complete;
+        private final long transferSize;
+        private final long encodedSize;
+        private final long decodedSize;
+        private final double decodeMs;
+
+        public Image(String src, String format, int naturalWidth, int naturalHeight,
+                     double renderedWidth, double renderedHeight, double top, String loading, String decoding,
+                     boolean complete, long transferSize, long encodedSize, long decodedSize, double decodeMs) {
+            this.src = src;
+            this.format = format;
+            this.naturalWidth = naturalWidth;
+            this.naturalHeight = naturalHeight;
+            this.renderedWidth = renderedWidth;
+            this.renderedHeight = renderedHeight;
+            this.top = top;
+            this.loading = loading;
+            this.decoding = decoding;
+            this.complete = complete;
+            this.transferSize = transferSize;
+            this.encodedSize = encodedSize;
+            this.decodedSize = decodedSize;
+            this.decodeMs = decodeMs;
+        }
+
+        public String getSrc() {
+            return src;
+        }
+
+        // jpeg, png, webp, avif, svg... from the URL or data: type
+        public String getFormat() {
+            return format;
+        }
+
+        public int getNaturalWidth() {
+            return naturalWidth;
+        }
+
+        public int getNaturalHeight() {
+            return naturalHeight;
+        }
+
+        public double getRenderedWidth() {
+            return renderedWidth;
+        }
+
+        public double getRenderedHeight() {
+            return renderedHeight;
+        }
+
+        // Document offset of the top edge
+        public double getTop() {
+            return top;
+        }
+
+        public String getLoading() {
+            return loading;
+        }
+
+        public String getDecoding() {
+            return decoding;
+        }
+
+        // Over the wire, including headers; 0 if served from cache
+        public long getTransferSize() {
+            return transferSize;
+        }
+
+        public long getDecodedSize() {
+            return decodedSize;
+        }
+
+        // Body bytes, or -1 if unknown
+        public long getBytes() {
+            return encodedSize > 0 ? encodedSize : transferSize > 0 ? transferSize : -1;
+        }
+
+        public double getDecodeMs() {
+            return decodeMs;
+        }
+
+        double getNaturalPixels() {
+            return (double) naturalWidth * naturalHeight;
+        }
+
+        @Override
+        public String toString() {
+            return format + " " + naturalWidth + "x" + naturalHeight + " shown at "
+                    + Math.round(renderedWidth) + "x" + Math.round(renderedHeight)
+                    + ", " + getBytes() + " bytes, loading=" + (loading.isEmpty() ? "auto" : loading)
+                    + ", decode " + String.format(Locale.ROOT, "%.1f", decodeMs) + " ms";
+        }
+    }
+}
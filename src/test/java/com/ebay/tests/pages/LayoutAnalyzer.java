@@ -0,0 +1,283 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.pages.PageHelpers.CardBox;
+import com.ebay.tests.pages.PageHelpers.CardLayout;
+import com.ebay.tests.pages.PageHelpers.Rect;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * LayoutAnalyzer.java
+ * Geometry checks for a card grid (TC-008 Card Layout and Spacing)
+ *
+ * Works on boxes read in one call (PageHelpers.cardLayout) and reports:
+ *   overlaps    cards overlapping each other, or parts overlapping within a card
+ *   misaligned  cards in a row whose tops differ
+ *   gutters     uneven horizontal gaps within rows, or uneven gaps between rows
+ *   overflow    cards outside the viewport width, parts outside their card,
+ *               or a document wider than the viewport
+ *
+ * Card overlaps use a sweep line over x with the active cards kept ordered by
+ * top edge, so a grid of n cards costs O(n log n) plus the overlaps found
+ * rather than comparing every pair.
+ */
+public class LayoutAnalyzer {
+
+    // Pixels; sub-pixel rounding and borders shouldn't count as defects
+    private static final double OVERLAP_TOLERANCE = 1.0;
+    private static final double ALIGN_TOLERANCE = 2.0;
+    private static final double GUTTER_TOLERANCE = 4.0;
+    private static final double OVERFLOW_TOLERANCE = 1.0;
+
+    private LayoutAnalyzer() {
+    }
+
+    public static Report analyze(CardLayout layout) {
+        Report report = new Report(layout.getViewportWidth(), layout.getViewportHeight());
+        List<Rect> boxes = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < layout.getCards().size(); i++) {
+            Rect box = layout.getCards().get(i).getBox();
+            if (!box.isEmpty()) {
+                boxes.add(box);
+                indexes.add(i);
+            }
+        }
+        report.cardCount = boxes.size();
+
+        for (int[] pair : findOverlaps(boxes, OVERLAP_TOLERANCE)) {
+            report.overlaps.add("card " + indexes.get(pair[0]) + " overlaps card " + indexes.get(pair[1]));
+        }
+        for (int i = 0; i < layout.getCards().size(); i++) {
+            checkParts(i, layout.getCards().get(i), report);
+        }
+
+        List<List<Rect>> rows = rows(boxes);
+        checkRows(rows, report);
+
+        if (layout.getScrollWidth() > layout.getViewportWidth() + OVERFLOW_TOLERANCE) {
+            report.overflow.add("page is " + layout.getScrollWidth() + "px wide in a "
+                    + layout.getViewportWidth() + "px viewport");
+        }
+        for (int i = 0; i < boxes.size(); i++) {
+            Rect box = boxes.get(i);
+            if (box.getX() < -OVERFLOW_TOLERANCE
+                    || box.getRight() > layout.getViewportWidth() + OVERFLOW_TOLERANCE) {
+                report.overflow.add("card " + indexes.get(i) + " " + box + " outside viewport width");
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Pairs of indexes (i < j) of boxes that overlap by more than tolerance on both axes
+     */
+    public static List<int[]> findOverlaps(List<Rect> boxes, double tolerance) {
+        Integer[] byLeft = new Integer[boxes.size()];
+        for (int i = 0; i < byLeft.length; i++) {
+            byLeft[i] = i;
+        }
+        Arrays.sort(byLeft, Comparator.comparingDouble(i -> boxes.get(i).getX()));
+
+        // Active boxes: those the sweep line is inside, by right edge for removal and by top for queries
+        PriorityQueue<Integer> byRight = new PriorityQueue<>(
+                Comparator.comparingDouble(i -> boxes.get(i).getRight()));
+        TreeMap<Double, List<Integer>> byTop = new TreeMap<>();
+
+        List<int[]> overlaps = new ArrayList<>();
+        for (int current : byLeft) {
+            Rect box = boxes.get(current);
+            while (!byRight.isEmpty() && boxes.get(byRight.peek()).getRight() <= box.getX() + tolerance) {
+                int done = byRight.poll();
+                List<Integer> sameTop = byTop.get(boxes.get(done).getY());
+                sameTop.remove(Integer.valueOf(done));
+                if (sameTop.isEmpty()) {
+                    byTop.remove(boxes.get(done).getY());
+                }
+            }
+            // Active boxes starting above this one's bottom; keep those ending below its top
+            for (List<Integer> candidates : byTop.headMap(box.getBottom() - tolerance, false).values()) {
+                for (int other : candidates) {
+                    if (boxes.get(other).getBottom() > box.getY() + tolerance) {
+                        overlaps.add(new int[]{Math.min(current, other), Math.max(current, other)});
+                    }
+                }
+            }
+            byRight.add(current);
+            byTop.computeIfAbsent(box.getY(), k -> new ArrayList<>()).add(current);
+        }
+        return overlaps;
+    }
+
+    // Parts must stay inside the card and clear of each other (a handful per card)
+    private static void checkParts(int index, CardBox card, Report report) {
+        if (card.getBox().isEmpty()) {
+            return;
+        }
+        Rect box = card.getBox();
+        List<Map.Entry<String, Rect>> parts = new ArrayList<>();
+        for (Map.Entry<String, Rect> part : card.getParts().entrySet()) {
+            if (part.getValue().isEmpty()) {
+                continue;
+            }
+            Rect rect = part.getValue();
+            if (rect.getX() < box.getX() - OVERFLOW_TOLERANCE || rect.getY() < box.getY() - OVERFLOW_TOLERANCE
+                    || rect.getRight() > box.getRight() + OVERFLOW_TOLERANCE
+                    || rect.getBottom() > box.getBottom() + OVERFLOW_TOLERANCE) {
+                report.overflow.add("card " + index + " " + part.getKey() + " " + rect + " outside card " + box);
+            }
+            parts.add(part);
+        }
+        parts.sort(Map.Entry.comparingByKey());
+        for (int i = 0; i < parts.size(); i++) {
+            for (int j = i + 1; j < parts.size(); j++) {
+                if (overlap(parts.get(i).getValue(), parts.get(j).getValue(), OVERLAP_TOLERANCE)) {
+                    report.overlaps.add("card " + index + " " + parts.get(i).getKey()
+                            + " overlaps " + parts.get(j).getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Cards grouped into rows (top to bottom, each row left to right)
+     * A card starts a new row once it begins below every card of the current row.
+     */
+    static List<List<Rect>> rows(List<Rect> boxes) {
+        List<Rect> sorted = new ArrayList<>(boxes);
+        sorted.sort(Comparator.comparingDouble(Rect::getY).thenComparingDouble(Rect::getX));
+
+        List<List<Rect>> rows = new ArrayList<>();
+        List<Rect> row = null;
+        double rowBottom = 0;
+        for (Rect box : sorted) {
+            if (row == null || box.getY() >= rowBottom - OVERLAP_TOLERANCE) {
+                row = new ArrayList<>();
+                rows.add(row);
+                rowBottom = Double.MAX_VALUE;
+            }
+            row.add(box);
+            rowBottom = Math.min(rowBottom, box.getBottom());
+        }
+        for (List<Rect> r : rows) {
+            r.sort(Comparator.comparingDouble(Rect::getX));
+        }
+        return rows;
+    }
+
+    private static void checkRows(List<List<Rect>> rows, Report report) {
+        List<Double> rowGaps = new ArrayList<>();
+        for (int r = 0; r < rows.size(); r++) {
+            List<Rect> row = rows.get(r);
+            double top = row.get(0).getY();
+            for (Rect box : row) {
+                if (Math.abs(box.getY() - top) > ALIGN_TOLERANCE) {
+                    report.misaligned.add("row " + r + ": card " + box + " top differs from " + top);
+                }
+            }
+
+            double minGap = Double.MAX_VALUE;
+            double maxGap = -Double.MAX_VALUE;
+            for (int i = 1; i < row.size(); i++) {
+                double gap = row.get(i).getX() - row.get(i - 1).getRight();
+                minGap = Math.min(minGap, gap);
+                maxGap = Math.max(maxGap, gap);
+            }
+            if (row.size() > 2 && maxGap - minGap > GUTTER_TOLERANCE) {
+                report.gutters.add("row " + r + ": gaps range " + round(minGap) + "-" + round(maxGap) + "px");
+            }
+
+            if (r > 0) {
+                double previousBottom = -Double.MAX_VALUE;
+                for (Rect box : rows.get(r - 1)) {
+                    previousBottom = Math.max(previousBottom, box.getBottom());
+                }
+                rowGaps.add(top - previousBottom);
+            }
+        }
+        if (rowGaps.size() > 1 && Collections.max(rowGaps) - Collections.min(rowGaps) > GUTTER_TOLERANCE) {
+            report.gutters.add("row gaps range " + round(Collections.min(rowGaps)) + "-"
+                    + round(Collections.max(rowGaps)) + "px");
+        }
+    }
+
+    private static boolean overlap(Rect a, Rect b, double tolerance) {
+        return a.getX() < b.getRight() - tolerance && b.getX() < a.getRight() - tolerance
+                && a.getY() < b.getBottom() - tolerance && b.getY() < a.getBottom() - tolerance;
+    }
+
+    private static String round(double value) {
+        return String.valueOf(Math.round(value * 10) / 10.0);
+    }
+
+    /**
+     * Problems found at one viewport size
+     */
+    public static class Report {
+
+        private final int viewportWidth;
+        private final int viewportHeight;
+        private int cardCount;
+        private final List<String> overlaps = new ArrayList<>();
+        private final List<String> misaligned = new ArrayList<>();
+        private final List<String> gutters = new ArrayList<>();
+        private final List<String> overflow = new ArrayList<>();
+
+        Report(int viewportWidth, int viewportHeight) {
+            this.viewportWidth = viewportWidth;
+            this.viewportHeight = viewportHeight;
+        }
+
+        // Rendered cards analyzed
+        public int getCardCount() {
+            return cardCount;
+        }
+
+        public List<String> getOverlaps() {
+            return overlaps;
+        }
+
+        public List<String> getMisaligned() {
+            return misaligned;
+        }
+
+        public List<String> getGutters() {
+            return gutters;
+        }
+
+        public List<String> getOverflow() {
+            return overflow;
+        }
+
+        public boolean isClean() {
+            return overlaps.isEmpty() && misaligned.isEmpty() && gutters.isEmpty() && overflow.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(viewportWidth).append('x').append(viewportHeight).append(": ")
+                    .append(cardCount).append(" cards");
+            if (isClean()) {
+                return out.append(", layout OK").toString();
+            }
+            append(out, "overlaps", overlaps);
+            append(out, "misaligned", misaligned);
+            append(out, "gutters", gutters);
+            append(out, "overflow", overflow);
+            return out.toString();
+        }
+
+        private static void append(StringBuilder out, String label, List<String> issues) {
+            for (String issue : issues) {
+                out.append("\n  ").append(label).append(": ").append(issue);
+            }
+        }
+    }
+}
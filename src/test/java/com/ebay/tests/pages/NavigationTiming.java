@@ -0,0 +1,226 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NavigationTiming.java
+ * Click-to-item-page and back-navigation latency over repeated cycles, with
+ * back navigations split into back/forward cache restores and full reloads
+ *
+ * A back navigation is a restore when the product page's last pageshow event
+ * had persisted = true (same document, nothing reloaded); otherwise the page
+ * was loaded again (navigation type back_forward). Latencies run from the
+ * click / goBack in Java to the pageshow event in the page (same machine clock).
+ * Chromium also says why a page was not restored (Page.backForwardCacheNotUsed).
+ *
+ * Playwright launches Chromium with the cache disabled, so every back
+ * navigation is a reload unless the browser was launched with
+ * BrowserServer.launchOptions(true) (-Dbrowser.bfcache=true).
+ */
+public class NavigationTiming {
+
+    private final List<Cycle> cycles = new ArrayList<>();
+    private String error;
+
+    public void add(Cycle cycle) {
+        cycles.add(cycle);
+    }
+
+    // Why measuring stopped early, or null
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<Cycle> getCycles() {
+        return Collections.unmodifiableList(cycles);
+    }
+
+    public int getRestoredCount() {
+        int count = 0;
+        for (Cycle cycle : cycles) {
+            if (cycle.restored) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getReloadedCount() {
+        return cycles.size() - getRestoredCount();
+    }
+
+    public double getForwardMedianMs() {
+        List<Double> values = new ArrayList<>();
+        for (Cycle cycle : cycles) {
+            values.add(cycle.forwardMs);
+        }
+        return percentile(values, 0.5);
+    }
+
+    /**
+     * @param restored true for back/forward cache restores, false for reloads
+     * @param quantile e.g. 0.5 for the median; -1 if there were no such navigations
+     */
+    public double getBackMs(boolean restored, double quantile) {
+        List<Double> values = new ArrayList<>();
+        for (Cycle cycle : cycles) {
+            if (cycle.restored == restored) {
+                values.add(cycle.backMs);
+            }
+        }
+        return percentile(values, quantile);
+    }
+
+    // Distinct reasons Chromium gave for not restoring
+    public Set<String> getNotRestoredReasons() {
+        Set<String> reasons = new LinkedHashSet<>();
+        for (Cycle cycle : cycles) {
+            reasons.addAll(cycle.notRestoredReasons);
+        }
+        return reasons;
+    }
+
+    // Nearest-rank percentile, -1 if empty
+    private static double percentile(List<Double> values, double quantile) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(quantile * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    /**
+     * Add every cycle to the run metrics
+     * @param profile device profile label (see BasePage.getProfileLabel)
+     */
+    public void record(String profile) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        for (Cycle cycle : cycles) {
+            String restore = cycle.restored ? "bfcache" : "reload";
+            metrics.timer("navigation", "direction", "forward", "profile", profile)
+                    .record(TimeUnit.MICROSECONDS.toNanos(Math.round(cycle.forwardMs * 1000)));
+            metrics.timer("navigation", "direction", "back", "restore", restore, "profile", profile)
+                    .record(TimeUnit.MICROSECONDS.toNanos(Math.round(cycle.backMs * 1000)));
+            metrics.counter("back_navigations_total", "restore", restore).increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(cycles.size()).append(" cycles, forward p50 ").append(ms(getForwardMedianMs()))
+                .append("; back: ").append(getRestoredCount()).append(" restored (p50 ")
+                .append(ms(getBackMs(true, 0.5))).append("), ").append(getReloadedCount())
+                .append(" reloaded (p50 ").append(ms(getBackMs(false, 0.5))).append(")");
+        for (String reason : getNotRestoredReasons()) {
+            out.append("\n  not restored: ").append(reason);
+        }
+        if (error != null) {
+            out.append("\n  stopped: ").append(error);
+        }
+        return out.toString();
+    }
+
+    private static String ms(double value) {
+        return value < 0 ? "-" : String.format(Locale.ROOT, "%.0f ms", value);
+    }
+
+    /**
+     * One click-through and back
+     */
+    public static class Cycle {
+
+        private final double forwardMs;
+        private final double backMs;
+        private final boolean restored;
+        private final String navigationType;
+        private final List<String> notRestoredReasons;
+
+        /**
+         * @param navigationType the product page's navigation entry type after going back
+         * @param notRestoredReasons Chromium's reasons, empty if restored or unknown
+         */
+        public Cycle(double forwardMs, double backMs, boolean restored, String navigationType,
+                     List<String> notRestoredReasons) {
+            this.forwardMs = forwardMs;
+            this.backMs = backMs;
+            this.restored = restored;
+            this.navigationType = navigationType;
+            this.notRestoredReasons = Collections.unmodifiableList(new ArrayList<>(notRestoredReasons));
+        }
+
+        // Click to the item page's pageshow
+        public double getForwardMs() {
+            return forwardMs;
+        }
+
+        // goBack to the product page's pageshow
+        public double getBackMs() {
+            return backMs;
+        }
+
+        public boolean isRestored() {
+            return restored;
+        }
+
+        // navigate, reload, back_forward
+        public String getNavigationType() {
+            return navigationType;
+        }
+
+        public List<String> getNotRestoredReasons() {
+            return notRestoredReasons;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "forward %.0f ms, back %.0f ms (%s)", forwardMs, backMs,
+                    restored ? "bfcache" : navigationType);
+        }
+    }
+
+    /**
+     * How the current document was loaded and when it was last shown
+     */
+    public static class Visit {
+
+        private final String type;
+        private final boolean restored;
+        private final double shownAt;
+
+        /**
+         * @param shownAt epoch ms of the last pageshow, or -1
+         */
+        public Visit(String type, boolean restored, double shownAt) {
+            this.type = type;
+            this.restored = restored;
+            this.shownAt = shownAt;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        // Last pageshow was a back/forward cache restore
+        public boolean isRestored() {
+            return restored;
+        }
+
+        public double getShownAt() {
+            return shownAt;
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * PageHelpers.java
+ * Named in-page queries from js/page-helpers.js
+ *
+ * Page checks used to send a new selector script per card and field, each
+ * parsed and serialized separately. The helper library is added once per
+ * context with addInitScript (and evaluated into the current document), so
+ * Java only sends a function name and a small argument:
+ *   cards       every related card's href, item id, title and price in one call
+ *   mainProduct main title and price
+ *   keywords    which keywords occur in the page HTML (no full content transfer)
+ *   cardLayout  boxes of every card and its parts (image, title...) for LayoutAnalyzer
+ *   imageAudit  each card image's sizes, loading attributes, resource timing and decode time
+ *   domHash     hash of one element's markup
+ *   navigation  navigation type of the document and its pageshow events
+ *   domTree     canonical, hashed element tree for DomSnapshot
+ * Prices keep only digits and '.'; ids follow ItemIds.parse.
+ *
+ * If a document has no helpers (e.g. a page opened before injection), the
+ * library is evaluated into it and the call retried once.
+ */
+public class PageHelpers {
+
+    public static final String SCRIPT = load("/js/page-helpers.js");
+
+    private static final String MISSING = "__pageHelpersMissing";
+    private static final String CALL =
+            "([name, arg]) => window.__pageHelpers ? window.__pageHelpers.call(name, arg) : '" + MISSING + "'";
+
+    // Contexts (or context-less pages) the library was added to
+    private static final Map<Object, Boolean> INSTALLED = new WeakHashMap<>();
+
+    private final Page page;
+
+    private PageHelpers(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * Helpers calling through page, injecting the library into its context once
+     * Only the first page of a context evaluates it into its current document;
+     * later documents get it from the init script, and a page opened before
+     * injection gets it from call()'s retry.
+     * @param page raw or instrumented page (calls go through it as given)
+     */
+    public static PageHelpers forPage(Page page) {
+        Page raw = InstrumentedPlaywright.unwrap(page);
+        if (install(raw)) {
+            try {
+                raw.evaluate(SCRIPT);
+            } catch (Exception e) {
+                // Retried on first call
+            }
+        }
+        return new PageHelpers(page);
+    }
+
+    // True only when the library was added now
+    private static synchronized boolean install(Page raw) {
+        BrowserContext context = null;
+        try {
+            context = raw.context();
+        } catch (Exception e) {
+            // Page without a context (closed or stubbed)
+        }
+        Object owner = context != null ? context : raw;
+        if (INSTALLED.containsKey(owner)) {
+            return false;
+        }
+        try {
+            if (context != null) {
+                context.addInitScript(SCRIPT);
+            } else {
+                raw.addInitScript(SCRIPT);
+            }
+            INSTALLED.put(owner, Boolean.TRUE);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Page helpers not injected: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Call a helper by name
+     * @return the helper's result as Playwright deserializes it (Map, List, Number, String...)
+     */
+    public Object call(String name, Object arg) {
+        Object result = page.evaluate(CALL, Arrays.asList(name, arg));
+        if (MISSING.equals(result)) {
+            page.evaluate(SCRIPT);
+            result = page.evaluate(CALL, Arrays.asList(name, arg));
+        }
+        return result;
+    }
+
+    /**
+     * First max cards matching selector, plus the total count
+     */
+    public Cards cards(String selector, String titleSelector, String priceSelector, int max) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("selector", selector);
+        arg.put("titleSelector", titleSelector);
+        arg.put("priceSelector", priceSelector);
+        arg.put("max", max);
+        Map<?, ?> result = (Map<?, ?>) call("cards", arg);
+
+        List<Card> cards = new ArrayList<>();
+        for (Object item : (List<?>) result.get("cards")) {
+            Map<?, ?> card = (Map<?, ?>) item;
+            cards.add(new Card(string(card.get("href")), id(card.get("id")),
+                    string(card.get("title")), string(card.get("priceText")),
+                    number(card.get("price")).doubleValue(), number(card.get("textLength")).intValue()));
+        }
+        return new Cards(number(result.get("total")).intValue(), cards);
+    }
+
+    /**
+     * Main product title and price
+     */
+    public Card mainProduct(String titleSelector, String priceSelector) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("titleSelector", titleSelector);
+        arg.put("priceSelector", priceSelector);
+        Map<?, ?> result = (Map<?, ?>) call("mainProduct", arg);
+        String title = string(result.get("title"));
+        return new Card("", -1, title, string(result.get("priceText")),
+                number(result.get("price")).doubleValue(), title.length());
+    }
+
+    /**
+     * Which of keywords appear in the page HTML, case-insensitive
+     */
+    public List<String> keywords(String... keywords) {
+        List<String> found = new ArrayList<>();
+        for (Object keyword : (List<?>) call("keywords", Arrays.asList(keywords))) {
+            found.add(string(keyword));
+        }
+        return found;
+    }
+
+    /**
+     * Boxes of the first max cards and their parts, in one call
+     * @param parts part name to selector within the card, e.g. "image" -> "img"
+     */
+    public CardLayout cardLayout(String selector, Map<String, String> parts, int max) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("selector", selector);
+        arg.put("parts", parts);
+        arg.put("max", max);
+        Map<?, ?> result = (Map<?, ?>) call("cardLayout", arg);
+
+        List<CardBox> cards = new ArrayList<>();
+        for (Object item : (List<?>) result.get("cards")) {
+            Map<?, ?> card = (Map<?, ?>) item;
+            Map<String, Rect> partBoxes = new HashMap<>();
+            Map<?, ?> partsResult = (Map<?, ?>) card.get("parts");
+            for (String name : parts.keySet()) {
+                Rect box = rect(partsResult != null ? partsResult.get(name) : null);
+                if (box != null) {
+                    partBoxes.put(name, box);
+                }
+            }
+            Rect box = rect(card.get("box"));
+            if (box != null) {
+                cards.add(new CardBox(box, partBoxes));
+            }
+        }
+        return new CardLayout(number(result.get("viewportWidth")).intValue(),
+                number(result.get("viewportHeight")).intValue(),
+                number(result.get("scrollWidth")).intValue(), cards);
+    }
+
+    /**
+     * Thumbnail measurements for the first max cards, in one call
+     */
+    public ImageAudit imageAudit(String selector, String imageSelector, int max) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("selector", selector);
+        arg.put("imageSelector", imageSelector);
+        arg.put("max", max);
+        Map<?, ?> result = (Map<?, ?>) call("imageAudit", arg);
+
+        List<ImageAudit.Image> images = new ArrayList<>();
+        for (Object item : (List<?>) result.get("images")) {
+            Map<?, ?> image = (Map<?, ?>) item;
+            images.add(image == null ? null : new ImageAudit.Image(string(image.get("src")),
+                    string(image.get("format")),
+                    number(image.get("naturalWidth")).intValue(), number(image.get("naturalHeight")).intValue(),
+                    number(image.get("renderedWidth")).doubleValue(),
+                    number(image.get("renderedHeight")).doubleValue(),
+                    number(image.get("top")).doubleValue(),
+                    string(image.get("loading")), string(image.get("decoding")),
+                    Boolean.TRUE.equals(image.get("complete")),
+                    number(image.get("transferSize")).longValue(), number(image.get("encodedSize")).longValue(),
+                    number(image.get("decodedSize")).longValue(), number(image.get("decodeMs")).doubleValue()));
+        }
+        return new ImageAudit(number(result.get("viewportHeight")).intValue(),
+                number(result.get("devicePixelRatio")).doubleValue(), images);
+    }
+
+    /**
+     * Hash of the first matching element's markup, or null if there is none
+     * Equal hashes mean identical markup (attributes, text, children).
+     */
+    public String domHash(String selector) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("selector", selector);
+        Object hash = call("domHash", arg);
+        return hash != null ? string(hash) : null;
+    }
+
+    /**
+     * Navigation type of the current document and its last pageshow event
+     */
+    public NavigationTiming.Visit navigation() {
+        Map<?, ?> result = (Map<?, ?>) call("navigation", null);
+        List<?> shows = (List<?>) result.get("shows");
+        Map<?, ?> last = shows.isEmpty() ? null : (Map<?, ?>) shows.get(shows.size() - 1);
+        return new NavigationTiming.Visit(string(result.get("type")),
+                last != null && Boolean.TRUE.equals(last.get("persisted")),
+                last != null ? number(last.get("at")).doubleValue() : -1);
+    }
+
+    /**
+     * Canonical, hashed tree of the first element matching selector, in one call
+     * @param cardSelector elements within it that are cards (keyed by item id)
+     * @param maxNodes elements to read at most; the snapshot says if it was cut short
+     */
+    public DomSnapshot domTree(String selector, String cardSelector, String priceSelector, int maxNodes) {
+        Map<String, Object> arg = new HashMap<>();
+        arg.put("selector", selector);
+        arg.put("cardSelector", cardSelector);
+        arg.put("priceSelector", priceSelector);
+        arg.put("maxNodes", maxNodes);
+        Map<?, ?> result = (Map<?, ?>) call("domTree", arg);
+        if (result == null) {
+            return DomSnapshot.empty();
+        }
+        return new DomSnapshot(domNode((Map<?, ?>) result.get("tree")), Boolean.TRUE.equals(result.get("truncated")));
+    }
+
+    private static DomSnapshot.Node domNode(Map<?, ?> node) {
+        Map<String, String> attributes = new HashMap<>();
+        for (Map.Entry<?, ?> attribute : ((Map<?, ?>) node.get("a")).entrySet()) {
+            attributes.put(string(attribute.getKey()), string(attribute.getValue()));
+        }
+        List<DomSnapshot.Node> children = new ArrayList<>();
+        for (Object child : (List<?>) node.get("c")) {
+            children.add(domNode((Map<?, ?>) child));
+        }
+        return new DomSnapshot.Node(string(node.get("t")), attributes, string(node.get("x")), children,
+                node.containsKey("k") ? string(node.get("k")) : null,
+                node.containsKey("p") ? string(node.get("p")) : null);
+    }
+
+    // [x, y, width, height] from the page, or null
+    private static Rect rect(Object value) {
+        if (!(value instanceof List) || ((List<?>) value).size() != 4) {
+            return null;
+        }
+        List<?> box = (List<?>) value;
+        return new Rect(number(box.get(0)).doubleValue(), number(box.get(1)).doubleValue(),
+                number(box.get(2)).doubleValue(), number(box.get(3)).doubleValue());
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static long id(Object value) {
+        try {
+            return Long.parseLong(string(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = PageHelpers.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new RuntimeException("Missing resource " + resource);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load " + resource + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot of one card (or the main product: id is -1, href empty)
+     */
+    public static class Card {
+
+        private final String href;
+        private final long id;
+        private final String title;
+        private final String priceText;
+        private final double price;
+        private final int textLength;
+
+        Card(String href, long id, String title, String priceText, double price, int textLength) {
+            this.href = href;
+            this.id = id;
+            this.title = title;
+            this.priceText = priceText;
+            this.price = price;
+            this.textLength = textLength;
+        }
+
+        public String getHref() {
+            return href;
+        }
+
+        // Item id from href, or -1 (ItemIds.NO_ID)
+        public long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getPriceText() {
+            return priceText;
+        }
+
+        // 0 if no price could be parsed
+        public double getPrice() {
+            return price;
+        }
+
+        public int getTextLength() {
+            return textLength;
+        }
+    }
+
+    /**
+     * Cards read in one call
+     */
+    public static class Cards {
+
+        private final int total;
+        private final List<Card> cards;
+
+        Cards(int total, List<Card> cards) {
+            this.total = total;
+            this.cards = Collections.unmodifiableList(cards);
+        }
+
+        // All matching cards on the page, not just those returned
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Card> getCards() {
+            return cards;
+        }
+    }
+
+    /**
+     * Element box in viewport coordinates
+     */
+    public static class Rect {
+
+        private final double x;
+        private final double y;
+        private final double width;
+        private final double height;
+
+        public Rect(double x, double y, double width, double height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        public double getHeight() {
+            return height;
+        }
+
+        public double getRight() {
+            return x + width;
+        }
+
+        public double getBottom() {
+            return y + height;
+        }
+
+        // Not rendered (display: none, detached...)
+        public boolean isEmpty() {
+            return width <= 0 || height <= 0;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + x + "," + y + " " + width + "x" + height + "]";
+        }
+    }
+
+    /**
+     * One card's box and the boxes of its parts that were found
+     */
+    public static class CardBox {
+
+        private final Rect box;
+        private final Map<String, Rect> parts;
+
+        public CardBox(Rect box, Map<String, Rect> parts) {
+            this.box = box;
+            this.parts = Collections.unmodifiableMap(parts);
+        }
+
+        public Rect getBox() {
+            return box;
+        }
+
+        public Map<String, Rect> getParts() {
+            return parts;
+        }
+    }
+
+    /**
+     * Card boxes at one viewport size
+     */
+    public static class CardLayout {
+
+        private final int viewportWidth;
+        private final int viewportHeight;
+        private final int scrollWidth;
+        private final List<CardBox> cards;
+
+        public CardLayout(int viewportWidth, int viewportHeight, int scrollWidth, List<CardBox> cards) {
+            this.viewportWidth = viewportWidth;
+            this.viewportHeight = viewportHeight;
+            this.scrollWidth = scrollWidth;
+            this.cards = Collections.unmodifiableList(cards);
+        }
+
+        public int getViewportWidth() {
+            return viewportWidth;
+        }
+
+        public int getViewportHeight() {
+            return viewportHeight;
+        }
+
+        // Document width; wider than the viewport means the page scrolls sideways
+        public int getScrollWidth() {
+            return scrollWidth;
+        }
+
+        public List<CardBox> getCards() {
+            return cards;
+        }
+    }
+}
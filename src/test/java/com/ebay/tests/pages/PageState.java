@@ -0,0 +1,156 @@
+package com.ebay.tests.pages;
+
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.microsoft.playwright.Page;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * PageState.java
+ * Memoized facts about the document currently loaded in a page
+ *
+ * Page objects read the same things many times (main title, card count,
+ * card URLs...). Values are computed on first access and kept until the
+ * document changes. Every read, hit or miss, asks the page for its version
+ * stamp in one round trip: a random id per document plus a counter that a
+ * MutationObserver bumps once per batch of DOM changes. Callers therefore
+ * read a value once per operation and keep it in a local (one card list per
+ * loop, not one lookup per card). The cache is dropped when:
+ *   - the stamp changed (navigation gives a new id, a DOM mutation a new count)
+ *   - a page object calls invalidate() after an action of its own
+ * If the page has no stamp (script not installed, or the read fails),
+ * nothing is cached.
+ *
+ * One PageState per Playwright Page, shared by all page objects on it.
+ * Disable with -Dpage.state.cache=false.
+ */
+public class PageState {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("page.state.cache", "true"));
+
+    // Installed in every document. Observer callbacks are already batched per
+    // microtask, so the page does one increment per batch and never calls out.
+    private static final String OBSERVER_SCRIPT =
+            "(() => {\n"
+            + "  if (window.__pageState) return;\n"
+            + "  const state = window.__pageState = {doc: Math.random().toString(36).slice(2), version: 0};\n"
+            + "  new MutationObserver(() => { state.version++; }).observe(document, {childList: true,\n"
+            + "      subtree: true, characterData: true, attributes: true, attributeFilter: ['class', 'id', 'href', 'src']});\n"
+            + "})();";
+    private static final String STAMP_SCRIPT =
+            "() => window.__pageState ? window.__pageState.doc + ':' + window.__pageState.version : null";
+
+    private static final Map<Page, PageState> STATES = new WeakHashMap<>();
+
+    // Weak: STATES is keyed by the page
+    private final WeakReference<Page> page;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    // Document version the cached values were read at
+    private volatile String stamp;
+    private volatile boolean caching;
+
+    private PageState(Page page) {
+        this.page = new WeakReference<>(page);
+    }
+
+    /**
+     * State for a page, installing the version script once
+     * @param page the raw (uninstrumented) page
+     */
+    public static synchronized PageState forPage(Page page) {
+        PageState state = STATES.get(page);
+        if (state == null) {
+            state = new PageState(page);
+            STATES.put(page, state);
+            state.caching = ENABLED && install(page);
+        }
+        return state;
+    }
+
+    private static boolean install(Page page) {
+        try {
+            page.addInitScript(OBSERVER_SCRIPT);
+            page.evaluate(OBSERVER_SCRIPT);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Page state caching off: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Cached value for key, computed on first access or when the document changed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> compute) {
+        if (!caching) {
+            return compute.get();
+        }
+        String current = readStamp();
+        if (current == null) {
+            return compute.get();
+        }
+        if (!current.equals(stamp)) {
+            invalidate();
+            stamp = current;
+        }
+        Object cached = values.get(key);
+        MetricsRegistry.getDefault().cacheLookup("page_state", cached != null);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long before = generation.get();
+        T value = compute.get();
+        if (value != null) {
+            // Kept under the stamp read before computing: a mutation meanwhile means a miss next time
+            values.put(key, value);
+            // Don't keep a value read across an invalidation
+            if (generation.get() != before) {
+                values.remove(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Forget everything known about the current document
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        stamp = null;
+        values.clear();
+    }
+
+    // Number of invalidations so far
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public boolean isCaching() {
+        return caching;
+    }
+
+    // Current document's "id:version", null if it has none
+    private String readStamp() {
+        Page target = page.get();
+        if (target == null) {
+            return null;
+        }
+        try {
+            // Through the instrumented page, so metrics, budgets and the profiler count it
+            Object result = InstrumentedPlaywright.wrap(target).evaluate(STAMP_SCRIPT);
+            return result instanceof String ? (String) result : null;
+        } catch (Exception e) {
+            // Navigating: the context was destroyed mid-read
+            return null;
+        }
+    }
+}
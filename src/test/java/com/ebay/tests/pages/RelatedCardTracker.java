@@ -0,0 +1,262 @@
+package com.ebay.tests.pages;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Page;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RelatedCardTracker.java
+ * Streams related-product cards to Java as a lazy carousel loads them
+ *
+ * A MutationObserver in the page looks only at the nodes each batch of DOM
+ * changes added (and, when nodes were removed, at the cards it already
+ * tracks), never re-querying the whole document, and sends only the
+ * additions/removals back through an exposed binding. Java keeps the live
+ * set, so tests can wait for N cards (page.waitForCondition, no polling or
+ * sleeps) and read time-to-N-cards on the page clock (ms since navigation
+ * start).
+ *
+ * Only the top-level document is observed; iframes (ads, widgets) would
+ * otherwise reset the set with their own document token. The set resets
+ * when a new document loads. One tracker per page.
+ */
+public class RelatedCardTracker {
+
+    private static final String BINDING = "__relatedCardsChanged";
+
+    // %s = card selector (JSON string)
+    private static final String OBSERVER_SCRIPT =
+            "(() => {\n"
+            + "  if (window !== window.top || window.__cardTracker || !window." + BINDING + ") return;\n"
+            + "  const SELECTOR = %s;\n"
+            + "  const doc = Math.random().toString(36).slice(2);\n"
+            + "  const ids = new WeakMap();\n"
+            + "  const present = new Set();\n"
+            + "  let seq = 0;\n"
+            + "  const describe = (el, id) => {\n"
+            + "    const link = el.matches('a[href]') ? el : el.querySelector('a[href]');\n"
+            + "    return {type: 'add', id, href: link ? link.href : '',\n"
+            + "        text: (el.textContent || '').trim().replace(/\\s+/g, ' ').slice(0, 200)};\n"
+            + "  };\n"
+            + "  const add = (el, events) => {\n"
+            + "    if (present.has(el) || !el.isConnected) return;\n"
+            + "    present.add(el);\n"
+            + "    if (!ids.has(el)) ids.set(el, ++seq);\n"
+            + "    events.push(describe(el, ids.get(el)));\n"
+            + "  };\n"
+            + "  const send = (events) => {\n"
+            + "    if (events.length) window." + BINDING + "(JSON.stringify({doc, t: performance.now(), events}));\n"
+            + "  };\n"
+            // Only the subtrees this batch added; removals only recheck the tracked cards
+            + "  const scan = (records) => {\n"
+            + "    const events = [];\n"
+            + "    let removed = false;\n"
+            + "    for (const record of records) {\n"
+            + "      removed = removed || record.removedNodes.length > 0;\n"
+            + "      for (const node of record.addedNodes) {\n"
+            + "        if (node.nodeType !== Node.ELEMENT_NODE) continue;\n"
+            + "        if (node.matches(SELECTOR)) add(node, events);\n"
+            + "        for (const el of node.querySelectorAll(SELECTOR)) add(el, events);\n"
+            + "      }\n"
+            + "    }\n"
+            + "    if (removed) {\n"
+            + "      for (const el of present) {\n"
+            + "        if (el.isConnected) continue;\n"
+            + "        present.delete(el);\n"
+            + "        events.push({type: 'remove', id: ids.get(el)});\n"
+            + "      }\n"
+            + "    }\n"
+            + "    send(events);\n"
+            + "  };\n"
+            + "  window.__cardTracker = new MutationObserver(scan);\n"
+            + "  window.__cardTracker.observe(document, {childList: true, subtree: true});\n"
+            + "  const initial = [];\n"
+            + "  for (const el of document.querySelectorAll(SELECTOR)) add(el, initial);\n"
+            + "  send(initial);\n"
+            + "})();";
+
+    private static final Map<Page, RelatedCardTracker> TRACKERS = new WeakHashMap<>();
+
+    private final Page page;
+    private final Map<Integer, Card> cards = new LinkedHashMap<>();
+    private final List<Double> firstReachedAtMs = new ArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private String document;
+    private int totalSeen;
+
+    /**
+     * Receives card changes as they happen
+     */
+    public interface Listener {
+        void onCardAdded(Card card);
+
+        void onCardRemoved(Card card);
+    }
+
+    RelatedCardTracker(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * Tracker for a page, installing the observer once
+     * @param page the raw (uninstrumented) page
+     * @param cardSelector selector matching one card
+     */
+    public static synchronized RelatedCardTracker forPage(Page page, String cardSelector) {
+        RelatedCardTracker tracker = TRACKERS.get(page);
+        if (tracker == null) {
+            tracker = new RelatedCardTracker(page);
+            tracker.install(cardSelector);
+            TRACKERS.put(page, tracker);
+        }
+        return tracker;
+    }
+
+    private void install(String cardSelector) {
+        String script = String.format(OBSERVER_SCRIPT, new Gson().toJson(cardSelector));
+        try {
+            page.exposeBinding(BINDING, (source, args) -> {
+                onBatch(String.valueOf(args[0]));
+                return null;
+            });
+            page.addInitScript(script);
+            page.evaluate(script);
+        } catch (Exception e) {
+            System.out.println("Card tracking unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one batch of changes sent by the page
+     */
+    private synchronized void onBatch(String json) {
+        JsonObject batch = JsonParser.parseString(json).getAsJsonObject();
+        String doc = batch.get("doc").getAsString();
+        double timestampMs = batch.get("t").getAsDouble();
+
+        // New document: start over
+        if (!doc.equals(document)) {
+            document = doc;
+            cards.clear();
+            firstReachedAtMs.clear();
+            totalSeen = 0;
+        }
+
+        for (JsonElement element : batch.getAsJsonArray("events")) {
+            JsonObject event = element.getAsJsonObject();
+            int id = event.get("id").getAsInt();
+            if ("add".equals(event.get("type").getAsString())) {
+                Card card = new Card(id, event.get("href").getAsString(),
+                        event.get("text").getAsString(), timestampMs);
+                cards.put(id, card);
+                totalSeen++;
+                for (Listener listener : listeners) {
+                    listener.onCardAdded(card);
+                }
+            } else {
+                Card card = cards.remove(id);
+                if (card != null) {
+                    for (Listener listener : listeners) {
+                        listener.onCardRemoved(card);
+                    }
+                }
+            }
+        }
+
+        while (firstReachedAtMs.size() < cards.size()) {
+            firstReachedAtMs.add(timestampMs);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Wait until at least count cards are present
+     * @return true if reached before the timeout
+     */
+    public boolean waitForCards(int count, double timeoutMs) {
+        try {
+            page.waitForCondition(() -> getCardCount() >= count,
+                    new Page.WaitForConditionOptions().setTimeout(timeoutMs));
+        } catch (Exception e) {
+            System.out.println("Only " + getCardCount() + " of " + count + " cards loaded");
+        }
+        return getCardCount() >= count;
+    }
+
+    public synchronized int getCardCount() {
+        return cards.size();
+    }
+
+    // Cards currently in the DOM, in the order they appeared
+    public synchronized List<Card> getCards() {
+        return new ArrayList<>(cards.values());
+    }
+
+    // Cards added since the document loaded, including ones removed again
+    public synchronized int getTotalSeen() {
+        return totalSeen;
+    }
+
+    /**
+     * Page-clock time (ms since navigation start) when count cards were first present
+     * @return -1 if never reached
+     */
+    public synchronized double getTimeToCardsMs(int count) {
+        return count > 0 && count <= firstReachedAtMs.size() ? firstReachedAtMs.get(count - 1) : -1;
+    }
+
+    /**
+     * One related-product card as seen by the page
+     */
+    public static class Card {
+
+        private final int id;
+        private final String href;
+        private final String text;
+        private final double addedAtMs;
+
+        Card(int id, String href, String text, double addedAtMs) {
+            this.id = id;
+            this.href = href;
+            this.text = text;
+            this.addedAtMs = addedAtMs;
+        }
+
+        // Stable for the card element's lifetime within one document
+        public int getId() {
+            return id;
+        }
+
+        public String getHref() {
+            return href;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public double getAddedAtMs() {
+            return addedAtMs;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + id + " " + href;
+        }
+    }
+}
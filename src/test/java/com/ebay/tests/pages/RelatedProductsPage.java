@@ -1,11 +1,22 @@
 package com.ebay.tests.pages;
 
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.utils.DuplicateDetector;
+import com.ebay.tests.utils.ItemIds;
+import com.ebay.tests.utils.PriceRelevanceAnalytics;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.options.ViewportSize;
+import com.microsoft.playwright.options.WaitUntilState;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
 
 public class RelatedProductsPage extends BasePage {
 
@@ -25,6 +36,8 @@ public class RelatedProductsPage extends BasePage {
 
     // Constants
     private static final int MAX_RELATED_PRODUCTS = 6;
+    private static final int MAX_LAYOUT_CARDS = 500;
+    private static final int MAX_SNAPSHOT_NODES = 20000;
     private static final double PRICE_RANGE_PERCENTAGE = 0.20;
     private static final int TIMEOUT_MS = 10000;
 
@@ -40,6 +53,7 @@ public class RelatedProductsPage extends BasePage {
      */
     public void waitForRelatedProductsToLoad() {
         try {
+            long start = System.currentTimeMillis();
             // Wait for container
             page.waitForSelector(RELATED_PRODUCTS_CONTAINER,
                     new Page.WaitForSelectorOptions().setTimeout(TIMEOUT_MS));
@@ -48,7 +62,9 @@ public class RelatedProductsPage extends BasePage {
             page.waitForSelector(PRODUCT_CARD_SELECTOR,
                     new Page.WaitForSelectorOptions().setTimeout(TIMEOUT_MS));
 
-            System.out.println("Related products section loaded");
+            long waited = System.currentTimeMillis() - start;
+            recordTiming("related_products_wait", waited);
+            System.out.println("Related products section loaded in " + waited + "ms (" + getProfileLabel() + ")");
         } catch (Exception e) {
             System.out.println("Related products section not available");
         }
@@ -101,12 +117,16 @@ public class RelatedProductsPage extends BasePage {
      * @return number of products (0-6)
      */
     public int getRelatedProductsCount() {
-        try {
-            int count = page.locator(PRODUCT_CARD_SELECTOR).count();
-            return Math.min(count, MAX_RELATED_PRODUCTS);
-        } catch (Exception e) {
-            return 0;
-        }
+        PageHelpers.Cards cards = getRelatedCards();
+        return cards != null ? Math.min(cards.getTotal(), MAX_RELATED_PRODUCTS) : 0;
+    }
+
+    /**
+     * Track related cards as a lazy carousel loads them (not capped at 6)
+     * @return tracker streaming card additions/removals from the page
+     */
+    public RelatedCardTracker trackRelatedCards() {
+        return RelatedCardTracker.forPage(InstrumentedPlaywright.unwrap(page), PRODUCT_CARD_SELECTOR);
     }
 
     // TC-003: Product Card Elements
@@ -116,16 +136,104 @@ public class RelatedProductsPage extends BasePage {
      * @return true if image, title, and price present
      */
     public boolean productCardIsComplete(int index) {
+        // For mock HTML: just check if card exists and has content
+        // More robust: don't check every element, just verify card is populated
+        PageHelpers.Card card = getRelatedCard(index);
+        return card != null && card.getTextLength() > 0;
+    }
+
+    // TC-008: Card Layout and Spacing
+    /**
+     * Check card geometry at the current viewport (overlaps, alignment, gutters, overflow)
+     * @return layout problems found, all cards on the page included
+     */
+    public LayoutAnalyzer.Report analyzeCardLayout() {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("image", PRODUCT_IMAGE);
+        parts.put("title", PRODUCT_TITLE);
+        parts.put("price", PRODUCT_PRICE);
+        LayoutAnalyzer.Report report = LayoutAnalyzer.analyze(
+                helpers.cardLayout(PRODUCT_CARD_SELECTOR, parts, MAX_LAYOUT_CARDS));
+        System.out.println("Card layout " + report);
+        return report;
+    }
+
+    /**
+     * Check card geometry at each viewport size, then restore the original size
+     * @param viewports {width, height} pairs
+     * @return one report per viewport, in order
+     */
+    public List<LayoutAnalyzer.Report> analyzeCardLayoutAcrossViewports(int[]... viewports) {
+        ViewportSize original = page.viewportSize();
+        List<LayoutAnalyzer.Report> reports = new ArrayList<>();
         try {
-            Locator card = page.locator(PRODUCT_CARD_SELECTOR).nth(index);
+            for (int[] viewport : viewports) {
+                setViewportSize(viewport[0], viewport[1]);
+                reports.add(analyzeCardLayout());
+            }
+        } finally {
+            if (original != null) {
+                setViewportSize(original.width, original.height);
+            }
+        }
+        return reports;
+    }
 
-            // For mock HTML: just check if card exists and has content
-            // More robust: don't check every element, just verify card is populated
-            boolean hasContent = card.textContent().length() > 0;
+    /**
+     * Measure the card thumbnails (sizes, lazy loading, format, bytes, decode time)
+     * and add the totals to the run metrics
+     * @param pageLabel metrics label for this page, e.g. the fixture name or item id
+     * @return per-card measurements and flagged images (empty if the page could not be read)
+     */
+    public ImageAudit auditCardImages(String pageLabel) {
+        try {
+            ImageAudit audit = helpers.imageAudit(PRODUCT_CARD_SELECTOR, PRODUCT_IMAGE, MAX_LAYOUT_CARDS);
+            audit.record(pageLabel);
+            System.out.println("Card images: " + audit);
+            return audit;
+        } catch (Exception e) {
+            System.out.println("Could not audit card images: " + e.getMessage());
+            return new ImageAudit(0, 1.0, new ArrayList<>());
+        }
+    }
 
-            return hasContent;
+    /**
+     * Accessibility checks on the related-products widget only (card links,
+     * image alt text, heading structure); identical widget markup is checked once
+     * @return issues found (unavailable if there is no widget or no accessibility tree)
+     */
+    public AccessibilityAudit auditAccessibility() {
+        try {
+            String domHash = helpers.domHash(RELATED_PRODUCTS_CONTAINER);
+            if (domHash == null) {
+                return AccessibilityAudit.unavailable();
+            }
+            AccessibilityAudit audit = AccessibilityAudit.forContainer(
+                    InstrumentedPlaywright.unwrap(page), RELATED_PRODUCTS_CONTAINER, domHash);
+            System.out.println("Related products accessibility: " + audit);
+            return audit;
         } catch (Exception e) {
-            return false;
+            System.out.println("Could not audit accessibility: " + e.getMessage());
+            return AccessibilityAudit.unavailable();
+        }
+    }
+
+    /**
+     * Canonical, hashed copy of the related-products widget, to compare before
+     * and after a refresh or navigation with DomSnapshot.diff
+     * @return the snapshot (empty if there is no widget or it could not be read)
+     */
+    public DomSnapshot snapshotRelatedProducts() {
+        try {
+            DomSnapshot snapshot = helpers.domTree(RELATED_PRODUCTS_CONTAINER, PRODUCT_CARD_SELECTOR,
+                    PRODUCT_PRICE, MAX_SNAPSHOT_NODES);
+            if (snapshot.isTruncated()) {
+                System.out.println("Related products snapshot cut at " + MAX_SNAPSHOT_NODES + " nodes");
+            }
+            return snapshot;
+        } catch (Exception e) {
+            System.out.println("Could not snapshot related products: " + e.getMessage());
+            return DomSnapshot.empty();
         }
     }
 
@@ -141,10 +249,8 @@ public class RelatedProductsPage extends BasePage {
                 return true; // Can't verify, assume excluded
             }
 
-            int count = getRelatedProductsCount();
-            for (int i = 0; i < count; i++) {
-                String relTitle = getRelatedProductTitle(i);
-                if (relTitle.equalsIgnoreCase(mainTitle)) {
+            for (PageHelpers.Card card : getRelatedCardList()) {
+                if (card.getTitle().equalsIgnoreCase(mainTitle)) {
                     System.out.println("Main product found in related list!");
                     return false;
                 }
@@ -163,10 +269,7 @@ public class RelatedProductsPage extends BasePage {
      */
     public boolean areProductsInSameCategory() {
         try {
-            String pageContent = page.content();
-            boolean hasWalletKeywords = pageContent.toLowerCase().contains("wallet") ||
-                    pageContent.toLowerCase().contains("leather") ||
-                    pageContent.toLowerCase().contains("billfold");
+            boolean hasWalletKeywords = !findKeywords("wallet", "leather", "billfold").isEmpty();
 
             if (hasWalletKeywords) {
                 System.out.println("Products in same category (wallets)");
@@ -192,11 +295,12 @@ public class RelatedProductsPage extends BasePage {
             double lowerLimit = mainPrice * (1 - PRICE_RANGE_PERCENTAGE);
             double upperLimit = mainPrice * (1 + PRICE_RANGE_PERCENTAGE);
 
-            int count = getRelatedProductsCount();
+            List<PageHelpers.Card> cards = getRelatedCardList();
+            int count = cards.size();
             int validCount = 0;
 
-            for (int i = 0; i < count; i++) {
-                double relPrice = getRelatedProductPriceAsDouble(i);
+            for (PageHelpers.Card card : cards) {
+                double relPrice = card.getPrice();
                 if (relPrice >= lowerLimit && relPrice <= upperLimit) {
                     validCount++;
                 }
@@ -211,6 +315,26 @@ public class RelatedProductsPage extends BasePage {
         }
     }
 
+    /**
+     * Feed this page's main/related price pairs into run-wide analytics
+     * @param analytics shared analytics for the run
+     */
+    public void recordPriceRelevance(PriceRelevanceAnalytics analytics) {
+        try {
+            double mainPrice = getMainProductPriceAsDouble();
+            List<PageHelpers.Card> cards = getRelatedCardList();
+            double[] relatedPrices = new double[cards.size()];
+
+            for (int i = 0; i < relatedPrices.length; i++) {
+                relatedPrices[i] = cards.get(i).getPrice();
+            }
+
+            analytics.recordPage(mainPrice, relatedPrices);
+        } catch (Exception e) {
+            System.out.println("Could not record prices: " + e.getMessage());
+        }
+    }
+
     // TC-007: Navigation
     /**
      * Click related product and navigate
@@ -223,6 +347,7 @@ public class RelatedProductsPage extends BasePage {
             card.waitFor();
             // Click directly on the card (which is a link wrapper)
             card.click();
+            state.invalidate();
             System.out.println("Clicked product " + (index + 1));
         } catch (Exception e) {
             throw new RuntimeException("Failed to click product: " + e.getMessage());
@@ -235,21 +360,9 @@ public class RelatedProductsPage extends BasePage {
      * @return product URL
      */
     public String getRelatedProductUrl(int index) {
-        try {
-            Locator card = page.locator(PRODUCT_CARD_SELECTOR).nth(index);
-
-            // Try to find any anchor tag in the card
-            Locator link = card.locator("a");
-
-            if (link.count() == 0) {
-                return "";
-            }
-
-            String href = link.getAttribute("href");
-            return href != null ? href : "";
-        } catch (Exception e) {
-            return "";
-        }
+        // First anchor in the card
+        PageHelpers.Card card = getRelatedCard(index);
+        return card != null ? card.getHref() : "";
     }
 
     // TC-016: No Duplicates
@@ -259,15 +372,15 @@ public class RelatedProductsPage extends BasePage {
      */
     public boolean hasNoDuplicateProducts() {
         try {
-            List<String> productIds = getAllProductIds();
-            Set<String> uniqueIds = new HashSet<>(productIds);
+            long[] productIds = getAllProductIds();
+            List<Long> duplicates = DuplicateDetector.findPageDuplicates(productIds, productIds.length);
 
-            boolean noDuplicates = productIds.size() == uniqueIds.size();
+            boolean noDuplicates = duplicates.isEmpty();
 
             if (noDuplicates) {
                 System.out.println("No duplicate products");
             } else {
-                System.out.println("Duplicate products found!");
+                System.out.println("Duplicate products found: " + duplicates);
             }
 
             return noDuplicates;
@@ -276,6 +389,22 @@ public class RelatedProductsPage extends BasePage {
         }
     }
 
+    /**
+     * Get URLs of all related products (for cross-page duplicate detection)
+     * @return product URLs, empty entries skipped
+     */
+    public List<String> getRelatedProductUrls() {
+        List<String> urls = new ArrayList<>();
+
+        for (PageHelpers.Card card : getRelatedCardList()) {
+            String url = card.getHref();
+            if (!url.isEmpty()) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
     // TC-013: Error Handling
     /**
      * Check if error page is displayed
@@ -284,12 +413,8 @@ public class RelatedProductsPage extends BasePage {
      */
     public boolean isErrorPageDisplayed() {
         try {
-            String pageContent = page.content();
-
-            boolean hasErrorText = pageContent.toLowerCase().contains("not found") ||
-                    pageContent.toLowerCase().contains("error") ||
-                    pageContent.toLowerCase().contains("sorry") ||
-                    pageContent.toLowerCase().contains("temporarily unavailable");
+            boolean hasErrorText =
+                    !findKeywords("not found", "error", "sorry", "temporarily unavailable").isEmpty();
 
             if (hasErrorText) {
                 System.out.println("Error page detected");
@@ -351,6 +476,7 @@ public class RelatedProductsPage extends BasePage {
      */
     public void navigateBack() {
         try {
+            state.invalidate();
             page.goBack();
             page.waitForLoadState();
             System.out.println("Navigated back");
@@ -359,12 +485,84 @@ public class RelatedProductsPage extends BasePage {
         }
     }
 
+    /**
+     * Click through to a related item and back, cycles times, timing each leg and
+     * recording whether the product page came back from the back/forward cache
+     * @param index related product to click
+     * @return per-cycle timings (stops at the first failure, see getError)
+     */
+    public NavigationTiming measureBackNavigation(int index, int cycles) {
+        NavigationTiming timing = new NavigationTiming();
+        Page raw = InstrumentedPlaywright.unwrap(page);
+        List<String> notRestored = new ArrayList<>();
+        CDPSession session = watchBackForwardCache(raw, notRestored);
+        String productUrl = page.url();
+        try {
+            for (int i = 0; i < cycles; i++) {
+                long clickAt = System.currentTimeMillis();
+                page.locator(PRODUCT_CARD_SELECTOR).nth(index).locator("a").first().click();
+                page.waitForURL(url -> !url.equals(productUrl));
+                state.invalidate();
+                double forwardMs = shownSince(clickAt);
+
+                notRestored.clear();
+                long backAt = System.currentTimeMillis();
+                // A restored page fires no load event; wait for its pageshow instead
+                page.goBack(new Page.GoBackOptions().setWaitUntil(WaitUntilState.COMMIT));
+                page.waitForFunction("mark => { const h = window.__pageHelpers;"
+                        + " const shows = h ? h.call('navigation').shows : [];"
+                        + " return shows.length > 0 && shows[shows.length - 1].at >= mark; }", backAt);
+                state.invalidate();
+                NavigationTiming.Visit back = helpers.navigation();
+                timing.add(new NavigationTiming.Cycle(forwardMs, back.getShownAt() - backAt, back.isRestored(),
+                        back.getType(), notRestored));
+            }
+        } catch (Exception e) {
+            timing.setError(e.getMessage());
+        } finally {
+            if (session != null) {
+                try {
+                    session.detach();
+                } catch (Exception e) {
+                    // Page already closed
+                }
+            }
+        }
+        timing.record(getProfileLabel());
+        System.out.println("Back navigation: " + timing);
+        return timing;
+    }
+
+    // Milliseconds from start (epoch ms) to the current document's last pageshow
+    private double shownSince(long start) {
+        double shownAt = helpers.navigation().getShownAt();
+        return (shownAt > 0 ? shownAt : System.currentTimeMillis()) - start;
+    }
+
+    // Collects Chromium's reasons for not restoring a page; null where CDP is unavailable
+    private static CDPSession watchBackForwardCache(Page raw, List<String> reasons) {
+        try {
+            CDPSession session = raw.context().newCDPSession(raw);
+            session.send("Page.enable");
+            session.on("Page.backForwardCacheNotUsed", event -> {
+                for (JsonElement explanation : event.getAsJsonArray("notRestoredExplanations")) {
+                    JsonObject reason = explanation.getAsJsonObject();
+                    reasons.add(reason.get("reason").getAsString() + " (" + reason.get("type").getAsString() + ")");
+                }
+            });
+            return session;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     // TC-019: Refresh
     /**
      * Reload current page
      */
     public void refreshPage() {
         try {
+            state.invalidate();
             page.reload();
             page.waitForLoadState();
             System.out.println("Page refreshed");
@@ -379,99 +577,97 @@ public class RelatedProductsPage extends BasePage {
      * Get main product title (private - internal use)
      */
     private String getMainProductTitle() {
-        try {
-            return getElementText(MAIN_PRODUCT_TITLE).trim();
-        } catch (Exception e) {
-            return "";
-        }
+        PageHelpers.Card main = getMainProduct();
+        return main != null ? main.getTitle() : "";
     }
 
     /**
-     * Get related product title at index
+     * Get main product price as double
      */
-    private String getRelatedProductTitle(int index) {
-        try {
-            Locator card = page.locator(PRODUCT_CARD_SELECTOR).nth(index);
-            String title = card.locator(PRODUCT_TITLE).textContent();
-            return title != null ? title.trim() : "";
-        } catch (Exception e) {
-            return "";
-        }
+    private double getMainProductPriceAsDouble() {
+        PageHelpers.Card main = getMainProduct();
+        return main != null ? main.getPrice() : 0.0;
     }
 
     /**
-     * Get main product price as double
+     * Related cards (first 6), read in one in-page call and cached until the document changes
      */
-    private double getMainProductPriceAsDouble() {
-        try {
-            String priceText = getElementText(MAIN_PRODUCT_PRICE);
-            return extractPriceAsDouble(priceText);
-        } catch (Exception e) {
-            return 0.0;
-        }
+    private PageHelpers.Cards getRelatedCards() {
+        return state.get("relatedCards", () -> {
+            try {
+                return helpers.cards(PRODUCT_CARD_SELECTOR, PRODUCT_TITLE, PRODUCT_PRICE, MAX_RELATED_PRODUCTS);
+            } catch (Exception e) {
+                return null;
+            }
+        });
     }
 
     /**
-     * Get related product price as double
+     * Related cards (first 6), empty if they could not be read; loops index
+     * this one list instead of asking PageState per card
      */
-    private double getRelatedProductPriceAsDouble(int index) {
-        try {
-            Locator card = page.locator(PRODUCT_CARD_SELECTOR).nth(index);
-            String priceText = card.locator(PRODUCT_PRICE).textContent();
-
-            if (priceText == null) {
-                priceText = card.locator("span").textContent();
-            }
+    private List<PageHelpers.Card> getRelatedCardList() {
+        PageHelpers.Cards cards = getRelatedCards();
+        return cards != null ? cards.getCards() : Collections.<PageHelpers.Card>emptyList();
+    }
 
-            return extractPriceAsDouble(priceText != null ? priceText : "0");
-        } catch (Exception e) {
-            return 0.0;
+    /**
+     * Related card at index, or null if there is none
+     */
+    private PageHelpers.Card getRelatedCard(int index) {
+        PageHelpers.Cards cards = getRelatedCards();
+        if (cards == null || index < 0 || index >= cards.getCards().size()) {
+            return null;
         }
+        return cards.getCards().get(index);
     }
 
     /**
-     * Extract numeric value from price string
+     * Main product title and price (cached until the document changes)
      */
-    private double extractPriceAsDouble(String priceText) {
-        try {
-            if (priceText == null || priceText.isEmpty()) {
-                return 0.0;
+    private PageHelpers.Card getMainProduct() {
+        return state.get("mainProduct", () -> {
+            try {
+                return helpers.mainProduct(MAIN_PRODUCT_TITLE, MAIN_PRODUCT_PRICE);
+            } catch (Exception e) {
+                return null;
             }
+        });
+    }
 
-            // Remove all non-numeric except decimal
-            String cleanPrice = priceText.replaceAll("[^0-9.]", "");
-
-            if (cleanPrice.isEmpty()) {
-                return 0.0;
+    /**
+     * Keywords found in the page HTML, checked in the page (no content transfer)
+     */
+    private List<String> findKeywords(String... keywords) {
+        List<String> found = state.get("keywords:" + String.join("|", keywords), () -> {
+            try {
+                return helpers.keywords(keywords);
+            } catch (Exception e) {
+                return null;
             }
-
-            return Double.parseDouble(cleanPrice);
-        } catch (Exception e) {
-            return 0.0;
-        }
+        });
+        return found != null ? found : new ArrayList<>();
     }
 
     /**
      * Get all product IDs from related products
      */
-    private List<String> getAllProductIds() {
+    private long[] getAllProductIds() {
         try {
-            List<String> productIds = new ArrayList<>();
-            int count = getRelatedProductsCount();
-
-            for (int i = 0; i < count; i++) {
-                String url = getRelatedProductUrl(i);
-
-                if (url.contains("/itm/")) {
-                    String id = url.substring(url.indexOf("/itm/") + 5);
-                    id = id.split("[?]")[0]; // Remove query params
-                    productIds.add(id);
+            List<PageHelpers.Card> cards = getRelatedCardList();
+            long[] productIds = new long[cards.size()];
+            int found = 0;
+
+            for (PageHelpers.Card card : cards) {
+                long id = card.getId();
+                if (id != ItemIds.NO_ID) {
+                    productIds[found++] = id;
                 }
             }
 
-            return productIds;
+            return Arrays.copyOf(productIds, found);
         } catch (Exception e) {
-            return new ArrayList<>();
+            return new long[0];
         }
     }
 }
\ No newline at end of file
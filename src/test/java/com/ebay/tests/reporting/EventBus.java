@@ -0,0 +1,124 @@
+package com.ebay.tests.reporting;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * EventBus.java
+ * In-process bus carrying test events from test threads to report writers
+ *
+ * Publishing only enqueues; one daemon thread delivers events to subscribers
+ * in publish order, so slow file I/O never runs on a test thread. The queue
+ * is bounded: if subscribers fall -Dreport.queue (default 1024) events
+ * behind, publishers wait rather than events being dropped or buffered
+ * without limit, so memory stays constant however many tests run.
+ */
+public class EventBus {
+
+    private static final EventBus DEFAULT = new EventBus(Integer.getInteger("report.queue", 1024));
+
+    private final BlockingQueue<TestEvent> queue;
+    private final List<Consumer<TestEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final Object progress = new Object();
+    private long published;
+    private long delivered;
+
+    /**
+     * @param capacity events held before publishers wait
+     */
+    public EventBus(int capacity) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        Thread dispatcher = new Thread(this::dispatch, "test-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    public static EventBus getDefault() {
+        return DEFAULT;
+    }
+
+    public void subscribe(Consumer<TestEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<TestEvent> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Queue an event for delivery; waits while the queue is full
+     */
+    public void publish(TestEvent event) {
+        synchronized (progress) {
+            published++;
+        }
+        try {
+            if (!queue.offer(event)) {
+                MetricsRegistry.getDefault().counter("report_backpressure_total").increment();
+                queue.put(event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delivered(1);
+        }
+    }
+
+    /**
+     * Wait until every event published so far has been delivered
+     * @return false if that took longer than timeoutMs
+     */
+    public boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (progress) {
+            long target = published;
+            while (delivered < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Events waiting for delivery
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    private void dispatch() {
+        while (true) {
+            TestEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Consumer<TestEvent> subscriber : subscribers) {
+                try {
+                    subscriber.accept(event);
+                } catch (Exception e) {
+                    System.out.println("Report subscriber failed on " + event.getType() + ": " + e.getMessage());
+                }
+            }
+            delivered(1);
+        }
+    }
+
+    private void delivered(long count) {
+        synchronized (progress) {
+            delivered += count;
+            progress.notifyAll();
+        }
+    }
+}
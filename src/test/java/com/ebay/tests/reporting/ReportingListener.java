@@ -0,0 +1,181 @@
+package com.ebay.tests.reporting;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * ReportingListener.java
+ * Streams JUnit Platform test events to the EventBus as they happen
+ *
+ * Registered for every run through META-INF/services, so JUnit 4 (vintage)
+ * and JUnit 5 classes are reported alike, while they run rather than when
+ * surefire writes its XML at the end of each class. With the default bus the
+ * events go to StreamingReport; -Dreport=off turns reporting off.
+ *
+ * State is per running test only (start time, thread), so memory does not
+ * grow with the number of tests. Test code attaches files with artifact(path).
+ */
+public class ReportingListener implements TestExecutionListener {
+
+    private static final long FLUSH_TIMEOUT_MS = 10000;
+
+    // Test running on this thread, for artifact()
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    private final EventBus bus;
+    private final boolean enabled;
+    private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * Used by the JUnit Platform: default bus, written by StreamingReport
+     */
+    public ReportingListener() {
+        this(EventBus.getDefault(), !"off".equals(System.getProperty("report")));
+    }
+
+    /**
+     * Publish to bus only; the caller subscribes whatever should receive the events
+     */
+    public ReportingListener(EventBus bus) {
+        this(bus, true);
+    }
+
+    private ReportingListener(EventBus bus, boolean enabled) {
+        this.bus = bus;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Attach a file to the test running on this thread (no-op outside a reported test)
+     */
+    public static void artifact(String path) {
+        Context context = CURRENT.get();
+        if (context != null) {
+            context.bus.publish(TestEvent.artifact(context.testId, path));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (!enabled) {
+            return;
+        }
+        if (bus == EventBus.getDefault()) {
+            StreamingReport.ensureStarted(bus);
+        }
+        bus.publish(TestEvent.runStarted(testPlan.countTestIdentifiers(TestIdentifier::isTest)));
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!enabled || !testIdentifier.isTest()) {
+            return;
+        }
+        String id = testIdentifier.getUniqueId();
+        startNanos.put(id, System.nanoTime());
+        CURRENT.set(new Context(bus, id));
+        bus.publish(TestEvent.testStarted(id, className(testIdentifier), testIdentifier.getDisplayName()));
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+        if (!enabled) {
+            return;
+        }
+        // A skipped class reports as one entry; its tests never start
+        skipped.incrementAndGet();
+        bus.publish(TestEvent.testFinished(testIdentifier.getUniqueId(), className(testIdentifier),
+                testIdentifier.getDisplayName(), "skipped", 0, reason));
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        if (!enabled) {
+            return;
+        }
+        boolean test = testIdentifier.isTest();
+        if (!test && result.getStatus() != TestExecutionResult.Status.FAILED) {
+            return;
+        }
+        // Containers are reported only when they fail (e.g. @BeforeClass), their tests never ran
+        String id = testIdentifier.getUniqueId();
+        Long start = startNanos.remove(id);
+        long durationMs = start != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) : 0;
+        if (test) {
+            CURRENT.remove();
+        }
+
+        String status;
+        switch (result.getStatus()) {
+            case SUCCESSFUL:
+                status = "passed";
+                passed.incrementAndGet();
+                break;
+            case ABORTED:
+                status = "aborted";
+                skipped.incrementAndGet();
+                break;
+            default:
+                status = "failed";
+                failed.incrementAndGet();
+                break;
+        }
+        Optional<Throwable> cause = result.getThrowable();
+        String message = cause.isPresent() ? describe(cause.get()) : null;
+        bus.publish(TestEvent.testFinished(id, className(testIdentifier), testIdentifier.getDisplayName(), status,
+                durationMs, message));
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!enabled) {
+            return;
+        }
+        long finished = passed.get() + failed.get() + skipped.get();
+        bus.publish(TestEvent.runFinished(finished,
+                passed.get() + " passed, " + failed.get() + " failed, " + skipped.get() + " skipped"));
+        if (!bus.flush(FLUSH_TIMEOUT_MS)) {
+            System.out.println("Report incomplete: " + bus.getBacklog() + " events not written");
+        }
+    }
+
+    private static String className(TestIdentifier testIdentifier) {
+        Optional<TestSource> source = testIdentifier.getSource();
+        if (source.isPresent() && source.get() instanceof MethodSource) {
+            return ((MethodSource) source.get()).getClassName();
+        }
+        if (source.isPresent() && source.get() instanceof ClassSource) {
+            return ((ClassSource) source.get()).getClassName();
+        }
+        return null;
+    }
+
+    private static String describe(Throwable cause) {
+        String message = cause.getMessage();
+        return cause.getClass().getSimpleName() + (message != null ? ": " + message : "");
+    }
+
+    private static class Context {
+
+        private final EventBus bus;
+        private final String testId;
+
+        Context(EventBus bus, String testId) {
+            this.bus = bus;
+            this.testId = testId;
+        }
+    }
+}
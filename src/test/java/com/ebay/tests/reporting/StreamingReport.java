@@ -0,0 +1,232 @@
+package com.ebay.tests.reporting;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * StreamingReport.java
+ * File-backed test report, appended one event at a time
+ *
+ * Each event becomes one line of <dir>/events.ndjson as it is delivered;
+ * nothing is kept in memory and nothing is rendered at the end. The static
+ * dashboard (<dir>/index.html) tails the file with HTTP Range requests, so
+ * it reads only the new bytes on each poll.
+ *
+ * -Dreport.dir=path   report directory (default target/test-report)
+ * -Dreport.port=9465  serve the dashboard at http://127.0.0.1:9465/ during the run
+ *
+ * Forked JVMs append to the same file (one write per line); the file is
+ * emptied only when it predates this JVM, i.e. it is left over from an
+ * earlier run.
+ */
+public class StreamingReport implements Consumer<TestEvent>, AutoCloseable {
+
+    public static final String DEFAULT_DIR = "target/test-report";
+    public static final String EVENTS_FILE = "events.ndjson";
+    private static final String DASHBOARD = "/report/dashboard.html";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-");
+
+    private static volatile StreamingReport started;
+
+    private final Path dir;
+    private final FileChannel channel;
+    private volatile boolean failed;
+
+    private StreamingReport(Path dir, FileChannel channel) {
+        this.dir = dir;
+        this.channel = channel;
+    }
+
+    /**
+     * Open the report in dir, emptying an events file left from an earlier run
+     */
+    public static StreamingReport open(Path dir) {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(dir);
+            Path events = dir.resolve(EVENTS_FILE);
+            channel = FileChannel.open(events, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            FileLock lock = channel.lock();
+            try {
+                long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+                if (channel.size() > 0 && Files.getLastModifiedTime(events).toMillis() < jvmStart) {
+                    channel.truncate(0);
+                }
+            } finally {
+                lock.release();
+            }
+            try (InputStream in = StreamingReport.class.getResourceAsStream(DASHBOARD)) {
+                if (in != null) {
+                    Files.copy(in, dir.resolve("index.html"), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return new StreamingReport(dir, channel);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Already failing
+                }
+            }
+            throw new RuntimeException("Failed to open report in " + dir + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Subscribe the report configured by -Dreport.dir / -Dreport.port to bus, once per JVM
+     */
+    static StreamingReport ensureStarted(EventBus bus) {
+        if (started != null) {
+            return started;
+        }
+        synchronized (StreamingReport.class) {
+            if (started == null) {
+                StreamingReport report = open(Paths.get(System.getProperty("report.dir", DEFAULT_DIR)));
+                bus.subscribe(report);
+                Integer port = Integer.getInteger("report.port");
+                if (port != null) {
+                    startHttpServer(report.dir, port);
+                }
+                started = report;
+            }
+            return started;
+        }
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    public Path getEventsFile() {
+        return dir.resolve(EVENTS_FILE);
+    }
+
+    @Override
+    public void accept(TestEvent event) {
+        if (failed) {
+            return;
+        }
+        // One write per line: APPEND writes from other forks can't interleave within it
+        ByteBuffer line = ByteBuffer.wrap((event.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+        } catch (IOException e) {
+            failed = true;
+            System.out.println("Could not write report, stopping: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to write
+        }
+    }
+
+    /**
+     * Serve the report directory, and target/ for artifact links, with Range support
+     */
+    public static HttpServer startHttpServer(final Path dir, int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+            final Path target = Paths.get("target");
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                serve(exchange, dir, path.equals("/") ? "index.html" : path.substring(1));
+            });
+            server.createContext("/target/", exchange ->
+                    serve(exchange, target, exchange.getRequestURI().getPath().substring("/target/".length())));
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "report-http");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            System.out.println("Test report: http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            return server;
+        } catch (IOException e) {
+            System.out.println("Could not start report endpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Whole file, or from the requested offset to the current end ("Range: bytes=N-")
+    private static void serve(HttpExchange exchange, Path base, String relative) throws IOException {
+        Path root = base.toAbsolutePath().normalize();
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long from = 0;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            Matcher matcher = range != null ? RANGE.matcher(range) : null;
+            if (matcher != null && matcher.matches()) {
+                from = Long.parseLong(matcher.group(1));
+                if (from >= size) {
+                    exchange.getResponseHeaders().set("Content-Range", "bytes */" + size);
+                    exchange.sendResponseHeaders(416, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + (size - 1) + "/" + size);
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType(file));
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            // Length 0 would mean chunked; -1 is an empty body
+            exchange.sendResponseHeaders(from > 0 ? 206 : 200, size > from ? size - from : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                WritableByteChannel sink = Channels.newChannel(out);
+                long position = from;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, sink);
+                }
+            }
+        }
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".log")) {
+            return "text/plain; charset=utf-8";
+        }
+        if (name.endsWith(".png")) {
+            return "image/png";
+        }
+        return "application/octet-stream";
+    }
+}
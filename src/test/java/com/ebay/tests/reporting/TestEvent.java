@@ -0,0 +1,170 @@
+package com.ebay.tests.reporting;
+
+import com.google.gson.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * TestEvent.java
+ * One thing that happened during a run, written to the report as one JSON line
+ *
+ *   run_started    count = tests planned
+ *   test_started   id, class, name
+ *   artifact       id, path (screenshot, trace...) of the running test
+ *   test_finished  id, class, name, status, ms, message
+ *   run_finished   count = tests finished, message = summary
+ *
+ * Every event carries time (epoch ms), fork (JVM pid) and thread, so lines
+ * from parallel classes and forked JVMs can share one file.
+ */
+public class TestEvent {
+
+    /**
+     * Event kinds, in the order a test produces them
+     */
+    public enum Type {
+        RUN_STARTED, TEST_STARTED, ARTIFACT, TEST_FINISHED, RUN_FINISHED
+    }
+
+    private static final String FORK = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+
+    private final Type type;
+    private final long time;
+    private final String thread;
+    private String testId;
+    private String className;
+    private String name;
+    private String status;
+    private long durationMs = -1;
+    private String message;
+    private String path;
+    private long count = -1;
+
+    private TestEvent(Type type) {
+        this.type = type;
+        this.time = System.currentTimeMillis();
+        this.thread = Thread.currentThread().getName();
+    }
+
+    public static TestEvent runStarted(long plannedTests) {
+        TestEvent event = new TestEvent(Type.RUN_STARTED);
+        event.count = plannedTests;
+        return event;
+    }
+
+    public static TestEvent testStarted(String testId, String className, String name) {
+        return test(Type.TEST_STARTED, testId, className, name);
+    }
+
+    /**
+     * @param status passed, failed, aborted or skipped
+     * @param message failure or skip reason, or null
+     */
+    public static TestEvent testFinished(String testId, String className, String name, String status,
+                                         long durationMs, String message) {
+        TestEvent event = test(Type.TEST_FINISHED, testId, className, name);
+        event.status = status;
+        event.durationMs = durationMs;
+        event.message = message;
+        return event;
+    }
+
+    public static TestEvent artifact(String testId, String path) {
+        TestEvent event = new TestEvent(Type.ARTIFACT);
+        event.testId = testId;
+        event.path = path;
+        return event;
+    }
+
+    public static TestEvent runFinished(long finishedTests, String summary) {
+        TestEvent event = new TestEvent(Type.RUN_FINISHED);
+        event.count = finishedTests;
+        event.message = summary;
+        return event;
+    }
+
+    private static TestEvent test(Type type, String testId, String className, String name) {
+        TestEvent event = new TestEvent(type);
+        event.testId = testId;
+        event.className = className;
+        event.name = name;
+        return event;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    // -1 unless TEST_FINISHED
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // -1 unless RUN_STARTED / RUN_FINISHED
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * One line of the report, without the trailing newline
+     */
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", type.name().toLowerCase(Locale.ROOT));
+        json.addProperty("time", time);
+        json.addProperty("fork", FORK);
+        json.addProperty("thread", thread);
+        add(json, "id", testId);
+        add(json, "class", className);
+        add(json, "name", name);
+        add(json, "status", status);
+        if (durationMs >= 0) {
+            json.addProperty("ms", durationMs);
+        }
+        add(json, "message", message);
+        add(json, "path", path);
+        if (count >= 0) {
+            json.addProperty("count", count);
+        }
+        return json.toString();
+    }
+
+    private static void add(JsonObject json, String key, String value) {
+        if (value != null) {
+            json.addProperty(key, value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
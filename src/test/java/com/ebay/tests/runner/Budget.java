@@ -0,0 +1,33 @@
+package com.ebay.tests.runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Budget.java
+ * Resource ceilings for a test, checked by BudgetRule (JUnit 4) and
+ * BudgetExtension (JUnit 5)
+ *
+ * On a class it applies to every test; a method-level value overrides the
+ * class value for that resource. -1 means no limit.
+ * Calls and wait time count Playwright calls made through page objects
+ * (InstrumentedPlaywright); bytes are bytes received over the network.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Budget {
+
+    // Wall time including setup and teardown
+    long wallMs() default -1;
+
+    // Page-object Playwright calls
+    int calls() default -1;
+
+    // Bytes received by pages created during the test
+    long bytes() default -1;
+
+    // Time spent in waitFor* calls
+    long waitMs() default -1;
+}
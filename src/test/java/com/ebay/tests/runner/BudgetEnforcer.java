@@ -0,0 +1,125 @@
+package com.ebay.tests.runner;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.metrics.ResourceMeter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BudgetEnforcer.java
+ * Checks a test's ResourceMeter usage against its @Budget
+ *
+ * -Dbudget.mode=fail  violations fail the test (default)
+ * -Dbudget.mode=warn  violations are only flagged as perf regressions
+ * -Dbudget.mode=off   no metering
+ * Every violation is appended to target/budgets/violations.log and counted
+ * in the budget_violations_total metric.
+ */
+public final class BudgetEnforcer {
+
+    private static final Path VIOLATIONS_LOG = Paths.get("target/budgets/violations.log");
+
+    private BudgetEnforcer() {
+    }
+
+    public static String getMode() {
+        return System.getProperty("budget.mode", "fail");
+    }
+
+    /**
+     * Method budget merged over the class budget, or null if neither has one
+     */
+    public static Budget resolve(final Budget classBudget, final Budget methodBudget) {
+        if (classBudget == null || methodBudget == null) {
+            return methodBudget != null ? methodBudget : classBudget;
+        }
+        return new Budget() {
+            @Override
+            public long wallMs() {
+                return methodBudget.wallMs() >= 0 ? methodBudget.wallMs() : classBudget.wallMs();
+            }
+
+            @Override
+            public int calls() {
+                return methodBudget.calls() >= 0 ? methodBudget.calls() : classBudget.calls();
+            }
+
+            @Override
+            public long bytes() {
+                return methodBudget.bytes() >= 0 ? methodBudget.bytes() : classBudget.bytes();
+            }
+
+            @Override
+            public long waitMs() {
+                return methodBudget.waitMs() >= 0 ? methodBudget.waitMs() : classBudget.waitMs();
+            }
+
+            @Override
+            public Class<Budget> annotationType() {
+                return Budget.class;
+            }
+        };
+    }
+
+    /**
+     * @return one line per exceeded limit, empty if within budget
+     */
+    public static List<String> violations(Budget budget, ResourceMeter.Usage usage) {
+        List<String> violations = new ArrayList<>();
+        check(violations, "wall", usage.getWallMs(), budget.wallMs(), "ms");
+        check(violations, "calls", usage.getCalls(), budget.calls(), "");
+        check(violations, "wait", usage.getWaitMs(), budget.waitMs(), "ms");
+        if (usage.isBytesMetered()) {
+            check(violations, "bytes", usage.getBytes(), budget.bytes(), "");
+        }
+        return violations;
+    }
+
+    /**
+     * Report violations; throws AssertionError in fail mode
+     * @param testId e.g. "MockRelatedProductsTest.testTC_002_ProductCount"
+     */
+    public static void enforce(String testId, Budget budget, ResourceMeter.Usage usage) {
+        List<String> violations = violations(budget, usage);
+        if (violations.isEmpty()) {
+            return;
+        }
+        for (String violation : violations) {
+            String resource = violation.substring(0, violation.indexOf(' '));
+            MetricsRegistry.getDefault().counter("budget_violations_total", "resource", resource).increment();
+        }
+        String message = "Perf budget exceeded in " + testId + ": " + String.join(", ", violations);
+        System.out.println("PERF REGRESSION: " + message);
+        log(message);
+
+        if ("fail".equals(getMode())) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static void check(List<String> violations, String resource, long used, long limit, String unit) {
+        if (limit >= 0 && used > limit) {
+            violations.add(resource + " " + used + unit + " > " + limit + unit);
+        }
+    }
+
+    private static synchronized void log(String message) {
+        try {
+            Files.createDirectories(VIOLATIONS_LOG.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(VIOLATIONS_LOG, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(message);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write budget log: " + e.getMessage());
+        }
+    }
+}
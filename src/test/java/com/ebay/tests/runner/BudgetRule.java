@@ -0,0 +1,44 @@
+package com.ebay.tests.runner;
+
+import com.ebay.tests.metrics.ResourceMeter;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * BudgetRule.java
+ * Enforces @Budget on JUnit 4 tests (see BudgetEnforcer)
+ *
+ * Metering covers @Before/@After too, so page objects created in setUp are
+ * attached. A test that already failed is reported as that failure, not as
+ * a budget violation.
+ *
+ * Declare it outside FailFastRule (lower @Rule order), so an overrun on a
+ * @Probe test fails that test only and is not taken for a broken fixture.
+ */
+public class BudgetRule implements TestRule {
+
+    @Override
+    public Statement apply(final Statement base, final Description description) {
+        final Budget budget = BudgetEnforcer.resolve(
+                description.getTestClass() != null ? description.getTestClass().getAnnotation(Budget.class) : null,
+                description.getAnnotation(Budget.class));
+        if (budget == null || "off".equals(BudgetEnforcer.getMode())) {
+            return base;
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                ResourceMeter.start();
+                ResourceMeter.Usage usage;
+                try {
+                    base.evaluate();
+                } finally {
+                    usage = ResourceMeter.stop();
+                }
+                System.out.println("Usage: " + usage);
+                BudgetEnforcer.enforce(PriorityOrdering.testId(description), budget, usage);
+            }
+        };
+    }
+}
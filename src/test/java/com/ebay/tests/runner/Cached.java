@@ -0,0 +1,25 @@
+package com.ebay.tests.runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cached.java
+ * Marks a hermetic test class whose passes can be reused while its inputs are
+ * unchanged (see ResultCache, ResultCacheRule, ResultCacheExtension)
+ *
+ * Only for tests that read nothing but local fixtures: a test against the
+ * live site can change result with no input changing.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached {
+
+    // Files the tests read, as globs relative to the project directory
+    String[] inputs() default {};
+
+    // System properties the tests read; a value naming a file adds its contents
+    String[] properties() default {};
+}
@@ -0,0 +1,82 @@
+package com.ebay.tests.runner;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FailFastRule.java
+ * Short-circuits tests whose precondition probe already failed
+ *
+ * A failing @Probe("x") test marks precondition "x" broken for the rest of
+ * the JVM run. Tests annotated @Requires("x") are then skipped before
+ * @Before runs, so no browser is launched and no timeout is waited out.
+ * Every outcome and duration is also written to TestHistoryStore for
+ * PriorityOrdering.
+ */
+public class FailFastRule implements TestRule {
+
+    // Broken precondition -> test that proved it broken
+    private static final Map<String, String> BROKEN_PRECONDITIONS = new ConcurrentHashMap<>();
+
+    private final TestHistoryStore history;
+
+    public FailFastRule() {
+        this(TestHistoryStore.getDefault());
+    }
+
+    public FailFastRule(TestHistoryStore history) {
+        this.history = history;
+    }
+
+    /**
+     * Forget broken preconditions (e.g. after fixing a fixture in a long-lived JVM)
+     */
+    public static void reset() {
+        BROKEN_PRECONDITIONS.clear();
+    }
+
+    @Override
+    public Statement apply(final Statement base, final Description description) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                checkPreconditions(description);
+
+                String testId = PriorityOrdering.testId(description);
+                long start = System.currentTimeMillis();
+                try {
+                    base.evaluate();
+                    history.record(testId, true, System.currentTimeMillis() - start);
+                } catch (AssumptionViolatedException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    history.record(testId, false, System.currentTimeMillis() - start);
+                    Probe probe = description.getAnnotation(Probe.class);
+                    if (probe != null) {
+                        BROKEN_PRECONDITIONS.putIfAbsent(probe.value(), description.getMethodName());
+                        System.out.println("Precondition '" + probe.value() + "' broken, dependent tests will be skipped");
+                    }
+                    throw t;
+                }
+            }
+        };
+    }
+
+    private void checkPreconditions(Description description) {
+        Requires requires = description.getAnnotation(Requires.class);
+        if (requires == null) {
+            return;
+        }
+        for (String precondition : requires.value()) {
+            String failedProbe = BROKEN_PRECONDITIONS.get(precondition);
+            if (failedProbe != null) {
+                throw new AssumptionViolatedException("Skipped: precondition '" + precondition
+                        + "' failed in " + failedProbe);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ebay.tests.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * FlakinessStore.java
+ * Local, file-backed flakiness scores per test
+ *
+ * The score is an exponential moving average where a run that only passed
+ * after a retry counts 1 and a clean pass counts 0. Hard failures are counted
+ * but do not move the score - they are real failures, not flakes.
+ * Lives outside target/ so it survives mvn clean; forked JVMs merge their
+ * updates into it through PropertiesFile.
+ */
+public class FlakinessStore {
+
+    public enum Outcome { PASSED, FLAKY, FAILED }
+
+    private static final String DEFAULT_PATH = ".flakiness/scores.properties";
+    private static final double ALPHA = 0.3;
+    private static final double QUARANTINE_SCORE = 0.5;
+    private static final int QUARANTINE_MIN_RUNS = 3;
+
+    private static FlakinessStore defaultStore;
+
+    private final Path file;
+    private final PropertiesFile store;
+    private final Properties scores = new Properties();
+
+    public FlakinessStore(Path file) {
+        this.file = file;
+        this.store = new PropertiesFile(file, "score,runs,flakes,failures");
+        load();
+    }
+
+    /**
+     * Store at -Dflakiness.store (default .flakiness/scores.properties)
+     */
+    public static synchronized FlakinessStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new FlakinessStore(Paths.get(System.getProperty("flakiness.store", DEFAULT_PATH)));
+        }
+        return defaultStore;
+    }
+
+    public synchronized void record(String testId, Outcome outcome) {
+        try {
+            store.update(scores, latest -> {
+                Entry entry = Entry.parse(latest.getProperty(testId));
+                entry.runs++;
+                switch (outcome) {
+                    case FLAKY:
+                        entry.flakes++;
+                        entry.score = ALPHA + (1 - ALPHA) * entry.score;
+                        break;
+                    case PASSED:
+                        entry.score = (1 - ALPHA) * entry.score;
+                        break;
+                    default:
+                        entry.failures++;
+                        break;
+                }
+                latest.setProperty(testId, entry.format());
+                return true;
+            });
+        } catch (IOException e) {
+            System.out.println("Could not write flakiness store: " + e.getMessage());
+        }
+    }
+
+    public synchronized double getScore(String testId) {
+        return get(testId).score;
+    }
+
+    /**
+     * Chronically flaky: high score over enough runs
+     */
+    public synchronized boolean isQuarantined(String testId) {
+        Entry entry = get(testId);
+        return entry.runs >= QUARANTINE_MIN_RUNS && entry.score >= QUARANTINE_SCORE;
+    }
+
+    private Entry get(String testId) {
+        return Entry.parse(scores.getProperty(testId));
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            scores.load(in);
+        } catch (IOException e) {
+            System.out.println("Could not read flakiness store: " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        double score;
+        int runs;
+        int flakes;
+        int failures;
+
+        static Entry parse(String value) {
+            Entry entry = new Entry();
+            if (value == null) {
+                return entry;
+            }
+            try {
+                String[] parts = value.split(",");
+                entry.score = Double.parseDouble(parts[0]);
+                entry.runs = Integer.parseInt(parts[1]);
+                entry.flakes = Integer.parseInt(parts[2]);
+                entry.failures = Integer.parseInt(parts[3]);
+            } catch (RuntimeException e) {
+                System.out.println("Ignoring bad flakiness entry: " + value);
+            }
+            return entry;
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%.4f,%d,%d,%d", score, runs, flakes, failures);
+        }
+    }
+}
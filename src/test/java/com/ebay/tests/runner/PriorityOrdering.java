@@ -0,0 +1,53 @@
+package com.ebay.tests.runner;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Ordering;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * PriorityOrdering.java
+ * Orders tests to minimise time-to-first-failure
+ *
+ * 1. @Probe tests first (cheap precondition checks)
+ * 2. then by failure probability / typical duration from TestHistoryStore
+ * 3. then by method name, so the order is stable on a fresh checkout
+ *
+ * Usage: @OrderWith(PriorityOrdering.Factory.class) on the test class
+ */
+public class PriorityOrdering extends Ordering {
+
+    private final TestHistoryStore history;
+
+    public PriorityOrdering(TestHistoryStore history) {
+        this.history = history;
+    }
+
+    @Override
+    protected List<Description> orderItems(Collection<Description> descriptions) {
+        List<Description> ordered = new ArrayList<>(descriptions);
+        Collections.sort(ordered, Comparator
+                .comparing((Description d) -> d.getAnnotation(Probe.class) == null)
+                .thenComparing(d -> -history.priority(testId(d)))
+                .thenComparing(d -> String.valueOf(d.getMethodName())));
+        return ordered;
+    }
+
+    static String testId(Description description) {
+        return description.getClassName() + "#" + description.getMethodName();
+    }
+
+    /**
+     * Factory referenced from @OrderWith
+     */
+    public static class Factory implements Ordering.Factory {
+
+        @Override
+        public Ordering create(Ordering.Context context) {
+            return new PriorityOrdering(TestHistoryStore.getDefault());
+        }
+    }
+}
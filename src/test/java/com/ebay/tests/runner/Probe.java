@@ -0,0 +1,20 @@
+package com.ebay.tests.runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Probe.java
+ * Marks a cheap, high-signal test that verifies a precondition
+ * Probes run first (PriorityOrdering); if one fails, every test that
+ * @Requires the same precondition is skipped by FailFastRule
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Probe {
+
+    // Precondition name, e.g. "product-page"
+    String value();
+}
@@ -0,0 +1,68 @@
+package com.ebay.tests.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+/**
+ * PropertiesFile.java
+ * A properties store written by several JVMs at once (forked test runs)
+ *
+ * update() holds an exclusive lock on a sibling ".lock" file while it
+ * re-reads the file, applies the change to what is on disk now and replaces
+ * the file atomically, so a JVM never overwrites entries another JVM wrote
+ * after it started. The lock is on a separate file because the data file
+ * itself is replaced on every write.
+ */
+class PropertiesFile {
+
+    private final Path file;
+    private final String comment;
+
+    PropertiesFile(Path file, String comment) {
+        this.file = file;
+        this.comment = comment;
+    }
+
+    /**
+     * Apply change to the latest contents and write them back
+     * @param properties in-memory copy, replaced with the merged contents
+     * @param change edits the latest contents; returns false to leave the file as is
+     */
+    void update(Properties properties, Predicate<Properties> change) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        // File locks are per process; the class monitor keeps two stores in one JVM apart
+        synchronized (PropertiesFile.class) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Properties latest = new Properties();
+                if (Files.exists(file)) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        latest.load(in);
+                    }
+                }
+                boolean changed = change.test(latest);
+                properties.clear();
+                properties.putAll(latest);
+                if (!changed) {
+                    return;
+                }
+                Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    latest.store(out, comment);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ebay.tests.runner;
+
+/**
+ * Quarantinable.java
+ * JUnit 4 category for classes using RetryRule, whose tests can be quarantined
+ * The quarantine lane (mvn test -Pquarantine-lane) runs only this category;
+ * QuarantineFilter then keeps the quarantined tests in it
+ */
+public interface Quarantinable {
+}
@@ -0,0 +1,46 @@
+package com.ebay.tests.runner;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * QuarantineFilter.java
+ * Drops tests outside the current flaky lane at discovery (see RetryRule)
+ *
+ * Registered through META-INF/services, so with -Dflaky.lane=main the
+ * quarantined tests are excluded from the plan, and with quarantine only they
+ * are left; classes and browsers for the other tests are never set up.
+ * RetryRule checks the lane again for runs outside the JUnit Platform.
+ */
+public class QuarantineFilter implements PostDiscoveryFilter {
+
+    private final FlakinessStore store;
+    private final String lane;
+
+    public QuarantineFilter() {
+        this(FlakinessStore.getDefault(), System.getProperty("flaky.lane", RetryRule.LANE_MAIN));
+    }
+
+    public QuarantineFilter(FlakinessStore store, String lane) {
+        this.store = store;
+        this.lane = lane;
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        TestSource source = descriptor.getSource().orElse(null);
+        if (!descriptor.isTest() || !(source instanceof MethodSource)) {
+            return FilterResult.included("not a test method");
+        }
+        MethodSource method = (MethodSource) source;
+        String testId = method.getClassName() + "#" + method.getMethodName();
+        boolean quarantined = store.isQuarantined(testId);
+        return RetryRule.runsInLane(lane, quarantined)
+                ? FilterResult.included(lane + " lane")
+                : FilterResult.excluded(quarantined ? "quarantined as flaky, runs in quarantine lane"
+                        : "not quarantined, runs in main lane");
+    }
+}
@@ -0,0 +1,263 @@
+package com.ebay.tests.runner;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.microsoft.playwright.Playwright;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ResultCache.java
+ * Local, file-backed cache of passing results for @Cached tests
+ *
+ * A pass is stored under a SHA-256 key of everything the test depends on:
+ *   - the test class bytecode (and its nested classes)
+ *   - all other compiled test code and resources (page objects, helpers, page-helpers.js...)
+ *   - the files named by @Cached(inputs), e.g. the mock fixtures
+ *   - the Playwright version, which pins the browser builds
+ *   - browser.server, device.profile, budget.mode and @Cached(properties)
+ * While the key is unchanged the test is reported as a cached pass without
+ * running @Before or launching a browser. Failures are never cached.
+ *
+ * -Dresult.cache=on (default) | verify | off. verify reruns every test and
+ * reports cached passes that no longer reproduce (an input missing from
+ * @Cached). Lives outside target/ so it survives mvn clean; forked JVMs
+ * merge their updates into it through PropertiesFile.
+ */
+public class ResultCache {
+
+    public enum Mode { ON, VERIFY, OFF }
+
+    private static final String DEFAULT_PATH = ".test-cache/results.properties";
+
+    // Settings that change what any browser test does
+    private static final String[] GLOBAL_PROPERTIES = {"browser.server", "device.profile", "budget.mode"};
+
+    private static ResultCache defaultStore;
+
+    private final Path file;
+    private final Path baseDir;
+    private final PropertiesFile store;
+    private final Properties results = new Properties();
+
+    // Test class -> hash of its code and inputs, computed once per run
+    private final Map<Class<?>, String> classKeys = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseDir directory @Cached(inputs) globs are relative to
+     */
+    public ResultCache(Path file, Path baseDir) {
+        this.file = file;
+        this.baseDir = baseDir;
+        this.store = new PropertiesFile(file, "testId=key of the last passing run");
+        load();
+    }
+
+    /**
+     * Store at -Dresult.cache.store (default .test-cache/results.properties)
+     */
+    public static synchronized ResultCache getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new ResultCache(Paths.get(System.getProperty("result.cache.store", DEFAULT_PATH)),
+                    Paths.get(""));
+        }
+        return defaultStore;
+    }
+
+    public static Mode getMode() {
+        try {
+            return Mode.valueOf(System.getProperty("result.cache", "on").trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown result.cache mode: " + System.getProperty("result.cache"));
+        }
+    }
+
+    /**
+     * Cache key for one test, or null if the class is not @Cached
+     * @param testName method name, plus the invocation for parameterized tests
+     */
+    public String key(Class<?> testClass, String testName) {
+        Cached cached = testClass.getAnnotation(Cached.class);
+        if (cached == null) {
+            return null;
+        }
+        String classKey = classKeys.computeIfAbsent(testClass, type -> classKey(type, cached));
+        return hex(sha256().digest((classKey + "\n" + testName).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * True if the test passed last time with this key (always false outside ON mode)
+     */
+    public synchronized boolean isCachedPass(String testId, String key) {
+        boolean hit = getMode() == Mode.ON && key != null && key.equals(results.getProperty(testId));
+        MetricsRegistry.getDefault().counter("result_cache_total", "outcome", hit ? "hit" : "miss").increment();
+        return hit;
+    }
+
+    /**
+     * Store a pass under its key, or forget the test after a failure
+     */
+    public synchronized void record(String testId, String key, boolean passed) {
+        if (getMode() == Mode.OFF || key == null) {
+            return;
+        }
+        try {
+            store.update(results, latest -> {
+                String previous = latest.getProperty(testId);
+                if (passed) {
+                    if (key.equals(previous)) {
+                        return false;
+                    }
+                    latest.setProperty(testId, key);
+                } else {
+                    if (previous == null) {
+                        return false;
+                    }
+                    if (key.equals(previous)) {
+                        // Same inputs, different result: the test reads something @Cached doesn't declare
+                        MetricsRegistry.getDefault().counter("result_cache_total", "outcome", "stale").increment();
+                        System.out.println("Cached pass not reproduced: " + testId + " (input missing from @Cached?)");
+                    }
+                    latest.remove(testId);
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            System.out.println("Could not write result cache: " + e.getMessage());
+        }
+    }
+
+    private String classKey(Class<?> testClass, Cached cached) {
+        MessageDigest digest = sha256();
+        update(digest, "playwright " + playwrightVersion());
+        for (String property : GLOBAL_PROPERTIES) {
+            updateProperty(digest, property);
+        }
+        for (String property : cached.properties()) {
+            updateProperty(digest, property);
+        }
+        for (String glob : cached.inputs()) {
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            Path dir = baseDir.resolve(fixedPrefix(glob));
+            for (Path input : files(dir, path -> matcher.matches(baseDir.relativize(path)))) {
+                updateFile(digest, baseDir.relativize(input).toString(), input);
+            }
+        }
+
+        // Test classes of the same package are unrelated tests; everything else is shared code
+        Path root = codeRoot(testClass);
+        Package pkg = testClass.getPackage();
+        Path testPackage = root.resolve(pkg != null ? pkg.getName().replace('.', '/') : "");
+        String topLevel = testClass.getName().substring(testClass.getName().lastIndexOf('.') + 1).split("\\$")[0];
+        String own = topLevel + ".class";
+        String nested = topLevel + "$";
+        for (Path code : files(root, path -> !path.getParent().equals(testPackage)
+                || path.getFileName().toString().equals(own) || path.getFileName().toString().startsWith(nested))) {
+            updateFile(digest, root.relativize(code).toString(), code);
+        }
+        return hex(digest.digest());
+    }
+
+    // Leading directories of a glob, so only they are walked ("src/test/resources" for "src/test/resources/*.html")
+    private static String fixedPrefix(String glob) {
+        StringBuilder prefix = new StringBuilder();
+        for (String segment : glob.split("/")) {
+            if (segment.matches(".*[*?\\[{].*")) {
+                break;
+            }
+            prefix.append(prefix.length() > 0 ? "/" : "").append(segment);
+        }
+        return prefix.toString();
+    }
+
+    private static Path codeRoot(Class<?> testClass) {
+        try {
+            return Paths.get(testClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Exception e) {
+            throw new RuntimeException("Cannot locate code of " + testClass.getName(), e);
+        }
+    }
+
+    // Regular files under dir accepted by filter, in a stable order
+    private static List<Path> files(Path dir, Predicate<Path> filter) {
+        if (!Files.isDirectory(dir)) {
+            return Files.isRegularFile(dir) ? Collections.singletonList(dir) : Collections.emptyList();
+        }
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).filter(filter).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot hash " + dir, e);
+        }
+    }
+
+    private static void updateProperty(MessageDigest digest, String property) {
+        String value = System.getProperty(property, "");
+        update(digest, property + "=" + value);
+        if (!value.isEmpty() && Files.isRegularFile(Paths.get(value))) {
+            updateFile(digest, value, Paths.get(value));
+        }
+    }
+
+    private static void updateFile(MessageDigest digest, String name, Path path) {
+        update(digest, name.replace('\\', '/'));
+        try {
+            digest.update(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot hash " + path, e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String playwrightVersion() {
+        Package pkg = Playwright.class.getPackage();
+        String version = pkg != null ? pkg.getImplementationVersion() : null;
+        return version != null ? version : "unknown";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder out = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            out.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return out.toString();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            results.load(in);
+        } catch (IOException e) {
+            System.out.println("Could not read result cache: " + e.getMessage());
+        }
+    }
+}
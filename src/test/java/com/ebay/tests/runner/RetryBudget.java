@@ -0,0 +1,49 @@
+package com.ebay.tests.runner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RetryBudget.java
+ * Caps the total wall time spent on reruns in one JVM run
+ * Configure with -Dretry.budget.ms (default 120000)
+ */
+public class RetryBudget {
+
+    private static final long DEFAULT_BUDGET_MS = 120000;
+
+    private static final RetryBudget RUN_BUDGET =
+            new RetryBudget(Long.getLong("retry.budget.ms", DEFAULT_BUDGET_MS));
+
+    private final long budgetMs;
+    private final AtomicLong spentMs = new AtomicLong();
+
+    public RetryBudget(long budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    /**
+     * Budget shared by every RetryRule in this JVM
+     */
+    public static RetryBudget forRun() {
+        return RUN_BUDGET;
+    }
+
+    /**
+     * Check whether a retry expected to take estimateMs still fits
+     */
+    public boolean canAfford(long estimateMs) {
+        return spentMs.get() + Math.max(1, estimateMs) <= budgetMs;
+    }
+
+    public void charge(long elapsedMs) {
+        spentMs.addAndGet(elapsedMs);
+    }
+
+    public long getSpentMs() {
+        return spentMs.get();
+    }
+
+    public long getRemainingMs() {
+        return Math.max(0, budgetMs - spentMs.get());
+    }
+}
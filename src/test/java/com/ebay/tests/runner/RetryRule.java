@@ -0,0 +1,119 @@
+package com.ebay.tests.runner;
+
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * RetryRule.java
+ * Reruns failed tests and keeps chronically flaky ones off the critical path
+ *
+ * The rule wraps @Before/@After, so each attempt goes through setUp again and
+ * picks up a fresh context from the class's BrowserContextPool.
+ *
+ * Lanes (-Dflaky.lane):
+ *   main       - default; quarantined tests are skipped
+ *   quarantine - only quarantined tests run (mvn test -Pquarantine-lane)
+ *   all        - everything runs
+ *
+ * QuarantineFilter applies the same lanes at discovery on the JUnit Platform;
+ * classes using this rule belong to the Quarantinable category.
+ *
+ * Attempts: -Dretry.max.attempts (default 2). Total rerun time per run is
+ * capped by RetryBudget.
+ */
+public class RetryRule implements TestRule {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 2;
+    static final String LANE_MAIN = "main";
+    static final String LANE_QUARANTINE = "quarantine";
+
+    private final int maxAttempts;
+    private final RetryBudget budget;
+    private final FlakinessStore store;
+    private final String lane;
+
+    public RetryRule() {
+        this(Integer.getInteger("retry.max.attempts", DEFAULT_MAX_ATTEMPTS),
+                RetryBudget.forRun(),
+                FlakinessStore.getDefault(),
+                System.getProperty("flaky.lane", LANE_MAIN));
+    }
+
+    public RetryRule(int maxAttempts, RetryBudget budget, FlakinessStore store, String lane) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.budget = budget;
+        this.store = store;
+        this.lane = lane;
+    }
+
+    @Override
+    public Statement apply(final Statement base, final Description description) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                String testId = description.getClassName() + "#" + description.getMethodName();
+                checkLane(testId);
+                runWithRetries(base, testId);
+            }
+        };
+    }
+
+    private void checkLane(String testId) {
+        boolean quarantined = store.isQuarantined(testId);
+        if (LANE_MAIN.equals(lane) && quarantined) {
+            throw new AssumptionViolatedException("Quarantined as flaky (score "
+                    + String.format("%.2f", store.getScore(testId)) + "), runs in quarantine lane");
+        }
+        if (LANE_QUARANTINE.equals(lane) && !quarantined) {
+            throw new AssumptionViolatedException("Not quarantined, runs in main lane");
+        }
+    }
+
+    // Whether a test with this quarantine state belongs to lane
+    static boolean runsInLane(String lane, boolean quarantined) {
+        if (LANE_MAIN.equals(lane)) {
+            return !quarantined;
+        }
+        return !LANE_QUARANTINE.equals(lane) || quarantined;
+    }
+
+    private void runWithRetries(Statement base, String testId) throws Throwable {
+        Throwable firstFailure = null;
+
+        for (int attempt = 1; ; attempt++) {
+            long start = System.currentTimeMillis();
+            try {
+                base.evaluate();
+                store.record(testId, firstFailure == null
+                        ? FlakinessStore.Outcome.PASSED
+                        : FlakinessStore.Outcome.FLAKY);
+                if (firstFailure != null) {
+                    System.out.println("FLAKY: " + testId + " passed on attempt " + attempt);
+                }
+                return;
+            } catch (AssumptionViolatedException e) {
+                throw e;
+            } catch (Throwable t) {
+                long elapsed = System.currentTimeMillis() - start;
+                if (attempt > 1) {
+                    budget.charge(elapsed);
+                }
+                if (firstFailure == null) {
+                    firstFailure = t;
+                }
+
+                if (attempt >= maxAttempts || !budget.canAfford(elapsed)) {
+                    store.record(testId, FlakinessStore.Outcome.FAILED);
+                    if (attempt < maxAttempts) {
+                        System.out.println("Retry budget exhausted (" + budget.getSpentMs() + "ms spent)");
+                    }
+                    throw firstFailure;
+                }
+                System.out.println("Retrying " + testId + " (attempt " + (attempt + 1) + "/" + maxAttempts
+                        + ", budget left " + budget.getRemainingMs() + "ms)");
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ebay.tests.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * TestHistoryStore.java
+ * Local, file-backed run history per test: runs, failures, typical duration
+ * Used by PriorityOrdering to put likely failures and cheap tests first;
+ * forked JVMs merge their updates into it through PropertiesFile
+ */
+public class TestHistoryStore {
+
+    private static final String DEFAULT_PATH = ".test-history/history.properties";
+    private static final double DURATION_ALPHA = 0.3;
+    private static final long UNKNOWN_DURATION_MS = 1000;
+
+    private static TestHistoryStore defaultStore;
+
+    private final Path file;
+    private final PropertiesFile store;
+    private final Properties history = new Properties();
+
+    public TestHistoryStore(Path file) {
+        this.file = file;
+        this.store = new PropertiesFile(file, "runs,failures,durationMs");
+        load();
+    }
+
+    /**
+     * Store at -Dtest.history.store (default .test-history/history.properties)
+     */
+    public static synchronized TestHistoryStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new TestHistoryStore(Paths.get(System.getProperty("test.history.store", DEFAULT_PATH)));
+        }
+        return defaultStore;
+    }
+
+    public synchronized void record(String testId, boolean passed, long durationMs) {
+        try {
+            store.update(history, latest -> {
+                Entry entry = Entry.parse(latest.getProperty(testId));
+                entry.durationMs = entry.runs == 0
+                        ? durationMs
+                        : DURATION_ALPHA * durationMs + (1 - DURATION_ALPHA) * entry.durationMs;
+                entry.runs++;
+                if (!passed) {
+                    entry.failures++;
+                }
+                latest.setProperty(testId, entry.format());
+                return true;
+            });
+        } catch (IOException e) {
+            System.out.println("Could not write test history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Failure probability with a Laplace prior, so unseen tests start at 0.5
+     */
+    public synchronized double failureProbability(String testId) {
+        Entry entry = get(testId);
+        return (entry.failures + 1.0) / (entry.runs + 2.0);
+    }
+
+    public synchronized double averageDurationMs(String testId) {
+        Entry entry = get(testId);
+        return entry.runs == 0 ? UNKNOWN_DURATION_MS : Math.max(1, entry.durationMs);
+    }
+
+    /**
+     * Expected failures found per second spent running the test
+     */
+    public synchronized double priority(String testId) {
+        return failureProbability(testId) / averageDurationMs(testId);
+    }
+
+    private Entry get(String testId) {
+        return Entry.parse(history.getProperty(testId));
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            history.load(in);
+        } catch (IOException e) {
+            System.out.println("Could not read test history: " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        int runs;
+        int failures;
+        double durationMs;
+
+        static Entry parse(String value) {
+            Entry entry = new Entry();
+            if (value == null) {
+                return entry;
+            }
+            try {
+                String[] parts = value.split(",");
+                entry.runs = Integer.parseInt(parts[0]);
+                entry.failures = Integer.parseInt(parts[1]);
+                entry.durationMs = Double.parseDouble(parts[2]);
+            } catch (RuntimeException e) {
+                System.out.println("Ignoring bad history entry: " + value);
+            }
+            return entry;
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%d,%d,%.1f", runs, failures, durationMs);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.AccessibilityAudit;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Page;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * AccessibilityAuditTest.java
+ * Unit tests for widget accessibility checks and their DOM-hash cache (no browser needed)
+ */
+public class AccessibilityAuditTest {
+
+    private static final String CONTAINER = ".related-products-container";
+
+    // CDP methods sent, in order
+    private final List<String> sent = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        AccessibilityAudit.clearCache();
+    }
+
+    private static AccessibilityAudit.Node node(String role, String name) {
+        return new AccessibilityAudit.Node(role, name, 0);
+    }
+
+    private static AccessibilityAudit.Node heading(int level, String name) {
+        return new AccessibilityAudit.Node("heading", name, level);
+    }
+
+    @Test
+    public void testCleanWidget() {
+        AccessibilityAudit audit = new AccessibilityAudit(Arrays.asList(
+                heading(2, "You might also like"),
+                node("image", "Card Holder Wallet"), node("link", "Card Holder RFID Wallet"),
+                node("image", "Slim Money Clip"), node("link", "Slim Money Clip Wallet")));
+        assertTrue(audit.isAvailable());
+        assertFalse(audit.toString(), audit.hasIssues());
+        assertEquals(2, audit.count("link"));
+    }
+
+    @Test
+    public void testCardLinkImageAndHeadingIssues() {
+        AccessibilityAudit audit = new AccessibilityAudit(Arrays.asList(
+                heading(2, "Similar items"),
+                heading(4, ""),
+                node("img", ""), node("link", ""),
+                node("image", "Wallet"), node("link", "See more")));
+        assertEquals(audit.toString(), 1, audit.getIssueCount(AccessibilityAudit.Issue.LINK_WITHOUT_NAME));
+        assertEquals(1, audit.getIssueCount(AccessibilityAudit.Issue.GENERIC_LINK_NAME));
+        assertEquals(1, audit.getIssueCount(AccessibilityAudit.Issue.IMAGE_WITHOUT_ALT));
+        assertEquals(1, audit.getIssueCount(AccessibilityAudit.Issue.EMPTY_HEADING));
+        assertEquals(1, audit.getIssueCount(AccessibilityAudit.Issue.SKIPPED_HEADING_LEVEL));
+        assertEquals(0, audit.getIssueCount(AccessibilityAudit.Issue.NO_HEADING));
+    }
+
+    @Test
+    public void testWidgetWithoutHeading() {
+        AccessibilityAudit audit = new AccessibilityAudit(Arrays.asList(node("link", "Wallet")));
+        assertEquals(1, audit.getIssueCount(AccessibilityAudit.Issue.NO_HEADING));
+    }
+
+    @Test
+    public void testParseSkipsIgnoredNodes() {
+        List<AccessibilityAudit.Node> nodes = AccessibilityAudit.parse(tree());
+        assertEquals(2, nodes.size());
+        assertEquals("heading", nodes.get(0).getRole());
+        assertEquals(2, nodes.get(0).getLevel());
+        assertEquals("Card Holder RFID Wallet", nodes.get(1).getName());
+    }
+
+    @Test
+    public void testSameMarkupIsFetchedOnce() {
+        Page page = stubPage();
+        AccessibilityAudit first = AccessibilityAudit.forContainer(page, CONTAINER, "1200:abc");
+        int calls = sent.size();
+        assertEquals(Arrays.asList("DOM.getDocument", "DOM.querySelector", "Accessibility.queryAXTree"), sent);
+
+        AccessibilityAudit second = AccessibilityAudit.forContainer(page, CONTAINER, "1200:abc");
+        assertSame(first, second);
+        assertEquals("Cached audit must not touch the browser", calls, sent.size());
+
+        AccessibilityAudit.forContainer(page, CONTAINER, "1300:def");
+        assertEquals(2 * calls, sent.size());
+    }
+
+    @Test
+    public void testUnavailableWithoutCdp() {
+        Page page = PlaywrightStubs.page((method, args) -> {
+            throw new UnsupportedOperationException("CDP session is only available in Chromium");
+        });
+        AccessibilityAudit audit = AccessibilityAudit.forContainer(page, CONTAINER, "1:1");
+        assertFalse(audit.isAvailable());
+        assertFalse(audit.hasIssues());
+    }
+
+    // queryAXTree result: an ignored generic wrapper, a heading and a link
+    private static JsonObject tree() {
+        JsonArray nodes = new JsonArray();
+        JsonObject ignored = axNode("generic", "");
+        ignored.addProperty("ignored", true);
+        nodes.add(ignored);
+
+        JsonObject heading = axNode("heading", "You might also like");
+        JsonObject level = new JsonObject();
+        level.addProperty("name", "level");
+        JsonObject value = new JsonObject();
+        value.addProperty("type", "integer");
+        value.addProperty("value", 2);
+        level.add("value", value);
+        JsonArray properties = new JsonArray();
+        properties.add(level);
+        heading.add("properties", properties);
+        nodes.add(heading);
+
+        nodes.add(axNode("link", "Card Holder RFID Wallet"));
+        JsonObject result = new JsonObject();
+        result.add("nodes", nodes);
+        return result;
+    }
+
+    private static JsonObject axNode(String role, String name) {
+        JsonObject node = new JsonObject();
+        node.addProperty("ignored", false);
+        JsonObject roleValue = new JsonObject();
+        roleValue.addProperty("type", "role");
+        roleValue.addProperty("value", role);
+        node.add("role", roleValue);
+        JsonObject nameValue = new JsonObject();
+        nameValue.addProperty("type", "computedString");
+        nameValue.addProperty("value", name);
+        node.add("name", nameValue);
+        return node;
+    }
+
+    private Page stubPage() {
+        return PlaywrightStubs.cdpPage((method, args) -> {
+            sent.add(method);
+            JsonObject result = new JsonObject();
+            switch (method) {
+                case "DOM.getDocument":
+                    JsonObject root = new JsonObject();
+                    root.addProperty("nodeId", 1);
+                    result.add("root", root);
+                    return result;
+                case "DOM.querySelector":
+                    result.addProperty("nodeId", 7);
+                    return result;
+                default:
+                    return tree();
+            }
+        });
+    }
+}
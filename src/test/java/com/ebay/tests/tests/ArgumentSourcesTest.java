@@ -0,0 +1,40 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.extension.CorpusSource;
+import com.ebay.tests.extension.FixtureSource;
+import com.ebay.tests.extension.ItemIdSource;
+import com.ebay.tests.utils.ItemIds;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ArgumentSourcesTest.java
+ * Unit tests for the JUnit 5 argument sources (no browser needed)
+ */
+public class ArgumentSourcesTest {
+
+    @ParameterizedTest
+    @ItemIdSource({"314710838801", "123456789"})
+    public void testItemIdsBecomeItemUrls(String itemUrl) {
+        assertTrue(itemUrl.contains("/itm/"), itemUrl);
+        assertNotEquals(ItemIds.NO_ID, ItemIds.parse(itemUrl));
+    }
+
+    @ParameterizedTest
+    @FixtureSource
+    public void testFixturesAreMockHtmlFiles(Path fixture) {
+        assertTrue(Files.isRegularFile(fixture));
+        assertTrue(fixture.getFileName().toString().startsWith("mock_ebay_"));
+    }
+
+    @ParameterizedTest
+    @CorpusSource
+    public void testCorpusPagesMatchLooseFixtures(String fixture, String html) throws Exception {
+        Path loose = Paths.get("src/test/resources", fixture);
+        assertEquals(new String(Files.readAllBytes(loose), StandardCharsets.UTF_8), html);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.browser.BrowserContextPool;
+import com.ebay.tests.browser.BrowserLifecycleManager;
+import com.ebay.tests.browser.BrowserServer;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BrowserRecycleTest.java
+ * Unit tests for memory-based browser recycling with stubbed browsers (no browser needed)
+ */
+public class BrowserRecycleTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testLeasedPageOverHeapLimitRecyclesOnNextIdleAcquire() {
+        BrowserLifecycleManager lifecycle = new BrowserLifecycleManager(Long.MAX_VALUE, 64 * MB, 0);
+        AtomicInteger launches = new AtomicInteger();
+        List<Browser> browsers = new ArrayList<>();
+        BrowserServer server = new BrowserServer(() -> {
+            launches.incrementAndGet();
+            Browser browser = browser(lifecycle, 512 * MB);
+            browsers.add(browser);
+            return browser;
+        }, lifecycle, 500);
+        BrowserContextPool pool = new BrowserContextPool(server, 0);
+
+        BrowserContext context = pool.acquire();
+        assertEquals("The page is tracked while leased", 1, lifecycle.getOpenPageCount());
+        assertFalse("Nothing sampled yet", server.needsRecycle());
+        pool.release(context);
+        assertEquals("Closing the context closes its page", 0, lifecycle.getOpenPageCount());
+        assertTrue("Heap was sampled before the context closed", server.needsRecycle());
+
+        pool.acquire();
+        assertEquals("Idle acquire restarts the browser", 2, launches.get());
+        assertEquals(1, server.getRecycleCount());
+        assertSame(browsers.get(1), server.getBrowser());
+        assertFalse("A new browser starts without a sample", server.needsRecycle());
+    }
+
+    // Browser whose contexts each open one tracked page using heapBytes of JS heap
+    private static Browser browser(BrowserLifecycleManager lifecycle, long heapBytes) {
+        Browser[] self = new Browser[1];
+        self[0] = PlaywrightStubs.stub(Browser.class, (method, args) -> {
+            switch (method) {
+                case "isConnected":
+                    return true;
+                case "newContext":
+                    BrowserContext context = context(self[0], heapBytes);
+                    lifecycle.track(context.newPage());
+                    return context;
+                case "newBrowserCDPSession":
+                    throw new IllegalStateException("No browser session");
+                default:
+                    return null;
+            }
+        });
+        return self[0];
+    }
+
+    private static BrowserContext context(Browser browser, long heapBytes) {
+        List<Consumer<BrowserContext>> closeHandlers = new ArrayList<>();
+        List<Consumer<Page>> pageCloseHandlers = new ArrayList<>();
+        CDPSession session = PlaywrightStubs.stub(CDPSession.class, (method, args) ->
+                method.equals("send") && "Performance.getMetrics".equals(args[0])
+                        ? JsonParser.parseString("{\"metrics\":[{\"name\":\"JSHeapUsedSize\",\"value\":"
+                        + heapBytes + "}]}").getAsJsonObject()
+                        : null);
+        BrowserContext[] self = new BrowserContext[1];
+        Page page = PlaywrightStubs.page((method, args) -> {
+            switch (method) {
+                case "context":
+                    return self[0];
+                case "isClosed":
+                    return false;
+                case "onClose":
+                    pageCloseHandlers.add(cast(args[0]));
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        self[0] = PlaywrightStubs.stub(BrowserContext.class, (method, args) -> {
+            switch (method) {
+                case "browser":
+                    return browser;
+                case "newPage":
+                    return page;
+                case "newCDPSession":
+                    return session;
+                case "onClose":
+                    closeHandlers.add(cast(args[0]));
+                    return null;
+                case "close":
+                    for (Consumer<Page> handler : new ArrayList<>(pageCloseHandlers)) {
+                        handler.accept(page);
+                    }
+                    for (Consumer<BrowserContext> handler : new ArrayList<>(closeHandlers)) {
+                        handler.accept(self[0]);
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        return self[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> cast(Object handler) {
+        return (Consumer<T>) handler;
+    }
+}
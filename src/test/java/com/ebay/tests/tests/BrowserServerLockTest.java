@@ -0,0 +1,40 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.browser.BrowserServerLock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BrowserServerLockTest.java
+ * Unit tests for coordinating a shared browser server between JVMs (no browser needed)
+ */
+public class BrowserServerLockTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestartWaitsUntilNothingIsInUse() {
+        BrowserServerLock lock = new BrowserServerLock(folder.getRoot().toPath().resolve("browser-server.lock"));
+        AtomicInteger restarts = new AtomicInteger();
+
+        lock.enterUse();
+        lock.enterUse();
+        assertFalse(lock.ifIdle(restarts::incrementAndGet));
+        lock.exitUse();
+        assertFalse("Still one use left in this JVM", lock.ifIdle(restarts::incrementAndGet));
+        lock.exitUse();
+        assertTrue(lock.ifIdle(restarts::incrementAndGet));
+        assertEquals(1, restarts.get());
+
+        // A restart may start the server again under the start lock
+        assertTrue(lock.ifIdle(() -> lock.whileStarting(restarts::incrementAndGet)));
+        assertEquals(2, restarts.get());
+        lock.exitUse();
+        lock.enterUse();
+        assertFalse("Unbalanced exitUse is ignored", lock.ifIdle(restarts::incrementAndGet));
+    }
+}
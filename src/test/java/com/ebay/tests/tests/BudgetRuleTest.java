@@ -0,0 +1,73 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.ebay.tests.runner.Budget;
+import com.ebay.tests.runner.BudgetRule;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import static org.junit.Assert.*;
+
+/**
+ * BudgetRuleTest.java
+ * Unit tests for per-test resource budgets (no browser needed)
+ */
+public class BudgetRuleTest {
+
+    /**
+     * Run by the tests below through JUnitCore
+     */
+    @Budget(calls = 5)
+    public static class SampleSuite {
+
+        @Rule
+        public BudgetRule budgetRule = new BudgetRule();
+
+        private final RelatedProductsPage relatedPage = new RelatedProductsPage(PlaywrightStubs.titledPage());
+
+        @Test
+        public void withinBudget() {
+            for (int i = 0; i < 5; i++) {
+                relatedPage.getPageTitle();
+            }
+        }
+
+        @Test
+        public void chattyLoop() {
+            for (int i = 0; i < 6; i++) {
+                relatedPage.getPageTitle();
+            }
+        }
+
+        @Test
+        @Budget(calls = 10)
+        public void methodBudgetOverridesClass() {
+            for (int i = 0; i < 6; i++) {
+                relatedPage.getPageTitle();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("budget.mode");
+    }
+
+    @Test
+    public void testCallBudgetFailsOnlyTheChattyTest() {
+        Result result = JUnitCore.runClasses(SampleSuite.class);
+
+        assertEquals(3, result.getRunCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals("chattyLoop", result.getFailures().get(0).getDescription().getMethodName());
+        assertTrue(result.getFailures().get(0).getMessage().contains("calls 6 > 5"));
+    }
+
+    @Test
+    public void testWarnModeOnlyFlagsRegression() {
+        System.setProperty("budget.mode", "warn");
+        assertTrue(JUnitCore.runClasses(SampleSuite.class).wasSuccessful());
+    }
+}
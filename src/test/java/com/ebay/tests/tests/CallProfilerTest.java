@@ -0,0 +1,38 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.CallProfiler;
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.regex.Pattern;
+
+/**
+ * CallProfilerTest.java
+ * Unit tests for collapsed-stack profiling of Playwright calls (no browser needed)
+ */
+public class CallProfilerTest {
+
+    @Test
+    public void testCallsAreCollapsedUnderTestAndPageObjectFrames() {
+        Page stub = PlaywrightStubs.titledPage();
+
+        CallProfiler profiler = new CallProfiler();
+        InstrumentedPlaywright.addListener(profiler);
+        try {
+            RelatedProductsPage page = new RelatedProductsPage(stub);
+            page.getPageTitle();
+            page.getPageTitle();
+        } finally {
+            InstrumentedPlaywright.removeListener(profiler);
+        }
+
+        String stack = "CallProfilerTest.testCallsAreCollapsedUnderTestAndPageObjectFrames;"
+                + "BasePage.getPageTitle;Page.title";
+        System.out.println(profiler.getCollapsedLines());
+        assertEquals(2, profiler.getCallCount(stack));
+        assertTrue(profiler.getCollapsedLines().get(0).matches(
+                Pattern.quote(stack) + " \\d+"));
+    }
+}
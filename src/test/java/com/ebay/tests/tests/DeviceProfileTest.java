@@ -0,0 +1,78 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.browser.DeviceProfile;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DeviceProfileTest.java
+ * Unit tests for device profiles and the CDP throttling they send (no browser needed)
+ */
+public class DeviceProfileTest {
+
+    // CDP method -> params, in the order sent
+    private final Map<String, JsonObject> sent = new LinkedHashMap<>();
+
+    private Page stubPage() {
+        return PlaywrightStubs.cdpPage((method, args) -> {
+            sent.put(method, args.length > 1 ? (JsonObject) args[1] : null);
+            return null;
+        });
+    }
+
+    @Test
+    public void testProfilesByName() {
+        assertSame(DeviceProfile.MOBILE_3G, DeviceProfile.fromName("mobile-3g"));
+        assertSame(DeviceProfile.LOW_END_3G, DeviceProfile.fromName("LOW_END_3G"));
+        assertEquals("mobile-4g", DeviceProfile.MOBILE_4G.getLabel());
+        assertFalse(DeviceProfile.MOBILE.isThrottled());
+        assertTrue(DeviceProfile.MOBILE_3G.isThrottled());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnknownProfileIsRejected() {
+        DeviceProfile.fromName("pager");
+    }
+
+    @Test
+    public void testContextOptionsEmulateDevice() {
+        Browser.NewContextOptions options = DeviceProfile.MOBILE_4G.contextOptions(null);
+        assertEquals(375, options.viewportSize.get().width);
+        assertEquals(667, options.viewportSize.get().height);
+        assertEquals(Double.valueOf(2.0), options.deviceScaleFactor);
+        assertEquals(Boolean.TRUE, options.isMobile);
+        assertEquals(Boolean.TRUE, options.hasTouch);
+    }
+
+    @Test
+    public void testThrottleSendsNetworkAndCpuConditions() {
+        DeviceProfile.MOBILE_3G.throttle(stubPage());
+
+        JsonObject network = sent.get("Network.emulateNetworkConditions");
+        assertEquals(563, network.get("latency").getAsInt());
+        assertEquals(1_440 * 1000 / 8, network.get("downloadThroughput").getAsInt());
+        assertEquals(675 * 1000 / 8, network.get("uploadThroughput").getAsInt());
+        assertEquals(4.0, sent.get("Emulation.setCPUThrottlingRate").get("rate").getAsDouble(), 0);
+    }
+
+    @Test
+    public void testApplySetsDeviceMetricsBeforeThrottling() {
+        DeviceProfile.LOW_END_3G.apply(stubPage());
+
+        assertEquals(360, sent.get("Emulation.setDeviceMetricsOverride").get("width").getAsInt());
+        assertTrue(sent.get("Emulation.setDeviceMetricsOverride").get("mobile").getAsBoolean());
+        assertEquals("Emulation.setDeviceMetricsOverride", sent.keySet().iterator().next());
+        assertTrue(sent.containsKey("Emulation.setCPUThrottlingRate"));
+    }
+
+    @Test
+    public void testUnthrottledProfileSendsNoConditions() {
+        DeviceProfile.DESKTOP.throttle(stubPage());
+        assertTrue(sent.isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.DomSnapshot;
+import com.ebay.tests.pages.DomSnapshot.Node;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DomSnapshotTest.java
+ * Unit tests for the Merkle-hashed widget snapshot and its differ (no browser needed)
+ */
+public class DomSnapshotTest {
+
+    private static Map<String, String> attrs(String... pairs) {
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            attributes.put(pairs[i], pairs[i + 1]);
+        }
+        return attributes;
+    }
+
+    private static Node element(String tag, String text, Node... children) {
+        return new Node(tag, attrs(), text, Arrays.asList(children), null, null);
+    }
+
+    private static Node card(long id, String title, String price) {
+        List<Node> parts = Arrays.asList(
+                new Node("img", attrs("alt", title, "src", "/img/" + id + ".jpg"), "", Collections.<Node>emptyList(),
+                        null, null),
+                new Node("a", attrs("href", "/itm/" + id), title, Collections.<Node>emptyList(), null, null),
+                new Node("span", attrs("class", "price"), price, Collections.<Node>emptyList(), null, null));
+        return new Node("div", attrs("class", "product-card"), "", parts, String.valueOf(id), price);
+    }
+
+    // Container with a heading and the cards, in order
+    private static DomSnapshot widget(String heading, List<Node> cards) {
+        List<Node> children = new ArrayList<>();
+        children.add(element("h2", heading));
+        children.addAll(cards);
+        return new DomSnapshot(new Node("div", attrs("class", "related-products-container"), "", children,
+                null, null), false);
+    }
+
+    private static List<Node> cards(int count) {
+        List<Node> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(card(100000000L + i, "Wallet " + i, "$" + (10 + i) + ".00"));
+        }
+        return cards;
+    }
+
+    @Test
+    public void testIdenticalWidgetsCostOneComparison() {
+        DomSnapshot.Diff diff = DomSnapshot.diff(widget("Similar", cards(1000)), widget("Similar", cards(1000)));
+        assertTrue(diff.toString(), diff.isIdentical());
+        assertEquals(1, diff.getComparedNodes());
+    }
+
+    @Test
+    public void testPriceChangeInLargeCarousel() {
+        List<Node> after = cards(1000);
+        after.set(500, card(100000500L, "Wallet 500", "$12.99"));
+
+        DomSnapshot.Diff diff = DomSnapshot.diff(widget("Similar", cards(1000)), widget("Similar", after));
+        assertEquals(diff.toString(), 1, diff.getChangedCards().size());
+        assertEquals("$510.00 -> $12.99", diff.getPriceChanges().get("100000500"));
+        assertEquals(Collections.singletonList("div.product-card/span.price text \"$510.00\" -> \"$12.99\""),
+                diff.getChangedCards().get("100000500"));
+        assertTrue(diff.getMoved().isEmpty());
+        assertTrue(diff.getChanges().isEmpty());
+        // One hash check per card and per unchanged subtree, nothing inside unchanged cards
+        assertTrue("compared " + diff.getComparedNodes(), diff.getComparedNodes() < 1100);
+    }
+
+    @Test
+    public void testMovedCardsAreTheFewestToReorder() {
+        List<Node> after = cards(6);
+        Node last = after.remove(5);
+        after.add(0, last);
+
+        DomSnapshot.Diff diff = DomSnapshot.diff(widget("Similar", cards(6)), widget("Similar", after));
+        assertEquals(diff.toString(), Collections.singletonList("100000005"), diff.getMoved());
+        assertTrue(diff.getChangedCards().isEmpty());
+        assertTrue(diff.getAdded().isEmpty());
+    }
+
+    @Test
+    public void testAddedRemovedAndHeadingChanges() {
+        List<Node> after = cards(6);
+        after.remove(2);
+        after.add(card(999999999L, "New Wallet", "$5.00"));
+
+        DomSnapshot.Diff diff = DomSnapshot.diff(widget("Similar", cards(6)), widget("You may also like", after));
+        assertEquals(Collections.singletonList("100000002"), diff.getRemoved());
+        assertEquals(Collections.singletonList("999999999"), diff.getAdded());
+        assertTrue(diff.getMoved().isEmpty());
+        assertEquals(Collections.singletonList("div.related-products-container/h2 text \"Similar\" -> \"You may also like\""),
+                diff.getChanges());
+    }
+
+    @Test
+    public void testWidgetAppearingOrDisappearing() {
+        assertFalse(DomSnapshot.diff(widget("Similar", cards(2)), DomSnapshot.empty()).isIdentical());
+        assertTrue(DomSnapshot.diff(DomSnapshot.empty(), DomSnapshot.empty()).isIdentical());
+    }
+
+    @Test
+    public void testRepeatedAndUnkeyedCards() {
+        List<Node> cards = new ArrayList<>(cards(2));
+        cards.add(card(100000000L, "Wallet 0", "$10.00"));
+        cards.add(new Node("div", attrs("class", "product-card"), "Sponsored", Collections.<Node>emptyList(),
+                "-1", ""));
+        Map<String, Node> keyed = widget("Similar", cards).getCards();
+        assertEquals(Arrays.asList("100000000", "100000001", "100000000~2", "#0"), new ArrayList<>(keyed.keySet()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.utils.DuplicateDetector;
+import com.ebay.tests.utils.ItemIds;
+import com.ebay.tests.utils.LongHashSet;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * DuplicateDetectorTest.java
+ * Unit tests for item id parsing and duplicate detection (no browser needed)
+ */
+public class DuplicateDetectorTest {
+
+    @Test
+    public void testParsesItemIdsFromHrefs() {
+        assertEquals(111111111L, ItemIds.parse("/itm/111111111"));
+        assertEquals(314710838801L, ItemIds.parse("https://www.ebay.com/itm/314710838801?hash=abc"));
+        assertEquals(123456L, ItemIds.parse("https://www.ebay.com/itm/Leather-Wallet/123456#tab"));
+        assertEquals(ItemIds.NO_ID, ItemIds.parse("https://www.ebay.com/sch/wallets"));
+        assertEquals(ItemIds.NO_ID, ItemIds.parse("/itm/not-a-number"));
+        assertEquals(ItemIds.NO_ID, ItemIds.parse(null));
+    }
+
+    @Test
+    public void testLongHashSetIsBounded() {
+        LongHashSet set = new LongHashSet(3);
+        assertTrue(set.add(0));
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(7));
+        assertTrue(set.isFull());
+        assertTrue(set.contains(0));
+        try {
+            set.add(8);
+            fail("Full set must reject new values");
+        } catch (IllegalStateException expected) {
+            System.out.println("Full set rejected insert");
+        }
+    }
+
+    @Test
+    public void testLongHashSetRejectsSizeBeyondTableCapacity() {
+        try {
+            new LongHashSet(LongHashSet.MAX_SIZE + 1);
+            fail("maxSize beyond the largest table must be rejected");
+        } catch (IllegalArgumentException expected) {
+            System.out.println("Oversized set rejected");
+        }
+    }
+
+    @Test
+    public void testReportsPageAndRunDuplicates() {
+        DuplicateDetector detector = new DuplicateDetector(1000, 10000);
+
+        DuplicateDetector.Result first = detector.checkPage("page-1",
+                Arrays.asList("/itm/1", "/itm/2", "/itm/2", "/itm/3"));
+        assertEquals(Collections.singletonList(2L), first.getPageDuplicates());
+        assertTrue(first.getRunDuplicates().isEmpty());
+
+        DuplicateDetector.Result second = detector.checkPage("page-2",
+                Arrays.asList("/itm/3", "/itm/4"));
+        assertFalse(second.hasPageDuplicates());
+        assertEquals(Collections.singletonList(3L), second.getRunDuplicates());
+        assertFalse(second.isApproximate());
+        assertEquals(1, detector.getCrossRunDuplicates());
+    }
+
+    @Test
+    public void testFallsBackToBloomFilterWhenExactSetIsFull() {
+        DuplicateDetector detector = new DuplicateDetector(2, 1000);
+        detector.checkPage("page-1", new long[]{1, 2, 3}, 3);
+
+        DuplicateDetector.Result result = detector.checkPage("page-2", new long[]{3}, 1);
+        assertEquals(Collections.singletonList(3L), result.getRunDuplicates());
+        assertTrue("Bloom-only match must be flagged", result.isApproximate());
+    }
+}
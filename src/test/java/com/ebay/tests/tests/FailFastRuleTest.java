@@ -0,0 +1,169 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.ebay.tests.runner.Budget;
+import com.ebay.tests.runner.BudgetRule;
+import com.ebay.tests.runner.FailFastRule;
+import com.ebay.tests.runner.PriorityOrdering;
+import com.ebay.tests.runner.Probe;
+import com.ebay.tests.runner.Requires;
+import com.ebay.tests.runner.TestHistoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.OrderWith;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FailFastRuleTest.java
+ * Unit tests for probe-first ordering and precondition short-circuiting (no browser needed)
+ */
+public class FailFastRuleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TestHistoryStore history;
+    private static boolean probePasses;
+
+    @Before
+    public void setUp() throws IOException {
+        history = new TestHistoryStore(folder.newFile("history.properties").toPath());
+        FailFastRule.reset();
+    }
+
+    @After
+    public void tearDown() {
+        FailFastRule.reset();
+    }
+
+    @Test
+    public void testProbeRunsFirstAndBrokenPreconditionSkipsDependents() {
+        probePasses = false;
+        List<String> started = new ArrayList<>();
+
+        Result result = run(started);
+
+        assertEquals("testProbe", started.get(0));
+        assertEquals(1, result.getFailureCount());
+        assertEquals("Dependent test must be skipped", 1, result.getAssumptionFailureCount());
+        assertTrue(started.contains("testIndependent"));
+    }
+
+    @Test
+    public void testHistoryPutsLikelyFailuresFirst() {
+        probePasses = true;
+        String prefix = SampleSuite.class.getName() + "#";
+        for (int i = 0; i < 5; i++) {
+            history.record(prefix + "testIndependent", false, 100);
+            history.record(prefix + "testDependent", true, 100);
+        }
+        List<String> started = new ArrayList<>();
+
+        Result result = run(started);
+
+        // Unseen test: 50% prior over the 1s default duration, so it ranks last
+        assertTrue(result.wasSuccessful());
+        assertEquals(Arrays.asList("testProbe", "testIndependent", "testDependent", "testRequiresFixture"),
+                started);
+    }
+
+    @Test
+    public void testBudgetOverrunOnProbeDoesNotSkipDependents() {
+        Result result = JUnitCore.runClasses(BudgetSuite.class);
+
+        assertEquals(2, result.getRunCount());
+        assertEquals(1, result.getFailureCount());
+        assertTrue(result.getFailures().get(0).getMessage(), result.getFailures().get(0).getMessage().contains("calls"));
+        assertEquals("The fixture is fine; only the budget was exceeded", 0, result.getAssumptionFailureCount());
+    }
+
+    private Result run(final List<String> started) {
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                started.add(description.getMethodName());
+            }
+        });
+        return core.run(SampleSuite.class);
+    }
+
+    /**
+     * Not picked up by surefire (nested class); run through JUnitCore above
+     */
+    @OrderWith(SampleSuite.Factory.class)
+    public static class SampleSuite {
+
+        @Rule
+        public FailFastRule failFastRule = new FailFastRule(history);
+
+        @Test
+        public void testDependent() {
+            assertTrue(true);
+        }
+
+        @Test
+        @Requires("fixture")
+        public void testRequiresFixture() {
+            assertTrue(true);
+        }
+
+        @Test
+        public void testIndependent() {
+            assertTrue(true);
+        }
+
+        @Test
+        @Probe("fixture")
+        public void testProbe() {
+            assertTrue("Fixture broken", probePasses);
+        }
+
+        public static class Factory implements org.junit.runner.manipulation.Ordering.Factory {
+            @Override
+            public org.junit.runner.manipulation.Ordering create(org.junit.runner.manipulation.Ordering.Context context) {
+                return new PriorityOrdering(history);
+            }
+        }
+    }
+
+    /**
+     * Rules declared as in MockRelatedProductsTest: budget outside fail-fast
+     */
+    @OrderWith(SampleSuite.Factory.class)
+    public static class BudgetSuite {
+
+        @Rule(order = 1)
+        public BudgetRule budgetRule = new BudgetRule();
+
+        @Rule(order = 2)
+        public FailFastRule failFastRule = new FailFastRule(history);
+
+        private final RelatedProductsPage relatedPage = new RelatedProductsPage(PlaywrightStubs.titledPage());
+
+        @Test
+        @Probe("fixture")
+        @Budget(calls = 1)
+        public void testProbe() {
+            relatedPage.getPageTitle();
+            relatedPage.getPageTitle();
+        }
+
+        @Test
+        @Requires("fixture")
+        public void testRequiresFixture() {
+            assertTrue(true);
+        }
+    }
+}
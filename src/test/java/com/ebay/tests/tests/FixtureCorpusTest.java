@@ -0,0 +1,127 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.utils.FixtureCorpus;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * FixtureCorpusTest.java
+ * Unit tests for the packed fixture corpus format
+ */
+public class FixtureCorpusTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] page(long itemId) {
+        StringBuilder html = new StringBuilder("<html><body><h1>Item ").append(itemId).append("</h1>");
+        for (int i = 0; i < 50; i++) {
+            html.append("<div class=\"product-card\"><a href=\"/itm/").append(itemId + i).append("\">Wallet</a></div>");
+        }
+        return html.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRandomAccessByItemId() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("pages.corpus");
+        long[] ids = {314710838801L, 123456789L, 999999999999L, 200000000L};
+        try (FixtureCorpus.Writer writer = FixtureCorpus.create(path, FixtureCorpus.Codec.DEFLATE)) {
+            for (long id : ids) {
+                writer.add(id, id + ".html", page(id));
+            }
+        }
+
+        try (FixtureCorpus corpus = FixtureCorpus.open(path)) {
+            assertEquals(4, corpus.size());
+            for (long id : ids) {
+                assertArrayEquals(page(id), corpus.get(id));
+            }
+            assertArrayEquals(page(123456789L), corpus.get("123456789.html"));
+            assertNull(corpus.get(42L));
+            assertFalse(corpus.contains(42L));
+            assertArrayEquals(new long[]{123456789L, 200000000L, 314710838801L, 999999999999L}, corpus.getIds());
+        }
+        // Repetitive HTML compresses well
+        assertTrue(Files.size(path) < ids.length * page(ids[0]).length / 4);
+    }
+
+    @Test
+    public void testStreamingIterationInFileOrder() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("stream.corpus");
+        Random random = new Random(3);
+        List<Long> written = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        try (FixtureCorpus.Writer writer = FixtureCorpus.create(path, FixtureCorpus.Codec.NONE)) {
+            while (written.size() < 500) {
+                long id = 100_000_000L + random.nextInt(1_000_000_000);
+                if (seen.add(id)) {
+                    writer.add(id, "item_" + id + ".html", page(id));
+                    written.add(id);
+                }
+            }
+        }
+
+        List<Long> streamed = new ArrayList<>();
+        try (FixtureCorpus corpus = FixtureCorpus.open(path)) {
+            corpus.stream().forEach(entry -> {
+                assertArrayEquals(page(entry.getItemId()), entry.getBytes());
+                streamed.add(entry.getItemId());
+            });
+        }
+        assertEquals(written, streamed);
+    }
+
+    @Test
+    public void testPackLooseFixtures() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("mock.corpus");
+        int packed = FixtureCorpus.pack(Paths.get("src/test/resources"), "mock_ebay_*.html",
+                path, FixtureCorpus.Codec.DEFLATE);
+
+        try (FixtureCorpus corpus = FixtureCorpus.open(path)) {
+            assertEquals(3, packed);
+            assertEquals(3, corpus.size());
+            byte[] loose = Files.readAllBytes(Paths.get("src/test/resources/mock_ebay_product.html"));
+            assertArrayEquals(loose, corpus.get(FixtureCorpus.idForName("mock_ebay_product.html")));
+        }
+        assertEquals(314710838801L, FixtureCorpus.idForName("314710838801.html"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateIdsAreRejected() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("dup.corpus");
+        try (FixtureCorpus.Writer writer = FixtureCorpus.create(path, FixtureCorpus.Codec.NONE)) {
+            writer.add(1L, "a.html", page(1));
+            writer.add(1L, "b.html", page(1));
+        }
+    }
+
+    @Test
+    public void testCorruptEntryIsDetected() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("corrupt.corpus");
+        try (FixtureCorpus.Writer writer = FixtureCorpus.create(path, FixtureCorpus.Codec.NONE)) {
+            writer.add(7L, "7.html", page(7));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(40); // inside the first body
+            file.write('X');
+        }
+        try (FixtureCorpus corpus = FixtureCorpus.open(path)) {
+            corpus.get(7L);
+            fail("Checksum should not match");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Checksum"));
+        }
+    }
+}
@@ -1,36 +1,73 @@
 package com.ebay.tests.tests;
 
 import com.microsoft.playwright.*;
+import com.ebay.tests.browser.BrowserContextPool;
+import com.ebay.tests.browser.DeviceProfile;
+import com.ebay.tests.browser.FlightRecorder;
+import com.ebay.tests.browser.HarArchive;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.DomSnapshot;
+import com.ebay.tests.pages.LayoutAnalyzer;
+import com.ebay.tests.pages.NavigationTiming;
 import com.ebay.tests.pages.RelatedProductsPage;
+import com.ebay.tests.reporting.ReportingListener;
+import com.ebay.tests.runner.Quarantinable;
+import com.ebay.tests.runner.RetryRule;
 import org.junit.After;
+import org.junit.AfterClass;
 import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestName;
 import static org.junit.Assert.*;
 import java.io.File;
 import java.nio.file.Paths;
 
+@Category(Quarantinable.class)
 public class FunctionalTests {
 
-    private Playwright playwright;
-    private Browser browser;
+    private static Playwright playwright;
+    private static BrowserContextPool contextPool;
+
+    private BrowserContext context;
     private Page page;
     private RelatedProductsPage relatedPage;
+    private FlightRecorder recorder;
 
     private static final String WALLET_PRODUCT_URL = "https://www.ebay.com/itm/314710838801";
     private static final String INVALID_PRODUCT_URL = "https://www.ebay.com/itm/999999999";
     private static final String SCREENSHOTS_DIR = "target/screenshots";
 
+    // Responsive sweep for layout checks: desktop, laptop, tablet, mobile
+    private static final int[][] LAYOUT_VIEWPORTS = {{1920, 1080}, {1366, 768}, {768, 1024}, {375, 667}};
+
+    // Live site is flaky: rerun failures in a fresh pooled context
+    @Rule
+    public RetryRule retryRule = new RetryRule();
+
+    @Rule
+    public TestName testName = new TestName();
+
+    @BeforeClass
+    public static void launchBrowser() {
+        playwright = Playwright.create();
+        contextPool = BrowserContextPool.launch(playwright);
+    }
+
     @Before
     public void setUp() {
         // Create screenshots directory
         new File(SCREENSHOTS_DIR).mkdirs();
 
-        playwright = Playwright.create();
-        browser = playwright.chromium().launch(
-                new BrowserType.LaunchOptions().setHeadless(true)
-        );
-        page = browser.newPage();
+        // -Dhar.mode=record|replay for repeatable network timing
+        HarArchive har = HarArchive.forTest("FunctionalTests/" + testName.getMethodName());
+        context = contextPool.acquire(har.contextOptions());
+        har.apply(context);
+        page = context.newPage();
         relatedPage = new RelatedProductsPage(page);
+        recorder = FlightRecorder.attach(page);
 
         System.out.println("\n✅ Setup complete\n");
     }
@@ -54,6 +91,12 @@ public class FunctionalTests {
             assertTrue("Related section must be visible",
                     relatedPage.isRelatedProductsSectionVisible());
 
+            // Live layout varies; only broken geometry fails, the rest is reported
+            for (LayoutAnalyzer.Report report : relatedPage.analyzeCardLayoutAcrossViewports(LAYOUT_VIEWPORTS)) {
+                assertTrue("Cards overlap " + report, report.getOverlaps().isEmpty());
+                assertTrue("Cards overflow " + report, report.getOverflow().isEmpty());
+            }
+
             System.out.println("✅ TC-008 PASSED\n");
         } catch (AssertionError e) {
             captureScreenshot("TC_008_failed");
@@ -79,6 +122,9 @@ public class FunctionalTests {
             int count = relatedPage.getRelatedProductsCount();
             assertTrue("Count must be valid", count > 0 && count <= 6);
 
+            // Thumbnail weight is tracked in the run metrics, not asserted (live content changes)
+            relatedPage.auditCardImages("live_desktop");
+
             System.out.println("✅ TC-009 PASSED\n");
         } catch (AssertionError e) {
             captureScreenshot("TC_009_failed");
@@ -94,8 +140,9 @@ public class FunctionalTests {
         System.out.println("▶️ TC-010: Mobile Responsiveness (375x667)");
 
         try {
-            relatedPage.setViewportSize(375, 667);
-            relatedPage.navigateTo(WALLET_PRODUCT_URL);
+            // Unthrottled phone by default; -Ddevice.profile=mobile-3g etc. for low-end timings
+            relatedPage.emulate(DeviceProfile.fromSystemProperty(DeviceProfile.MOBILE));
+            relatedPage.getPageLoadTime(WALLET_PRODUCT_URL);
             relatedPage.waitForRelatedProductsToLoad();
 
             assertTrue("Must be visible on mobile",
@@ -320,6 +367,11 @@ public class FunctionalTests {
 
                 assertTrue("Related products still visible",
                         relatedPage.isRelatedProductsSectionVisible());
+
+                // Restore vs reload latency; live pages often aren't cacheable, so report only
+                NavigationTiming timing = relatedPage.measureBackNavigation(0, 3);
+                System.out.println("Back/forward cache: " + timing.getRestoredCount() + "/"
+                        + timing.getCycles().size() + " restored");
             }
 
             System.out.println("✅ TC-018 PASSED\n");
@@ -342,12 +394,17 @@ public class FunctionalTests {
             relatedPage.waitForPageFullyLoaded();
 
             boolean visibleBefore = relatedPage.isRelatedProductsSectionVisible();
+            DomSnapshot before = relatedPage.snapshotRelatedProducts();
 
             relatedPage.refreshPage();
             relatedPage.waitForPageFullyLoaded();
 
             boolean visibleAfter = relatedPage.isRelatedProductsSectionVisible();
 
+            // Report what the recommendation engine changed (cards, order, prices)
+            System.out.println("Related products after refresh: "
+                    + DomSnapshot.diff(before, relatedPage.snapshotRelatedProducts()));
+
             // Visibility should match (count may vary due to recommendation engine)
             assertEquals("Related products visibility should be consistent",
                     visibleBefore, visibleAfter);
@@ -389,26 +446,41 @@ public class FunctionalTests {
         try {
             String filename = SCREENSHOTS_DIR + "/" + testName + "_" +
                     System.currentTimeMillis() + ".png";
-            page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            byte[] image = page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            MetricsRegistry.getDefault().counter("screenshot_bytes_total").add(image.length);
+            ReportingListener.artifact(filename);
             System.out.println("📸 Screenshot: " + filename);
         } catch (Exception e) {
             System.out.println("Could not capture: " + e.getMessage());
         }
+        recorder.dump(testName);
     }
 
     @After
     public void tearDown() {
         try {
+            if (recorder != null) {
+                recorder.detach();
+            }
             if (relatedPage != null && page != null && !page.isClosed()) {
                 relatedPage.closePage();
             }
-            if (browser != null) {
-                browser.close();
+            contextPool.release(context);
+            System.out.println("Teardown complete\n");
+        } catch (Exception e) {
+            System.out.println("Teardown error: " + e.getMessage());
+        }
+    }
+
+    @AfterClass
+    public static void closeBrowser() {
+        try {
+            if (contextPool != null) {
+                contextPool.close();
             }
             if (playwright != null) {
                 playwright.close();
             }
-            System.out.println("Teardown complete\n");
         } catch (Exception e) {
             System.out.println("Teardown error: " + e.getMessage());
         }
@@ -0,0 +1,61 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.browser.HarReplayServer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * HarReplayServerTest.java
+ * Unit tests for timed HAR replay (no browser needed)
+ */
+public class HarReplayServerTest {
+
+    private static final String HAR = "{\"log\": {\"entries\": ["
+            + "{\"time\": 150, \"request\": {\"method\": \"GET\", \"url\": \"http://www.ebay.com/itm/1\"},"
+            + " \"response\": {\"status\": 200, \"headers\": [{\"name\": \"Content-Type\", \"value\": \"text/html\"},"
+            + " {\"name\": \"Content-Length\", \"value\": \"999\"}], \"content\": {\"text\": \"<h1>first</h1>\"}}},"
+            + "{\"time\": 0, \"request\": {\"method\": \"GET\", \"url\": \"http://www.ebay.com/itm/1\"},"
+            + " \"response\": {\"status\": 200, \"headers\": [],"
+            + " \"content\": {\"text\": \"PGgxPnNlY29uZDwvaDE+\", \"encoding\": \"base64\"}}}"
+            + "]}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordedResponsesReplayInOrderWithTiming() throws Exception {
+        Path har = folder.newFile("item.har").toPath();
+        Files.write(har, HAR.getBytes(StandardCharsets.UTF_8));
+
+        try (HarReplayServer server = HarReplayServer.start(har)) {
+            assertEquals(2, server.getEntryCount());
+            assertNull(server.replayUrl("GET", "http://www.ebay.com/itm/2"));
+
+            long start = System.nanoTime();
+            assertEquals("<h1>first</h1>", fetch(server.replayUrl("GET", "http://www.ebay.com/itm/1")));
+            assertTrue("Recorded 150ms must be replayed", System.nanoTime() - start >= 150_000_000L);
+
+            assertEquals("<h1>second</h1>", fetch(server.replayUrl("GET", "http://www.ebay.com/itm/1")));
+            // Out of recordings: the last one repeats
+            assertEquals("<h1>second</h1>", fetch(server.replayUrl("GET", "http://www.ebay.com/itm/1")));
+        }
+    }
+
+    private static String fetch(String url) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[4096];
+            int length = in.read(buffer);
+            return new String(buffer, 0, Math.max(0, length), StandardCharsets.UTF_8);
+        }
+    }
+}
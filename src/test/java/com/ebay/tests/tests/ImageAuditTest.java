@@ -0,0 +1,82 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.ImageAudit;
+import com.ebay.tests.pages.ImageAudit.Issue;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+/**
+ * ImageAuditTest.java
+ * Unit tests for card thumbnail flagging and totals (no browser needed)
+ */
+public class ImageAuditTest {
+
+    private static final int VIEWPORT_HEIGHT = 800;
+
+    private ImageAudit.Image image(String format, int natural, double rendered, double top,
+                                   String loading, long bytes, double decodeMs) {
+        return new ImageAudit.Image("https://i.ebayimg.com/thumb." + format, format, natural, natural,
+                rendered, rendered, top, loading, "", true, bytes + 300, bytes, bytes * 10, decodeMs);
+    }
+
+    @Test
+    public void testRightSizedImagesAreClean() {
+        ImageAudit audit = new ImageAudit(VIEWPORT_HEIGHT, 1.0, Arrays.asList(
+                image("webp", 200, 200, 300, "", 8_000, 2.0),
+                image("webp", 200, 200, 1200, "lazy", 8_000, 2.0)));
+
+        assertFalse(audit.toString(), audit.hasIssues());
+        assertEquals(16_000, audit.getTotalBytes());
+        assertEquals(4.0, audit.getTotalDecodeMs(), 1e-9);
+    }
+
+    @Test
+    public void testWastefulImagesAreFlagged() {
+        ImageAudit audit = new ImageAudit(VIEWPORT_HEIGHT, 1.0, Arrays.asList(
+                image("jpeg", 1600, 200, 300, "lazy", 400_000, 45.0),
+                image("png", 200, 200, 1200, "", 30_000, 1.0)));
+
+        assertEquals(EnumSet.of(Issue.OVERSIZED, Issue.LAZY_ABOVE_FOLD, Issue.LEGACY_FORMAT, Issue.SLOW_DECODE),
+                audit.getIssues(0));
+        assertEquals(EnumSet.of(Issue.NOT_LAZY, Issue.LEGACY_FORMAT), audit.getIssues(1));
+        assertEquals(2, audit.getIssueCount(Issue.LEGACY_FORMAT));
+
+        // 1600x1600 shown at 200x200: 63/64 of the bytes are not needed
+        assertEquals(Math.round(400_000 * (1 - 1.0 / 64)), audit.getWastedBytes(0));
+        assertEquals(0, audit.getWastedBytes(1));
+    }
+
+    @Test
+    public void testDevicePixelRatioRaisesNeededSize() {
+        // 400px image at 200 CSS px is right-sized on a 2x screen
+        ImageAudit audit = new ImageAudit(VIEWPORT_HEIGHT, 2.0, Collections.singletonList(
+                image("webp", 400, 200, 100, "", 20_000, 1.0)));
+        assertFalse(audit.getIssues(0).contains(Issue.OVERSIZED));
+    }
+
+    @Test
+    public void testMissingAndBrokenImages() {
+        ImageAudit.Image broken = new ImageAudit.Image("https://i.ebayimg.com/gone.jpg", "jpeg", 0, 0,
+                200, 200, 100, "", "", true, -1, -1, -1, -1);
+        ImageAudit audit = new ImageAudit(VIEWPORT_HEIGHT, 1.0, Arrays.asList(null, broken));
+
+        assertEquals(EnumSet.of(Issue.MISSING), audit.getIssues(0));
+        assertEquals(EnumSet.of(Issue.BROKEN), audit.getIssues(1));
+        assertEquals(0, audit.getTotalBytes());
+    }
+
+    @Test
+    public void testTotalsAreRecordedPerPage() {
+        new ImageAudit(VIEWPORT_HEIGHT, 1.0, Arrays.asList(
+                image("webp", 200, 200, 300, "", 8_000, 2.0),
+                image("webp", 200, 200, 300, "", 4_000, 2.0))).record("image_audit_test");
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        assertEquals(12_000, metrics.counter("card_image_bytes_total", "page", "image_audit_test").get());
+        assertEquals(2, metrics.timer("card_image_decode", "page", "image_audit_test").getCount());
+    }
+}
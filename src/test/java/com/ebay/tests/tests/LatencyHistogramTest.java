@@ -0,0 +1,56 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.load.ArrivalProfile;
+import com.ebay.tests.load.LatencyHistogram;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * LatencyHistogramTest.java
+ * Unit tests for load-test latency recording and arrival scheduling
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.recordValue(micros);
+        }
+
+        assertEquals(100_000, histogram.getTotalCount());
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 500);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 990);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(50_000.5, histogram.getMean(), 0.01);
+    }
+
+    @Test
+    public void testExpectedIntervalFillsInStalledRequests() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // One request every 10ms; one stalled for 1s
+        histogram.recordValueWithExpectedInterval(1_000_000, 10_000);
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 5_000);
+    }
+
+    @Test
+    public void testConstantRateArrivalsAreEvenlySpaced() {
+        ArrivalProfile profile = ArrivalProfile.parse("10s:5,10s:5");
+
+        // 5/s ramped up over 10s (25), then held for 10s (50)
+        assertEquals(75, profile.getArrivalCount());
+        assertEquals(10_000_000_000L, profile.getArrivalNanos(25), 1_000_000);
+        assertEquals(200_000_000L, profile.getArrivalNanos(26) - profile.getArrivalNanos(25), 1_000_000);
+    }
+
+    @Test
+    public void testRampUpStartsSlow() {
+        ArrivalProfile profile = ArrivalProfile.rampThenHold(10, 10, 0.001);
+
+        long firstGap = profile.getArrivalNanos(1) - profile.getArrivalNanos(0);
+        long lastGap = profile.getArrivalNanos(49) - profile.getArrivalNanos(48);
+        assertTrue(firstGap > 10 * lastGap);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.LayoutAnalyzer;
+import com.ebay.tests.pages.PageHelpers.CardBox;
+import com.ebay.tests.pages.PageHelpers.CardLayout;
+import com.ebay.tests.pages.PageHelpers.Rect;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * LayoutAnalyzerTest.java
+ * Unit tests for card grid geometry checks (no browser needed)
+ */
+public class LayoutAnalyzerTest {
+
+    private static final int VIEWPORT_WIDTH = 1000;
+
+    // cols x rows grid of 150x250 cards with 20px gutters
+    private List<CardBox> grid(int cols, int rows) {
+        List<CardBox> cards = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                cards.add(card(20 + c * 170, 20 + r * 270, 150, 250));
+            }
+        }
+        return cards;
+    }
+
+    private CardBox card(double x, double y, double width, double height) {
+        Map<String, Rect> parts = new HashMap<>();
+        parts.put("image", new Rect(x + 10, y + 10, width - 20, 130));
+        parts.put("price", new Rect(x + 10, y + 200, 60, 20));
+        return new CardBox(new Rect(x, y, width, height), parts);
+    }
+
+    private LayoutAnalyzer.Report analyze(List<CardBox> cards) {
+        return LayoutAnalyzer.analyze(new CardLayout(VIEWPORT_WIDTH, 800, VIEWPORT_WIDTH, cards));
+    }
+
+    @Test
+    public void testRegularGridIsClean() {
+        LayoutAnalyzer.Report report = analyze(grid(5, 3));
+        assertTrue(report.toString(), report.isClean());
+        assertEquals(15, report.getCardCount());
+    }
+
+    @Test
+    public void testOverlappingCardsAndParts() {
+        List<CardBox> cards = grid(5, 1);
+        cards.set(2, card(20 + 170 + 100, 20, 150, 250)); // slides under card 1
+        Map<String, Rect> parts = new HashMap<>();
+        parts.put("image", new Rect(30, 30, 130, 200));
+        parts.put("price", new Rect(30, 200, 60, 20));
+        cards.set(0, new CardBox(new Rect(20, 20, 150, 250), parts));
+
+        LayoutAnalyzer.Report report = analyze(cards);
+        assertEquals(report.toString(), 2, report.getOverlaps().size());
+        assertTrue(report.getOverlaps().contains("card 1 overlaps card 2"));
+        assertTrue(report.getOverlaps().contains("card 0 image overlaps price"));
+    }
+
+    @Test
+    public void testMisalignedCardAndUnevenGutter() {
+        List<CardBox> cards = grid(5, 1);
+        cards.set(1, card(20 + 170, 35, 150, 250));  // 15px lower
+        cards.set(4, card(20 + 4 * 170 + 12, 20, 150, 250)); // wider last gutter
+        LayoutAnalyzer.Report report = analyze(cards);
+
+        assertEquals(report.toString(), 1, report.getMisaligned().size());
+        assertEquals(report.toString(), 1, report.getGutters().size());
+        assertTrue(report.getOverlaps().isEmpty());
+    }
+
+    @Test
+    public void testOverflowingCardPartAndPage() {
+        List<CardBox> cards = grid(6, 1); // last card ends at 1020
+        Map<String, Rect> parts = new HashMap<>();
+        parts.put("price", new Rect(30, 200, 200, 20)); // wider than its card
+        cards.set(0, new CardBox(new Rect(20, 20, 150, 250), parts));
+
+        LayoutAnalyzer.Report report = LayoutAnalyzer.analyze(new CardLayout(VIEWPORT_WIDTH, 800, 1040, cards));
+        assertEquals(report.toString(), 3, report.getOverflow().size());
+    }
+
+    @Test
+    public void testRowsDoNotDependOnDomOrder() {
+        List<CardBox> cards = grid(4, 3);
+        Collections.shuffle(cards, new Random(7));
+        LayoutAnalyzer.Report report = analyze(cards);
+        assertTrue(report.toString(), report.isClean());
+    }
+
+    @Test
+    public void testSweepMatchesPairwiseCheck() {
+        Random random = new Random(42);
+        List<Rect> boxes = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            boxes.add(new Rect(random.nextInt(2000), random.nextInt(2000),
+                    20 + random.nextInt(120), 20 + random.nextInt(120)));
+        }
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            for (int j = i + 1; j < boxes.size(); j++) {
+                Rect a = boxes.get(i);
+                Rect b = boxes.get(j);
+                if (a.getX() < b.getRight() - 1 && b.getX() < a.getRight() - 1
+                        && a.getY() < b.getBottom() - 1 && b.getY() < a.getBottom() - 1) {
+                    expected.add(i + "-" + j);
+                }
+            }
+        }
+        Set<String> found = new HashSet<>();
+        for (int[] pair : LayoutAnalyzer.findOverlaps(boxes, 1.0)) {
+            found.add(pair[0] + "-" + pair[1]);
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, found);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.load.ArrivalProfile;
+import com.ebay.tests.load.LoadGenerator;
+import com.ebay.tests.load.LoadReport;
+import com.ebay.tests.load.LocalProductService;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.file.Paths;
+
+/**
+ * LoadTest.java
+ * Load-test mode for the related-products service (skipped unless -Dload.url is set)
+ *
+ * -Dload.url=local|URL         target (local = LocalProductService stand-in)
+ * -Dload.profile=30s:10,2m:10  rate stages, or:
+ * -Dload.rate=5 -Dload.ramp.s=10 -Dload.duration.s=60
+ * -Dload.sessions=4            concurrent browser sessions
+ * -Dload.max.error.rate=0.01   fail above this error rate
+ */
+public class LoadTest {
+
+    private static final String REPORT_FILE = "target/load/summary.txt";
+
+    @Test
+    public void testRelatedProductsUnderLoad() {
+        String target = System.getProperty("load.url");
+        Assume.assumeTrue("Set -Dload.url to run the load test", target != null && !target.isEmpty());
+
+        ArrivalProfile profile = System.getProperty("load.profile") != null
+                ? ArrivalProfile.parse(System.getProperty("load.profile"))
+                : ArrivalProfile.rampThenHold(
+                        Double.parseDouble(System.getProperty("load.rate", "5")),
+                        Double.parseDouble(System.getProperty("load.ramp.s", "10")),
+                        Double.parseDouble(System.getProperty("load.duration.s", "60")));
+        int sessions = Integer.getInteger("load.sessions", 4);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max.error.rate", "0.01"));
+
+        LocalProductService service = "local".equals(target) ? LocalProductService.start(sessions * 2) : null;
+        try {
+            String url = service != null ? service.getProductUrl() : target;
+            LoadReport report = new LoadGenerator(url, profile, sessions).run();
+
+            System.out.println(report.toText());
+            report.write(Paths.get(REPORT_FILE));
+            assertTrue("Error rate " + report.getErrorRate() + " above " + maxErrorRate,
+                    report.getErrorRate() <= maxErrorRate);
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+        }
+    }
+}
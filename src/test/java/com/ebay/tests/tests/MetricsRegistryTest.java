@@ -0,0 +1,91 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.metrics.MetricsExporter;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MetricsRegistryTest.java
+ * Unit tests for metrics collection and export (no browser needed)
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void testPrometheusTextFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("context_leases_total").add(3);
+        registry.timer("playwright_call", "method", "BasePage.getPageTitle", "call", "Page.title")
+                .record(2_000_000);
+
+        String text = MetricsExporter.toPrometheusText(registry);
+        System.out.println(text);
+
+        assertTrue(text.contains("# TYPE context_leases_total counter\ncontext_leases_total 3\n"));
+        assertTrue(text.contains(
+                "playwright_call_seconds_count{method=\"BasePage.getPageTitle\",call=\"Page.title\"} 1\n"));
+        assertTrue(text.contains(
+                "playwright_call_seconds_sum{method=\"BasePage.getPageTitle\",call=\"Page.title\"} 0.002000\n"));
+        assertFalse("A summary has only _count and _sum", text.contains("_max"));
+    }
+
+    @Test
+    public void testSeriesWithShiftedLabelsStayDistinct() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests", "path", "a,b").increment();
+        registry.counter("requests", "path,a", "b").add(2);
+        assertEquals(2, registry.getCounters().size());
+    }
+
+    @Test
+    public void testJsonIncludesCacheHitRates() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.cacheLookup("warm_contexts", true);
+        registry.cacheLookup("warm_contexts", true);
+        registry.cacheLookup("warm_contexts", false);
+
+        String json = MetricsExporter.toJson(registry);
+        assertTrue(json, json.contains("\"warm_contexts\": 0.666"));
+    }
+
+    @Test
+    public void testPageObjectCallsAreAttributedToCallerMethod() {
+        Page stub = PlaywrightStubs.titledPage();
+
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault()
+                .timer("playwright_call", "method", "BasePage.getPageTitle", "call", "Page.title");
+        long before = timer.getCount();
+
+        assertEquals("Leather Wallet | eBay", new RelatedProductsPage(stub).getPageTitle());
+        assertEquals(before + 1, timer.getCount());
+    }
+
+    @Test
+    public void testLocalAccessorsAreNotTimed() {
+        Page page = InstrumentedPlaywright.wrap(PlaywrightStubs.page((method, args) ->
+                method.equals("url") ? "https://www.ebay.com/itm/1" : null));
+        page.url();
+        page.isClosed();
+        page.context();
+        page.onClose(closed -> { });
+        page.offClose(closed -> { });
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        for (MetricsRegistry.Timer timer : metrics.getTimers()) {
+            List<String> labels = Arrays.asList(timer.getLabels());
+            for (String local : new String[]{"Page.url", "Page.isClosed", "Page.context", "Page.onClose", "Page.offClose"}) {
+                assertFalse("No driver round trip, no timer: " + labels, labels.contains(local));
+            }
+        }
+
+        MetricsRegistry.Timer reload = metrics.timer("playwright_call", "method", "(test)", "call", "Page.reload");
+        long reloads = reload.getCount();
+        page.reload();
+        assertEquals(reloads + 1, reload.getCount());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.extension.BudgetExtension;
+import com.ebay.tests.extension.CorpusSource;
+import com.ebay.tests.extension.PlaywrightExtension;
+import com.ebay.tests.extension.ResultCacheExtension;
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.ebay.tests.runner.Budget;
+import com.ebay.tests.runner.Cached;
+import com.microsoft.playwright.Page;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockFixturesTest.java
+ * Checks that hold for every mock fixture (product, empty, error pages)
+ */
+@ExtendWith({ResultCacheExtension.class, BudgetExtension.class, PlaywrightExtension.class})
+@Cached(inputs = "src/test/resources/mock_ebay_*.html", properties = "fixture.corpus")
+@Budget(wallMs = 10000, calls = 100, waitMs = 5000)
+public class MockFixturesTest {
+
+    // Mock fixtures by default; -Dfixture.corpus=saved-pages.corpus for bulk runs
+    @ParameterizedTest(name = "{0}")
+    @CorpusSource
+    public void testFixtureRendersWithinLimits(String fixture, String html, Page page,
+                                               RelatedProductsPage relatedPage) {
+        page.setContent(html);
+
+        int count = relatedPage.getRelatedProductsCount();
+        assertTrue(count >= 0 && count <= 6, fixture + ": count " + count);
+        assertTrue(relatedPage.hasNoDuplicateProducts(), fixture + ": duplicates");
+        assertTrue(relatedPage.isMainProductExcludedFromRelated(), fixture + ": main product listed");
+    }
+}
@@ -1,22 +1,50 @@
 package com.ebay.tests.tests;
 
 import com.microsoft.playwright.*;
+import com.ebay.tests.browser.BrowserServer;
+import com.ebay.tests.browser.DeviceProfile;
+import com.ebay.tests.browser.FlightRecorder;
+import com.ebay.tests.load.LocalProductService;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.AccessibilityAudit;
+import com.ebay.tests.pages.DomSnapshot;
+import com.ebay.tests.pages.ImageAudit;
+import com.ebay.tests.pages.LayoutAnalyzer;
+import com.ebay.tests.pages.NavigationTiming;
 import com.ebay.tests.pages.RelatedProductsPage;
+import com.ebay.tests.reporting.ReportingListener;
+import com.ebay.tests.runner.Budget;
+import com.ebay.tests.runner.BudgetRule;
+import com.ebay.tests.runner.Cached;
+import com.ebay.tests.runner.FailFastRule;
+import com.ebay.tests.runner.PriorityOrdering;
+import com.ebay.tests.runner.Probe;
+import com.ebay.tests.runner.Requires;
+import com.ebay.tests.runner.ResultCacheRule;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.OrderWith;
 import static org.junit.Assert.*;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
+// Probes first, then likely failures; see PriorityOrdering
+@OrderWith(PriorityOrdering.Factory.class)
+// Local fixtures: anything near these ceilings is a regression (wall includes browser launch)
+@Budget(wallMs = 20000, calls = 150, waitMs = 10000, bytes = 5_000_000)
+// Hermetic: reads only the mock fixtures, so unchanged tests are reported from the result cache
+@Cached(inputs = "src/test/resources/mock_ebay_*.html")
 public class MockRelatedProductsTest {
 
     private Playwright playwright;
     private Browser browser;
     private Page page;
     private RelatedProductsPage relatedPage;
+    private FlightRecorder recorder;
 
     // Mock HTML files
     private static final String MOCK_PRODUCT_HTML = "src/test/resources/mock_ebay_product.html";
@@ -24,16 +52,33 @@ public class MockRelatedProductsTest {
     private static final String MOCK_ERROR_HTML = "src/test/resources/mock_ebay_error.html";
     private static final String SCREENSHOTS_DIR = "target/screenshots";
 
+    // Responsive sweep for layout checks: desktop, laptop, tablet, mobile
+    private static final int[][] LAYOUT_VIEWPORTS = {{1920, 1080}, {1366, 768}, {768, 1024}, {375, 667}};
+
+    // Precondition: mock_ebay_product.html loads and renders related products
+    private static final String PRODUCT_PAGE = "product-page";
+
+    // Outermost: a cached pass skips setUp and the other rules
+    @Rule(order = Integer.MIN_VALUE)
+    public ResultCacheRule resultCacheRule = new ResultCacheRule();
+
+    // Outside fail-fast: a budget overrun is not a broken fixture, so it must not skip dependents
+    @Rule(order = 1)
+    public BudgetRule budgetRule = new BudgetRule();
+
+    // Skips dependent tests as soon as a probe fails
+    @Rule(order = 2)
+    public FailFastRule failFastRule = new FailFastRule();
+
     @Before
     public void setUp() {
         new File(SCREENSHOTS_DIR).mkdirs();
 
         playwright = Playwright.create();
-        browser = playwright.chromium().launch(
-                new BrowserType.LaunchOptions().setHeadless(true)
-        );
+        browser = playwright.chromium().launch(BrowserServer.launchOptions(true));
         page = browser.newPage();
         relatedPage = new RelatedProductsPage(page);
+        recorder = FlightRecorder.attach(page);
 
         System.out.println("\nMock Test Setup Complete\n");
     }
@@ -41,6 +86,7 @@ public class MockRelatedProductsTest {
     // ========== POSITIVE TEST CASES (TC-001 to TC-007) ==========
 
     @Test
+    @Probe(PRODUCT_PAGE)
     public void testTC_001_RelatedProductsSectionVisible() {
         System.out.println("TC-001: Related Products Section Visible");
         try {
@@ -55,6 +101,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_002_ProductCountValid() {
         System.out.println("TC-002: Product Count Valid");
         try {
@@ -70,12 +117,22 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_003_ProductCardElementsPresent() {
         System.out.println("TC-003: Product Card Elements Present");
         try {
             loadMockPage(MOCK_PRODUCT_HTML);
             assertTrue("Product cards must have all elements",
                     relatedPage.productCardIsComplete(0));
+
+            ImageAudit audit = relatedPage.auditCardImages("mock_ebay_product");
+            assertEquals("Every card must have an image", 0, audit.getIssueCount(ImageAudit.Issue.MISSING));
+            assertEquals("Card images must load", 0, audit.getIssueCount(ImageAudit.Issue.BROKEN));
+            assertEquals("Card images must not be oversized", 0, audit.getIssueCount(ImageAudit.Issue.OVERSIZED));
+
+            AccessibilityAudit a11y = relatedPage.auditAccessibility();
+            assertTrue("Accessibility tree must be readable", a11y.isAvailable());
+            assertFalse("Widget accessibility " + a11y, a11y.hasIssues());
             System.out.println("TC-003 PASSED\n");
         } catch (AssertionError e) {
             captureScreenshot("TC_003_failed");
@@ -84,6 +141,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_004_MainProductExcluded() {
         System.out.println("TC-004: Main Product Excluded from Related");
         try {
@@ -98,6 +156,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_005_SameCategoryProducts() {
         System.out.println("TC-005: Same Category Products");
         try {
@@ -112,6 +171,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_006_PriceRangeLogic() {
         System.out.println("TC-006: Price Range Logic");
         try {
@@ -126,6 +186,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_007_ClickRelatedProductNavigation() {
         System.out.println("TC-007: Click Related Product Navigation");
         try {
@@ -181,6 +242,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_015_OutOfStockHandling() {
         System.out.println("TC-015: Out-of-Stock Handling");
         try {
@@ -197,6 +259,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_016_NoDuplicates() {
         System.out.println("TC-016: No Duplicate Products");
         try {
@@ -213,6 +276,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_017_ProductDiversity() {
         System.out.println("TC-017: Product Diversity");
         try {
@@ -232,6 +296,7 @@ public class MockRelatedProductsTest {
     // ========== EDGE CASE TEST CASES (TC-008, 009, 010) ==========
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_008_CardLayoutAndSpacing() {
         System.out.println("TC-008: Card Layout and Spacing");
         try {
@@ -241,6 +306,11 @@ public class MockRelatedProductsTest {
             assertTrue("Must have products", count > 0);
             assertTrue("Must be visible",
                     relatedPage.isRelatedProductsSectionVisible());
+
+            // Fixture grid must be clean at every size
+            for (LayoutAnalyzer.Report report : relatedPage.analyzeCardLayoutAcrossViewports(LAYOUT_VIEWPORTS)) {
+                assertTrue("Card layout " + report, report.isClean());
+            }
             System.out.println("TC-008 PASSED\n");
         } catch (AssertionError e) {
             captureScreenshot("TC_008_failed");
@@ -249,6 +319,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_009_DesktopResponsiveness() {
         System.out.println("TC-009: Desktop Responsiveness (1920x1080)");
         try {
@@ -264,11 +335,14 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_010_MobileResponsiveness() {
         System.out.println("TC-010: Mobile Responsiveness (375x667)");
         try {
-            relatedPage.setViewportSize(375, 667);
+            // Local content, so only the CPU slowdown matters: timings are reproducible
+            relatedPage.emulate(DeviceProfile.MOBILE_4G);
             loadMockPage(MOCK_PRODUCT_HTML);
+            relatedPage.waitForRelatedProductsToLoad();
             assertTrue("Must be visible on mobile",
                     relatedPage.isRelatedProductsSectionVisible());
             System.out.println("TC-010 PASSED\n");
@@ -279,6 +353,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Probe(PRODUCT_PAGE)
     public void testTC_011_PageLoadsSuccessfully() {
         System.out.println("TC-011: Page Loads Successfully");
         try {
@@ -295,6 +370,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_012_VariousPricePoints() {
         System.out.println("TC-012: Various Price Points");
         try {
@@ -313,6 +389,7 @@ public class MockRelatedProductsTest {
     // ========== NEW TEST CASES (TC-018, 019, 020) ==========
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_018_BackButtonNavigation() {
         System.out.println("TC-018: Back Button Navigation");
         try {
@@ -328,6 +405,19 @@ public class MockRelatedProductsTest {
                 assertTrue("Product " + i + " must have href", href != null && !href.isEmpty());
             }
 
+            // Click through and back against local item pages (relative links)
+            try (LocalProductService service = LocalProductService.start(2)) {
+                relatedPage.navigateTo(service.getProductUrl());
+                NavigationTiming timing = relatedPage.measureBackNavigation(0, 3);
+                assertNull("Navigation cycles should complete", timing.getError());
+                assertEquals("Should time every cycle", 3, timing.getCycles().size());
+                for (NavigationTiming.Cycle cycle : timing.getCycles()) {
+                    assertTrue("Timings must not be negative: " + cycle,
+                            cycle.getForwardMs() >= 0 && cycle.getBackMs() >= 0);
+                }
+                assertEquals("Should be back on the product page", service.getProductUrl(), page.url());
+            }
+
             assertTrue("Related products still visible",
                     relatedPage.isRelatedProductsSectionVisible());
             System.out.println("TC-018 PASSED\n");
@@ -338,19 +428,25 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_019_DataConsistencyOnRefresh() {
         System.out.println("TC-019: Data Consistency on Refresh");
         try {
             loadMockPage(MOCK_PRODUCT_HTML);
             boolean visibleBefore = relatedPage.isRelatedProductsSectionVisible();
             int countBefore = relatedPage.getRelatedProductsCount();
+            DomSnapshot before = relatedPage.snapshotRelatedProducts();
 
             loadMockPage(MOCK_PRODUCT_HTML);
             boolean visibleAfter = relatedPage.isRelatedProductsSectionVisible();
             int countAfter = relatedPage.getRelatedProductsCount();
+            DomSnapshot after = relatedPage.snapshotRelatedProducts();
 
             assertEquals("Visibility should be consistent", visibleBefore, visibleAfter);
             assertEquals("Product count should be consistent", countBefore, countAfter);
+            assertFalse("Widget must be snapshotted", before.isEmpty());
+            DomSnapshot.Diff diff = DomSnapshot.diff(before, after);
+            assertTrue("Widget content should be identical: " + diff, diff.isIdentical());
             System.out.println("TC-019 PASSED\n");
         } catch (AssertionError e) {
             captureScreenshot("TC_019_failed");
@@ -359,6 +455,7 @@ public class MockRelatedProductsTest {
     }
 
     @Test
+    @Requires(PRODUCT_PAGE)
     public void testTC_020_ChromiumCompatibility() {
         System.out.println("TC-020: Cross-Browser (Chromium)");
         try {
@@ -389,16 +486,22 @@ public class MockRelatedProductsTest {
         try {
             String filename = SCREENSHOTS_DIR + "/" + testName + "_" +
                     System.currentTimeMillis() + ".png";
-            page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            byte[] image = page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            MetricsRegistry.getDefault().counter("screenshot_bytes_total").add(image.length);
+            ReportingListener.artifact(filename);
             System.out.println("Screenshot: " + filename);
         } catch (Exception e) {
             System.out.println("Could not capture: " + e.getMessage());
         }
+        recorder.dump(testName);
     }
 
     @After
     public void tearDown() {
         try {
+            if (recorder != null) {
+                recorder.detach();
+            }
             if (relatedPage != null && page != null && !page.isClosed()) {
                 relatedPage.closePage();
             }
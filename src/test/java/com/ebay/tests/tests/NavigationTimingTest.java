@@ -0,0 +1,78 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.NavigationTiming;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * NavigationTimingTest.java
+ * Unit tests for back/forward navigation timing summaries (no browser needed)
+ */
+public class NavigationTimingTest {
+
+    private static final List<String> NONE = Collections.emptyList();
+
+    private static NavigationTiming.Cycle restored(double forwardMs, double backMs) {
+        return new NavigationTiming.Cycle(forwardMs, backMs, true, "navigate", NONE);
+    }
+
+    private static NavigationTiming.Cycle reloaded(double forwardMs, double backMs, String... reasons) {
+        return new NavigationTiming.Cycle(forwardMs, backMs, false, "back_forward", Arrays.asList(reasons));
+    }
+
+    @Test
+    public void testRestoresAndReloadsAreSummarizedSeparately() {
+        NavigationTiming timing = new NavigationTiming();
+        timing.add(reloaded(400, 350, "MainResourceHasCacheControlNoStore (Circumstantial)"));
+        timing.add(restored(300, 12));
+        timing.add(restored(500, 8));
+        timing.add(reloaded(350, 410, "MainResourceHasCacheControlNoStore (Circumstantial)"));
+
+        assertEquals(2, timing.getRestoredCount());
+        assertEquals(2, timing.getReloadedCount());
+        assertEquals(350, timing.getForwardMedianMs(), 0.001);
+        assertEquals(8, timing.getBackMs(true, 0.5), 0.001);
+        assertEquals(12, timing.getBackMs(true, 1.0), 0.001);
+        assertEquals(350, timing.getBackMs(false, 0.5), 0.001);
+        assertEquals(Collections.singleton("MainResourceHasCacheControlNoStore (Circumstantial)"),
+                timing.getNotRestoredReasons());
+    }
+
+    @Test
+    public void testNoCyclesOfAKind() {
+        NavigationTiming timing = new NavigationTiming();
+        timing.add(reloaded(200, 300));
+        assertEquals(-1, timing.getBackMs(true, 0.5), 0.001);
+        assertTrue(timing.toString(), timing.toString().contains("0 restored (p50 -)"));
+
+        NavigationTiming empty = new NavigationTiming();
+        empty.setError("Timeout 30000ms exceeded");
+        assertEquals(-1, empty.getForwardMedianMs(), 0.001);
+        assertTrue(empty.toString().contains("stopped: Timeout 30000ms exceeded"));
+    }
+
+    @Test
+    public void testRecordSplitsMetricsByRestore() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        MetricsRegistry.Counter restores = metrics.counter("back_navigations_total", "restore", "bfcache");
+        MetricsRegistry.Timer back = metrics.timer("navigation", "direction", "back", "restore", "reload",
+                "profile", "unit-test");
+        long restoresBefore = restores.get();
+        long backBefore = back.getCount();
+
+        NavigationTiming timing = new NavigationTiming();
+        timing.add(restored(300, 12));
+        timing.add(reloaded(300, 250));
+        timing.add(restored(300, 9));
+        timing.record("unit-test");
+
+        assertEquals(2, restores.get() - restoresBefore);
+        assertEquals(1, back.getCount() - backBefore);
+        assertEquals(3, metrics.timer("navigation", "direction", "forward", "profile", "unit-test")
+                .getCount());
+    }
+}
@@ -0,0 +1,137 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.CallProfiler;
+import com.ebay.tests.metrics.InstrumentedPlaywright;
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.pages.PageHelpers;
+import com.ebay.tests.pages.RelatedProductsPage;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PageHelpersTest.java
+ * Unit tests for the injected helper library's Java side (no browser needed)
+ */
+public class PageHelpersTest {
+
+    private final AtomicInteger initScripts = new AtomicInteger();
+    private final List<String> evaluated = new ArrayList<>();
+
+    // Document state of the stub page: helpers present or not
+    private boolean helpersLoaded;
+    private Object helperResult;
+
+    private BrowserContext stubContext() {
+        return PlaywrightStubs.stub(BrowserContext.class, (method, args) -> {
+            if (method.equals("addInitScript")) {
+                initScripts.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    private Page stubPage(BrowserContext context) {
+        return PlaywrightStubs.page((method, args) -> {
+            switch (method) {
+                case "context":
+                    return context;
+                case "evaluate":
+                    return evaluate((String) args[0], args.length > 1 ? args[1] : null);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Object evaluate(String script, Object arg) {
+        if (script.equals(PageHelpers.SCRIPT)) {
+            helpersLoaded = true;
+            return null;
+        }
+        evaluated.add(String.valueOf(((List<?>) arg).get(0)));
+        return helpersLoaded ? helperResult : "__pageHelpersMissing";
+    }
+
+    @Test
+    public void testLibraryIsInjectedOncePerContext() {
+        BrowserContext context = stubContext();
+        PageHelpers.forPage(stubPage(context));
+        PageHelpers.forPage(stubPage(context));
+        assertEquals(1, initScripts.get());
+
+        PageHelpers.forPage(stubPage(stubContext()));
+        assertEquals(2, initScripts.get());
+        assertTrue(PageHelpers.SCRIPT.contains("window.__pageHelpers"));
+    }
+
+    @Test
+    public void testCallLoadsLibraryIntoDocumentWithoutIt() {
+        PageHelpers helpers = PageHelpers.forPage(stubPage(stubContext()));
+        helpersLoaded = false; // e.g. a document created before the init script was added
+        helperResult = Arrays.asList("wallet");
+
+        assertEquals(Arrays.asList("wallet"), helpers.keywords("wallet", "billfold"));
+        assertTrue(helpersLoaded);
+        assertEquals(Arrays.asList("keywords", "keywords"), evaluated);
+    }
+
+    @Test
+    public void testCardsAreReadInOneCall() {
+        PageHelpers helpers = PageHelpers.forPage(stubPage(stubContext()));
+        helperResult = cardsResult();
+
+        PageHelpers.Cards cards = helpers.cards(".product-card", "h3", "span", 6);
+
+        assertEquals(1, evaluated.size());
+        assertEquals(8, cards.getTotal());
+        assertEquals(1, cards.getCards().size());
+        assertEquals(123456789012L, cards.getCards().get(0).getId());
+        assertEquals("Leather Wallet", cards.getCards().get(0).getTitle());
+        assertEquals(24.99, cards.getCards().get(0).getPrice(), 1e-9);
+        assertEquals(42, cards.getCards().get(0).getTextLength());
+    }
+
+    @Test
+    public void testHelperCallsAreAttributedToThePageObjectMethod() {
+        helpersLoaded = true;
+        helperResult = cardsResult();
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault().timer("playwright_call",
+                "method", "RelatedProductsPage.getRelatedCards", "call", "Page.evaluate");
+        long before = timer.getCount();
+
+        CallProfiler profiler = new CallProfiler();
+        InstrumentedPlaywright.addListener(profiler);
+        try {
+            assertEquals(6, new RelatedProductsPage(stubPage(stubContext())).getRelatedProductsCount());
+        } finally {
+            InstrumentedPlaywright.removeListener(profiler);
+        }
+
+        assertEquals("Not PageHelpers.call or a lambda", before + 1, timer.getCount());
+        assertEquals(1, profiler.getCallCount("PageHelpersTest.testHelperCallsAreAttributedToThePageObjectMethod;"
+                + "RelatedProductsPage.getRelatedProductsCount;RelatedProductsPage.getRelatedCards;Page.evaluate"));
+    }
+
+    // What the cards helper returns for one wallet out of 8 cards
+    private static Map<String, Object> cardsResult() {
+        Map<String, Object> card = new HashMap<>();
+        card.put("href", "https://www.ebay.com/itm/Leather-Wallet/123456789012");
+        card.put("id", "123456789012");
+        card.put("title", "Leather Wallet");
+        card.put("priceText", "$24.99");
+        card.put("price", 24.99);
+        card.put("textLength", 42);
+        Map<String, Object> result = new HashMap<>();
+        result.put("total", 8);
+        result.put("cards", Arrays.asList(card));
+        return result;
+    }
+}
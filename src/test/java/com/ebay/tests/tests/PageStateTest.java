@@ -0,0 +1,121 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.PageState;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * PageStateTest.java
+ * Unit tests for memoized page state and its invalidation (no browser needed)
+ */
+public class PageStateTest {
+
+    // Version stamp the page reports ("document id:mutation count"), and how often it was asked
+    private final AtomicReference<String> stamp = new AtomicReference<>("doc1:0");
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private Page stubPage() {
+        return PlaywrightStubs.page((method, args) -> {
+            if (method.equals("evaluate")) {
+                evaluations.incrementAndGet();
+                return stamp.get();
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testValuesAreComputedOnceUntilDomMutates() {
+        PageState state = PageState.forPage(stubPage());
+        AtomicInteger reads = new AtomicInteger();
+        Supplier<Integer> countCards = () -> {
+            reads.incrementAndGet();
+            return 6;
+        };
+
+        assertTrue(state.isCaching());
+        int installed = evaluations.get();
+        assertEquals(Integer.valueOf(6), state.get("relatedCount", countCards));
+        assertEquals(Integer.valueOf(6), state.get("relatedCount", countCards));
+        assertEquals(1, reads.get());
+        assertEquals("One stamp read per lookup", installed + 2, evaluations.get());
+
+        // MutationObserver in the page bumped the version
+        stamp.set("doc1:1");
+        state.get("relatedCount", countCards);
+        assertEquals(2, reads.get());
+        state.get("relatedCount", countCards);
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testNavigationDropsValues() {
+        PageState state = PageState.forPage(stubPage());
+        AtomicInteger reads = new AtomicInteger();
+        Supplier<String> title = () -> {
+            reads.incrementAndGet();
+            return "Leather Wallet";
+        };
+
+        state.get("mainTitle", title);
+        // New document: new id, counter starts again
+        stamp.set("doc2:0");
+        state.get("mainTitle", title);
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testPageWithoutStampIsNotCached() {
+        stamp.set(null);
+        PageState state = PageState.forPage(stubPage());
+        AtomicInteger reads = new AtomicInteger();
+
+        state.get("relatedCount", () -> reads.incrementAndGet());
+        state.get("relatedCount", () -> reads.incrementAndGet());
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testStateIsSharedPerPage() {
+        Page page = stubPage();
+        assertSame(PageState.forPage(page), PageState.forPage(page));
+        assertNotSame(PageState.forPage(page), PageState.forPage(stubPage()));
+    }
+
+    @Test
+    public void testValueReadAcrossInvalidationIsNotCached() {
+        PageState state = PageState.forPage(stubPage());
+        AtomicInteger reads = new AtomicInteger();
+
+        state.get("mainTitle", () -> {
+            reads.incrementAndGet();
+            state.invalidate(); // page navigated while we were reading
+            return "Leather Wallet";
+        });
+        state.get("mainTitle", () -> {
+            reads.incrementAndGet();
+            return "Leather Wallet";
+        });
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testFailedReadsAreNotCached() {
+        PageState state = PageState.forPage(stubPage());
+        AtomicInteger reads = new AtomicInteger();
+
+        state.get("content", () -> {
+            reads.incrementAndGet();
+            return null;
+        });
+        state.get("content", () -> {
+            reads.incrementAndGet();
+            return null;
+        });
+        assertEquals(2, reads.get());
+    }
+}
@@ -0,0 +1,95 @@
+package com.ebay.tests.tests;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import java.lang.reflect.Proxy;
+
+/**
+ * PlaywrightStubs.java
+ * In-memory Playwright interfaces for unit tests that must not start a browser
+ *
+ * A stub answers each call through an Answer; equals/hashCode/toString are
+ * identity-based, and unanswered calls return null (false / 0 for primitives).
+ */
+final class PlaywrightStubs {
+
+    private PlaywrightStubs() {
+    }
+
+    /**
+     * What a stub returns for a call, or null for the default
+     */
+    interface Answer {
+        Object answer(String method, Object[] args) throws Throwable;
+    }
+
+    static <T> T stub(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return type.getSimpleName() + "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+                        default:
+                            break;
+                    }
+                    Object result = answer.answer(method.getName(), args != null ? args : new Object[0]);
+                    if (result == null && method.getReturnType().isPrimitive()) {
+                        return defaultValue(method.getReturnType());
+                    }
+                    return result;
+                }));
+    }
+
+    static Page page(Answer answer) {
+        return stub(Page.class, answer);
+    }
+
+    /**
+     * Page whose context opens CDP sessions answered by cdp (method name, params)
+     */
+    static Page cdpPage(Answer cdp) {
+        CDPSession session = stub(CDPSession.class, (method, args) ->
+                method.equals("send") ? cdp.answer((String) args[0], args) : null);
+        BrowserContext context = stub(BrowserContext.class, (method, args) ->
+                method.equals("newCDPSession") ? session : null);
+        return page((method, args) -> method.equals("context") ? context : null);
+    }
+
+    // Page whose title() is the product page's
+    static Page titledPage() {
+        return page((method, args) -> method.equals("title") ? "Leather Wallet | eBay" : null);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == void.class) {
+            return null;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
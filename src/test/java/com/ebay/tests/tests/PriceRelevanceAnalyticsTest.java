@@ -0,0 +1,83 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.utils.KllSketch;
+import com.ebay.tests.utils.PriceRelevanceAnalytics;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PriceRelevanceAnalyticsTest.java
+ * Unit tests for the quantile sketch and price delta analytics (no browser needed)
+ */
+public class PriceRelevanceAnalyticsTest {
+
+    @Test
+    public void testSketchQuantilesStayAccurateAndBounded() {
+        KllSketch sketch = new KllSketch();
+        int n = 200_000;
+        for (int i = 0; i < n; i++) {
+            sketch.update((i * 7919L) % n); // Every value once, shuffled order
+        }
+
+        assertEquals(n, sketch.getCount());
+        assertTrue("Retained items must stay bounded", sketch.retainedItems() < 4 * KllSketch.DEFAULT_K);
+        assertEquals(0.5 * n, sketch.quantile(0.5), 0.02 * n);
+        assertEquals(0.99 * n, sketch.quantile(0.99), 0.02 * n);
+        assertEquals(0, sketch.getMin(), 0);
+        assertEquals(n - 1, sketch.getMax(), 0);
+    }
+
+    @Test
+    public void testMergedSketchMatchesSingleStream() {
+        KllSketch left = new KllSketch();
+        KllSketch right = new KllSketch();
+        for (int i = 0; i < 50_000; i++) {
+            left.update(i);
+            right.update(50_000 + i);
+        }
+
+        left.merge(right);
+        assertEquals(100_000, left.getCount());
+        assertEquals(50_000, left.quantile(0.5), 2_000);
+    }
+
+    @Test
+    public void testAnalyticsAggregatesAcrossThreads() throws InterruptedException {
+        PriceRelevanceAnalytics analytics = new PriceRelevanceAnalytics();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int page = 0; page < 1000; page++) {
+                    // Mirrors mock_ebay_product.html: main $29.99, six related prices
+                    analytics.recordPage(29.99, new double[]{24.99, 19.99, 34.99, 22.99, 49.99, 18.99});
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        PriceRelevanceAnalytics.Summary summary = analytics.summarize();
+        System.out.println(summary);
+        assertEquals(4000, summary.getPageCount());
+        assertEquals(24000, summary.getPairCount());
+        assertEquals(2.0 / 6.0, summary.getInRangeFraction(), 1e-9);
+        assertEquals((49.99 - 29.99) / 29.99, summary.getMaxDelta(), 1e-9);
+    }
+
+    @Test
+    public void testMissingPricesAreSkipped() {
+        PriceRelevanceAnalytics analytics = new PriceRelevanceAnalytics();
+        analytics.record(0, 10);
+        analytics.record(10, 0);
+        analytics.record(10, 11);
+
+        PriceRelevanceAnalytics.Summary summary = analytics.summarize();
+        assertEquals(1, summary.getPairCount());
+        assertEquals(2, summary.getSkippedPairs());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.pages.RelatedCardTracker;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.BindingCallback;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RelatedCardTrackerTest.java
+ * Unit tests for streamed card tracking, fed with the page's batches (no browser needed)
+ */
+public class RelatedCardTrackerTest {
+
+    private final AtomicReference<BindingCallback> binding = new AtomicReference<>();
+    private RelatedCardTracker tracker;
+
+    @Before
+    public void setUp() {
+        Page stub = PlaywrightStubs.page((method, args) -> {
+            if (method.equals("exposeBinding")) {
+                binding.set((BindingCallback) args[1]);
+            }
+            return null;
+        });
+        tracker = RelatedCardTracker.forPage(stub, ".product-card");
+    }
+
+    // What the in-page observer sends after a DOM change
+    private void send(String json) {
+        binding.get().call(null, json);
+    }
+
+    @Test
+    public void testCardsStreamInAsCarouselLoads() {
+        List<String> added = new ArrayList<>();
+        tracker.addListener(new RelatedCardTracker.Listener() {
+            @Override
+            public void onCardAdded(RelatedCardTracker.Card card) {
+                added.add(card.getHref());
+            }
+
+            @Override
+            public void onCardRemoved(RelatedCardTracker.Card card) {
+            }
+        });
+
+        send("{doc:'a', t:120.5, events:["
+                + "{type:'add', id:1, href:'https://www.ebay.com/itm/101', text:'Wallet 1'},"
+                + "{type:'add', id:2, href:'https://www.ebay.com/itm/102', text:'Wallet 2'}]}");
+        send("{doc:'a', t:480.0, events:["
+                + "{type:'remove', id:1},"
+                + "{type:'add', id:3, href:'https://www.ebay.com/itm/103', text:'Wallet 3'},"
+                + "{type:'add', id:4, href:'https://www.ebay.com/itm/104', text:'Wallet 4'}]}");
+
+        assertEquals(3, tracker.getCardCount());
+        assertEquals(4, tracker.getTotalSeen());
+        assertEquals(4, added.size());
+        assertEquals("https://www.ebay.com/itm/102", tracker.getCards().get(0).getHref());
+        assertEquals(120.5, tracker.getTimeToCardsMs(2), 0.001);
+        assertEquals(480.0, tracker.getTimeToCardsMs(3), 0.001);
+        assertEquals(-1, tracker.getTimeToCardsMs(4), 0.001);
+    }
+
+    @Test
+    public void testNewDocumentResetsCards() {
+        send("{doc:'a', t:50, events:[{type:'add', id:1, href:'', text:''}]}");
+        send("{doc:'b', t:30, events:[{type:'add', id:1, href:'', text:''}, {type:'add', id:2, href:'', text:''}]}");
+
+        assertEquals(2, tracker.getCardCount());
+        assertEquals(2, tracker.getTotalSeen());
+        assertEquals(30, tracker.getTimeToCardsMs(1), 0.001);
+    }
+
+    @Test
+    public void testWaitForCardsReportsShortfall() {
+        send("{doc:'a', t:50, events:[{type:'add', id:1, href:'', text:''}]}");
+        assertTrue(tracker.waitForCards(1, 100));
+        assertFalse(tracker.waitForCards(6, 100));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.metrics.MetricsRegistry;
+import com.ebay.tests.runner.Cached;
+import com.ebay.tests.runner.ResultCache;
+import com.ebay.tests.runner.ResultCacheRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ResultCacheTest.java
+ * Unit tests for reusing passes of unchanged hermetic tests (no browser needed)
+ */
+public class ResultCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ResultCache cache;
+    private static int setUps;
+    private static int bodies;
+    private static boolean failing;
+
+    private Path fixture;
+
+    @Before
+    public void setUp() throws IOException {
+        Files.createDirectories(folder.getRoot().toPath().resolve("fixtures"));
+        fixture = folder.getRoot().toPath().resolve("fixtures/product.html");
+        Files.write(fixture, "<div class='card'>1</div>".getBytes(StandardCharsets.UTF_8));
+        failing = false;
+        System.clearProperty("result.cache");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("result.cache");
+    }
+
+    @Test
+    public void testUnchangedTestIsReportedAsCachedPass() {
+        Result first = run();
+        assertTrue(first.wasSuccessful());
+        assertEquals(2, bodies);
+
+        Result second = run();
+        assertTrue(second.wasSuccessful());
+        assertEquals(2, second.getRunCount());
+        assertEquals("Cached tests must not run setUp", 0, setUps);
+        assertEquals(0, bodies);
+    }
+
+    @Test
+    public void testChangedFixtureReruns() throws IOException {
+        run();
+        Files.write(fixture, "<div class='card'>2</div>".getBytes(StandardCharsets.UTF_8));
+
+        run();
+        assertEquals(2, bodies);
+        run();
+        assertEquals(0, bodies);
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        failing = true;
+        assertEquals(1, run().getFailureCount());
+        assertEquals(1, run().getFailureCount());
+        assertEquals("Only the failing test must run again", 1, bodies);
+    }
+
+    @Test
+    public void testVerifyModeRerunsAndReportsStalePasses() {
+        run();
+        MetricsRegistry.Counter stale = MetricsRegistry.getDefault().counter("result_cache_total", "outcome", "stale");
+        long staleBefore = stale.get();
+
+        // Same inputs, different result: only a rerun can tell
+        failing = true;
+        System.setProperty("result.cache", "verify");
+        Result verified = run();
+        assertEquals(2, bodies);
+        assertEquals(1, verified.getFailureCount());
+        assertEquals(staleBefore + 1, stale.get());
+
+        // The stale pass is dropped, so the normal mode runs it again
+        System.clearProperty("result.cache");
+        assertEquals(1, run().getFailureCount());
+    }
+
+    @Test
+    public void testKeyDependsOnTestNameAndProperties() {
+        ResultCache store = newCache();
+        String key = store.key(SampleSuite.class, "testPassing");
+        assertEquals(key, store.key(SampleSuite.class, "testPassing"));
+        assertNotEquals(key, store.key(SampleSuite.class, "testSometimesFailing"));
+        assertNull("Classes without @Cached have no key", store.key(ResultCacheTest.class, "testPassing"));
+
+        System.setProperty("device.profile", "mobile-3g");
+        try {
+            assertNotEquals(key, newCache().key(SampleSuite.class, "testPassing"));
+        } finally {
+            System.clearProperty("device.profile");
+        }
+    }
+
+    // A fresh cache over the same store, as a new mvn run would see it
+    private ResultCache newCache() {
+        return new ResultCache(folder.getRoot().toPath().resolve("results.properties"), folder.getRoot().toPath());
+    }
+
+    private Result run() {
+        cache = newCache();
+        setUps = 0;
+        bodies = 0;
+        return new JUnitCore().run(SampleSuite.class);
+    }
+
+    /**
+     * Not picked up by surefire (nested class); run through JUnitCore above
+     */
+    @Cached(inputs = "fixtures/*.html")
+    public static class SampleSuite {
+
+        @Rule(order = Integer.MIN_VALUE)
+        public ResultCacheRule resultCacheRule = new ResultCacheRule(cache);
+
+        @Before
+        public void setUp() {
+            setUps++;
+        }
+
+        @Test
+        public void testPassing() {
+            bodies++;
+        }
+
+        @Test
+        public void testSometimesFailing() {
+            bodies++;
+            assertFalse("Broken", failing);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.runner.FlakinessStore;
+import com.ebay.tests.runner.QuarantineFilter;
+import com.ebay.tests.runner.RetryBudget;
+import com.ebay.tests.runner.RetryRule;
+import org.junit.AssumptionViolatedException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * RetryRuleTest.java
+ * Unit tests for retries, flakiness scoring and quarantine lanes (no browser needed)
+ */
+public class RetryRuleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FlakinessStore store;
+    private final Description description =
+            Description.createTestDescription("com.example.SampleTest", "testSomething");
+    private final String testId = "com.example.SampleTest#testSomething";
+
+    @Before
+    public void setUp() throws IOException {
+        store = new FlakinessStore(folder.newFolder().toPath().resolve("scores.properties"));
+    }
+
+    @Test
+    public void testPassOnRetryIsRecordedAsFlaky() throws Throwable {
+        RetryRule rule = new RetryRule(2, new RetryBudget(60000), store, "all");
+        CountingStatement statement = new CountingStatement(1);
+
+        rule.apply(statement, description).evaluate();
+
+        assertEquals(2, statement.runs);
+        assertTrue(store.getScore(testId) > 0);
+    }
+
+    @Test
+    public void testExhaustedBudgetStopsRetries() {
+        RetryRule rule = new RetryRule(3, new RetryBudget(0), store, "all");
+        CountingStatement statement = new CountingStatement(5);
+
+        try {
+            rule.apply(statement, description).evaluate();
+            fail("Failure must propagate");
+        } catch (Throwable expected) {
+            assertEquals("attempt 1 failed", expected.getMessage());
+        }
+        assertEquals(1, statement.runs);
+    }
+
+    @Test
+    public void testLanesAreFilteredAtDiscovery() {
+        for (int i = 0; i < 3; i++) {
+            store.record(testId, FlakinessStore.Outcome.FLAKY);
+        }
+        TestDescriptor quarantined = testDescriptor("testSomething");
+        TestDescriptor stable = testDescriptor("testStable");
+
+        QuarantineFilter main = new QuarantineFilter(store, "main");
+        assertTrue(main.apply(quarantined).excluded());
+        assertTrue(main.apply(stable).included());
+
+        QuarantineFilter quarantine = new QuarantineFilter(store, "quarantine");
+        assertTrue(quarantine.apply(quarantined).included());
+        assertTrue(quarantine.apply(stable).excluded());
+
+        assertTrue(new QuarantineFilter(store, "all").apply(stable).included());
+    }
+
+    private static TestDescriptor testDescriptor(String method) {
+        return new AbstractTestDescriptor(UniqueId.forEngine("sample").append("test", method), method,
+                MethodSource.from("com.example.SampleTest", method)) {
+            @Override
+            public Type getType() {
+                return Type.TEST;
+            }
+        };
+    }
+
+    @Test
+    public void testChronicFlakesMoveToQuarantineLane() throws Throwable {
+        for (int i = 0; i < 3; i++) {
+            store.record(testId, FlakinessStore.Outcome.FLAKY);
+        }
+        assertTrue(store.isQuarantined(testId));
+
+        try {
+            new RetryRule(2, new RetryBudget(60000), store, "main")
+                    .apply(new CountingStatement(0), description).evaluate();
+            fail("Quarantined test must be skipped in main lane");
+        } catch (AssumptionViolatedException expected) {
+            System.out.println("Skipped: " + expected.getMessage());
+        }
+
+        CountingStatement statement = new CountingStatement(0);
+        new RetryRule(2, new RetryBudget(60000), store, "quarantine").apply(statement, description).evaluate();
+        assertEquals(1, statement.runs);
+    }
+
+    @Test
+    public void testScoresArePersisted() {
+        store.record(testId, FlakinessStore.Outcome.FLAKY);
+        double score = store.getScore(testId);
+
+        FlakinessStore reloaded = new FlakinessStore(folder.getRoot().toPath()
+                .resolve(folder.getRoot().list()[0]).resolve("scores.properties"));
+        assertEquals(score, reloaded.getScore(testId), 1e-4);
+    }
+
+    @Test
+    public void testConcurrentStoresMergeTheirUpdates() throws IOException {
+        Path file = folder.newFolder().toPath().resolve("scores.properties");
+        FlakinessStore first = new FlakinessStore(file);
+        FlakinessStore second = new FlakinessStore(file);
+
+        first.record(testId, FlakinessStore.Outcome.FLAKY);
+        second.record(testId, FlakinessStore.Outcome.FLAKY);
+        second.record("com.example.SampleTest#testOther", FlakinessStore.Outcome.PASSED);
+        first.record(testId, FlakinessStore.Outcome.FLAKY);
+
+        FlakinessStore reloaded = new FlakinessStore(file);
+        assertTrue("Three flaky runs from both stores", reloaded.isQuarantined(testId));
+        assertEquals(0, reloaded.getScore("com.example.SampleTest#testOther"), 1e-9);
+        assertEquals(reloaded.getScore(testId), first.getScore(testId), 1e-9);
+    }
+
+    // Fails the first N runs, then passes
+    private static class CountingStatement extends Statement {
+        private final int failures;
+        int runs;
+
+        CountingStatement(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void evaluate() {
+            runs++;
+            if (runs <= failures) {
+                throw new AssertionError("attempt " + runs + " failed");
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.reporting.EventBus;
+import com.ebay.tests.reporting.ReportingListener;
+import com.ebay.tests.reporting.StreamingReport;
+import com.ebay.tests.reporting.TestEvent;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * StreamingReportTest.java
+ * Unit tests for the event bus, the streaming report file and its listener (no browser needed)
+ */
+public class StreamingReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThousandsOfEventsThroughASmallQueue() throws IOException {
+        EventBus bus = new EventBus(8);
+        try (StreamingReport report = StreamingReport.open(folder.getRoot().toPath())) {
+            bus.subscribe(report);
+            for (int i = 0; i < 5000; i++) {
+                bus.publish(TestEvent.testFinished("[test:" + i + "]", "Sample", "test" + i, "passed", i, null));
+            }
+            assertTrue("Events should be written", bus.flush(10000));
+
+            List<String> lines = Files.readAllLines(report.getEventsFile(), StandardCharsets.UTF_8);
+            assertEquals(5000, lines.size());
+            for (int i = 0; i < lines.size(); i += 999) {
+                JsonObject event = JsonParser.parseString(lines.get(i)).getAsJsonObject();
+                assertEquals("test_finished", event.get("type").getAsString());
+                assertEquals("Events keep publish order", "test" + i, event.get("name").getAsString());
+                assertEquals(i, event.get("ms").getAsLong());
+            }
+            assertTrue(Files.exists(report.getDir().resolve("index.html")));
+        }
+    }
+
+    @Test
+    public void testLeftoverEventsAreDroppedButSiblingForksKept() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        Path events = dir.resolve(StreamingReport.EVENTS_FILE);
+        Files.write(events, "{\"type\":\"run_started\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        // Written after this JVM started: another fork of the same run
+        StreamingReport.open(dir).close();
+        assertEquals(1, Files.readAllLines(events, StandardCharsets.UTF_8).size());
+
+        Files.setLastModifiedTime(events, FileTime.fromMillis(0));
+        StreamingReport.open(dir).close();
+        assertEquals(0, Files.size(events));
+    }
+
+    @Test
+    public void testListenerReportsTestsAsTheyRun() {
+        EventBus bus = new EventBus(16);
+        final List<TestEvent> events = Collections.synchronizedList(new ArrayList<TestEvent>());
+        bus.subscribe(events::add);
+
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false).build());
+        launcher.execute(LauncherDiscoveryRequestBuilder.request().selectors(selectClass(SampleSuite.class)).build(),
+                new ReportingListener(bus));
+
+        assertEquals(TestEvent.Type.RUN_STARTED, events.get(0).getType());
+        assertEquals(3, events.get(0).getCount());
+        TestEvent last = events.get(events.size() - 1);
+        assertEquals(TestEvent.Type.RUN_FINISHED, last.getType());
+        assertEquals("1 passed, 1 failed, 1 skipped", last.getMessage());
+
+        TestEvent failed = find(events, TestEvent.Type.TEST_FINISHED, "testFailing");
+        assertEquals("failed", failed.getStatus());
+        assertEquals(SampleSuite.class.getName(), failed.getClassName());
+        assertTrue(failed.getMessage(), failed.getMessage().contains("Price missing"));
+        assertTrue(failed.getDurationMs() >= 0);
+
+        TestEvent artifact = null;
+        for (TestEvent event : events) {
+            if (event.getType() == TestEvent.Type.ARTIFACT) {
+                artifact = event;
+            }
+        }
+        assertNotNull("Artifact should be reported", artifact);
+        assertEquals("Artifact belongs to the failing test", failed.getTestId(), artifact.getTestId());
+        assertEquals("target/screenshots/failing.png", artifact.getPath());
+        assertEquals("skipped", find(events, TestEvent.Type.TEST_FINISHED, "testIgnored").getStatus());
+        assertEquals("passed", find(events, TestEvent.Type.TEST_FINISHED, "testPassing").getStatus());
+    }
+
+    @Test
+    public void testDashboardReadsOnlyNewBytes() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        EventBus bus = new EventBus(4);
+        HttpServer server = null;
+        try (StreamingReport report = StreamingReport.open(dir)) {
+            bus.subscribe(report);
+            bus.publish(TestEvent.runStarted(2));
+            bus.publish(TestEvent.testStarted("[test:1]", "Sample", "testOne"));
+            bus.flush(10000);
+            long offset = Files.size(report.getEventsFile());
+            bus.publish(TestEvent.testFinished("[test:1]", "Sample", "testOne", "passed", 12, null));
+            bus.flush(10000);
+
+            server = StreamingReport.startHttpServer(dir, 0);
+            String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            HttpURLConnection page = (HttpURLConnection) new URL(base).openConnection();
+            assertEquals(200, page.getResponseCode());
+            assertTrue(read(page).contains("events.ndjson"));
+
+            HttpURLConnection tail = (HttpURLConnection) new URL(base + "events.ndjson").openConnection();
+            tail.setRequestProperty("Range", "bytes=" + offset + "-");
+            assertEquals(206, tail.getResponseCode());
+            String body = read(tail);
+            assertTrue(body, body.startsWith("{\"type\":\"test_finished\""));
+            assertEquals(1, body.split("\n").length);
+
+            HttpURLConnection none = (HttpURLConnection) new URL(base + "events.ndjson").openConnection();
+            none.setRequestProperty("Range", "bytes=" + Files.size(report.getEventsFile()) + "-");
+            assertEquals(416, none.getResponseCode());
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    private static TestEvent find(List<TestEvent> events, TestEvent.Type type, String name) {
+        for (TestEvent event : events) {
+            if (event.getType() == type && event.getName().startsWith(name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("No " + type + " for " + name + " in " + events);
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Not picked up by surefire (nested class); run through the Launcher above
+     */
+    public static class SampleSuite {
+
+        @Test
+        public void testPassing() {
+        }
+
+        @Test
+        public void testFailing() {
+            ReportingListener.artifact("target/screenshots/failing.png");
+            fail("Price missing");
+        }
+
+        @Ignore("Needs the live site")
+        @Test
+        public void testIgnored() {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ebay.tests.tests;
+
+import com.ebay.tests.utils.TimedRingBuffer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+
+/**
+ * TimedRingBufferTest.java
+ * Unit tests for the flight recorder's bounded event ring (no browser needed)
+ */
+public class TimedRingBufferTest {
+
+    @Test
+    public void testOverwritesOldestWhenFull() {
+        TimedRingBuffer<String> ring = new TimedRingBuffer<>(3, 60000);
+        for (String event : new String[]{"a", "b", "c", "d"}) {
+            ring.add(event, 1000);
+        }
+
+        assertEquals(Arrays.asList("b", "c", "d"), ring.snapshot(1000));
+        assertEquals(1, ring.getDropped());
+    }
+
+    @Test
+    public void testDropsEventsOutsideWindow() {
+        TimedRingBuffer<String> ring = new TimedRingBuffer<>(10, 5000);
+        ring.add("old", 1000);
+        ring.add("recent", 8000);
+
+        assertEquals(Arrays.asList("recent"), ring.snapshot(10000));
+        assertEquals(1, ring.size());
+    }
+}
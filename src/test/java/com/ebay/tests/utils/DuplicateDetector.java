@@ -0,0 +1,217 @@
+package com.ebay.tests.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DuplicateDetector.java
+ * Detects duplicate related products within a page and across a whole run
+ *
+ * Item ids are stored as primitive longs in a fixed-capacity LongHashSet.
+ * An optional Bloom filter sits in front of the set: ids it has never seen
+ * skip the exact probe, and once the exact set is full the filter keeps
+ * reporting (possible) cross-run duplicates. Memory never grows past what
+ * was allocated in the constructor.
+ */
+public class DuplicateDetector {
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.001;
+
+    private final LongHashSet seenIds;
+    private final LongBloomFilter bloomFilter;
+
+    private long pagesChecked;
+    private long idsChecked;
+    private long crossRunDuplicates;
+    private long untrackedIds;
+
+    /**
+     * Exact detection only
+     * @param maxRunIds number of distinct ids remembered across the run
+     */
+    public DuplicateDetector(int maxRunIds) {
+        this(maxRunIds, 0);
+    }
+
+    /**
+     * @param maxRunIds number of distinct ids remembered exactly
+     * @param bloomExpectedIds expected distinct ids for the Bloom front (0 disables it)
+     */
+    public DuplicateDetector(int maxRunIds, long bloomExpectedIds) {
+        this.seenIds = new LongHashSet(maxRunIds);
+        this.bloomFilter = bloomExpectedIds > 0
+                ? new LongBloomFilter(bloomExpectedIds, BLOOM_FALSE_POSITIVE_RATE)
+                : null;
+    }
+
+    /**
+     * Check the product hrefs of one page
+     * @param pageUrl page the hrefs came from (for reporting)
+     * @param hrefs related product URLs
+     */
+    public Result checkPage(String pageUrl, List<String> hrefs) {
+        long[] ids = new long[hrefs.size()];
+        int count = 0;
+        for (String href : hrefs) {
+            long id = ItemIds.parse(href);
+            if (id != ItemIds.NO_ID) {
+                ids[count++] = id;
+            }
+        }
+        return checkPage(pageUrl, ids, count);
+    }
+
+    /**
+     * Check the item ids of one page
+     * @param pageUrl page the ids came from (for reporting)
+     * @param ids item ids
+     * @param count number of valid entries in ids
+     */
+    public synchronized Result checkPage(String pageUrl, long[] ids, int count) {
+        pagesChecked++;
+        idsChecked += count;
+
+        List<Long> pageDuplicates = findPageDuplicates(ids, count);
+        List<Long> runDuplicates = new ArrayList<>();
+        boolean approximate = false;
+
+        LongHashSet onPage = new LongHashSet(Math.max(1, count));
+        for (int i = 0; i < count; i++) {
+            long id = ids[i];
+            if (!onPage.add(id)) {
+                continue; // Already reported as a page duplicate
+            }
+
+            if (isKnown(id)) {
+                runDuplicates.add(id);
+                crossRunDuplicates++;
+                if (!seenIds.contains(id)) {
+                    approximate = true; // Only the Bloom filter has seen it
+                }
+            } else {
+                remember(id);
+            }
+        }
+
+        return new Result(pageUrl, pageDuplicates, runDuplicates, approximate);
+    }
+
+    /**
+     * Within-page duplicates only, without touching run state
+     */
+    public static List<Long> findPageDuplicates(long[] ids, int count) {
+        if (count < 2) {
+            return Collections.emptyList();
+        }
+
+        List<Long> duplicates = new ArrayList<>();
+        LongHashSet onPage = new LongHashSet(count);
+        LongHashSet reported = null;
+        for (int i = 0; i < count; i++) {
+            if (!onPage.add(ids[i])) {
+                if (reported == null) {
+                    reported = new LongHashSet(count);
+                }
+                if (reported.add(ids[i])) {
+                    duplicates.add(ids[i]);
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    public synchronized long getPagesChecked() {
+        return pagesChecked;
+    }
+
+    public synchronized long getIdsChecked() {
+        return idsChecked;
+    }
+
+    public synchronized long getCrossRunDuplicates() {
+        return crossRunDuplicates;
+    }
+
+    /**
+     * Ids seen after the exact set filled up with no Bloom filter to fall back on
+     */
+    public synchronized long getUntrackedIds() {
+        return untrackedIds;
+    }
+
+    public long memoryBytes() {
+        return seenIds.memoryBytes() + (bloomFilter != null ? bloomFilter.memoryBytes() : 0);
+    }
+
+    private boolean isKnown(long id) {
+        if (bloomFilter != null && !bloomFilter.mightContain(id)) {
+            return false; // Definitely new, skip the exact probe
+        }
+        if (seenIds.contains(id)) {
+            return true;
+        }
+        // Exact set full: the Bloom filter is the only record left
+        return bloomFilter != null && seenIds.isFull();
+    }
+
+    private void remember(long id) {
+        if (bloomFilter != null) {
+            bloomFilter.put(id);
+        }
+        if (!seenIds.isFull()) {
+            seenIds.add(id);
+        } else if (bloomFilter == null) {
+            untrackedIds++;
+        }
+    }
+
+    /**
+     * Duplicate report for a single page
+     */
+    public static class Result {
+
+        private final String pageUrl;
+        private final List<Long> pageDuplicates;
+        private final List<Long> runDuplicates;
+        private final boolean approximate;
+
+        Result(String pageUrl, List<Long> pageDuplicates, List<Long> runDuplicates, boolean approximate) {
+            this.pageUrl = pageUrl;
+            this.pageDuplicates = Collections.unmodifiableList(pageDuplicates);
+            this.runDuplicates = Collections.unmodifiableList(runDuplicates);
+            this.approximate = approximate;
+        }
+
+        public String getPageUrl() {
+            return pageUrl;
+        }
+
+        // Ids repeated on the same page
+        public List<Long> getPageDuplicates() {
+            return pageDuplicates;
+        }
+
+        // Ids already seen on an earlier page in this run
+        public List<Long> getRunDuplicates() {
+            return runDuplicates;
+        }
+
+        // True if some run duplicates come from the Bloom filter only
+        public boolean isApproximate() {
+            return approximate;
+        }
+
+        public boolean hasPageDuplicates() {
+            return !pageDuplicates.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "DuplicateResult{page=" + pageUrl +
+                    ", pageDuplicates=" + pageDuplicates +
+                    ", runDuplicates=" + runDuplicates +
+                    (approximate ? ", approximate" : "") + "}";
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.ebay.tests.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * FixtureCorpus.java
+ * Packed, indexed container of saved item pages (one file instead of thousands)
+ *
+ * Layout (big-endian):
+ *   header  magic "EBFC", version, entry count, reserved, index offset, index length
+ *   data    entry bodies, each stored raw or deflate-compressed (whichever is smaller)
+ *   index   per entry, sorted by item id: id, offset, stored length, raw length,
+ *           codec, CRC32 of the raw bytes, name
+ *
+ * The reader memory-maps the file (FileChannel.map) and keeps only the index on
+ * the heap: get(itemId) is a binary search plus one decompression, and
+ * iteration streams entries in file order. Bodies are checked against their
+ * CRC32 on read.
+ *
+ * Pack loose pages with:
+ *   java -cp target/test-classes com.ebay.tests.utils.FixtureCorpus pack <dir> <glob> <out.corpus>
+ */
+public class FixtureCorpus implements Iterable<FixtureCorpus.Entry>, AutoCloseable {
+
+    /**
+     * How entry bodies are stored
+     */
+    public enum Codec {
+        NONE, DEFLATE
+    }
+
+    private static final int MAGIC = 0x45424643; // "EBFC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    // Entries are grouped into mappings of at most this size (a MappedByteBuffer is int-indexed)
+    private static final long MAX_REGION_BYTES = Integer.MAX_VALUE;
+
+    private static final Pattern ITEM_ID_IN_NAME = Pattern.compile("(\\d{6,18})");
+
+    private final Path path;
+    private final FileChannel channel;
+
+    // Index, sorted by id
+    private final long[] ids;
+    private final long[] offsets;
+    private final int[] storedLengths;
+    private final int[] rawLengths;
+    private final byte[] codecs;
+    private final int[] crcs;
+    private final String[] names;
+    private final Map<String, Integer> byName = new HashMap<>();
+
+    // Index positions in file order, and the mapping each entry lives in
+    private final int[] fileOrder;
+    private final MappedByteBuffer[] regions;
+    private final long[] regionStarts;
+    private final int[] regionOf;
+
+    private FixtureCorpus(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException(path + " is not a fixture corpus");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException(path + ": unsupported corpus version " + version);
+        }
+        int count = header.getInt();
+        header.getInt();
+        long indexOffset = header.getLong();
+        long indexLength = header.getLong();
+
+        ids = new long[count];
+        offsets = new long[count];
+        storedLengths = new int[count];
+        rawLengths = new int[count];
+        codecs = new byte[count];
+        crcs = new int[count];
+        names = new String[count];
+
+        ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexLength);
+        for (int i = 0; i < count; i++) {
+            ids[i] = index.getLong();
+            offsets[i] = index.getLong();
+            storedLengths[i] = index.getInt();
+            rawLengths[i] = index.getInt();
+            codecs[i] = index.get();
+            crcs[i] = index.getInt();
+            byte[] name = new byte[index.getShort() & 0xFFFF];
+            index.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            byName.put(names[i], i);
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(offsets[a], offsets[b]));
+        fileOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            fileOrder[i] = order[i];
+        }
+
+        // Map the data section in as few regions as possible, never splitting an entry
+        List<MappedByteBuffer> mapped = new ArrayList<>();
+        List<Long> starts = new ArrayList<>();
+        regionOf = new int[count];
+        int i = 0;
+        while (i < count) {
+            long start = offsets[fileOrder[i]];
+            long end = start;
+            int first = i;
+            while (i < count && offsets[fileOrder[i]] + storedLengths[fileOrder[i]] - start <= MAX_REGION_BYTES) {
+                end = offsets[fileOrder[i]] + storedLengths[fileOrder[i]];
+                regionOf[fileOrder[i]] = mapped.size();
+                i++;
+            }
+            if (i == first) {
+                throw new IOException(path + ": entry " + ids[fileOrder[i]] + " is too large");
+            }
+            mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            starts.add(start);
+        }
+        regions = mapped.toArray(new MappedByteBuffer[0]);
+        regionStarts = new long[starts.size()];
+        for (int r = 0; r < regionStarts.length; r++) {
+            regionStarts[r] = starts.get(r);
+        }
+    }
+
+    /**
+     * Open a corpus for reading
+     */
+    public static FixtureCorpus open(Path path) {
+        try {
+            return new FixtureCorpus(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open fixture corpus " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write a new corpus (entries can be added in any order)
+     */
+    public static Writer create(Path path, Codec codec) {
+        try {
+            return new Writer(path, codec);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create fixture corpus " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pack loose pages matching glob in dir
+     * Item ids come from the file name (first run of 6-18 digits), else a hash of the name.
+     * @return number of pages packed
+     */
+    public static int pack(Path dir, String glob, Path out, Codec codec) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> matches = Files.newDirectoryStream(dir, glob)) {
+            for (Path file : matches) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list " + dir + ": " + e.getMessage());
+        }
+        Collections.sort(files);
+
+        try (Writer writer = create(out, codec)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                writer.add(idForName(name), name, Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to pack " + dir + ": " + e.getMessage());
+        }
+        return files.size();
+    }
+
+    /**
+     * Item id for a loose file: digits in its name, or a stable non-negative hash of it
+     */
+    public static long idForName(String name) {
+        Matcher digits = ITEM_ID_IN_NAME.matcher(name);
+        if (digits.find()) {
+            return Long.parseLong(digits.group(1));
+        }
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash & Long.MAX_VALUE;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long itemId) {
+        return Arrays.binarySearch(ids, itemId) >= 0;
+    }
+
+    /**
+     * Page bytes for an item id, or null if the corpus doesn't have it
+     */
+    public byte[] get(long itemId) {
+        int i = Arrays.binarySearch(ids, itemId);
+        return i < 0 ? null : read(i);
+    }
+
+    /**
+     * Page bytes by original file name, or null
+     */
+    public byte[] get(String name) {
+        Integer i = byName.get(name);
+        return i == null ? null : read(i);
+    }
+
+    // Item ids, ascending
+    public long[] getIds() {
+        return ids.clone();
+    }
+
+    /**
+     * Entries in file order, decompressed one at a time
+     */
+    @Override
+    public Iterator<Entry> iterator() {
+        return new Iterator<Entry>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < fileOrder.length;
+            }
+
+            @Override
+            public Entry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = fileOrder[next++];
+                return new Entry(ids[i], names[i], read(i));
+            }
+        };
+    }
+
+    public Stream<Entry> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED), false);
+    }
+
+    private byte[] read(int i) {
+        ByteBuffer region = regions[regionOf[i]].duplicate();
+        region.position((int) (offsets[i] - regionStarts[regionOf[i]]));
+        byte[] stored = new byte[storedLengths[i]];
+        region.get(stored);
+
+        byte[] raw;
+        if (codecs[i] == Codec.DEFLATE.ordinal()) {
+            raw = new byte[rawLengths[i]];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(stored);
+                int read = 0;
+                while (read < raw.length && !inflater.finished()) {
+                    int n = inflater.inflate(raw, read, raw.length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read != raw.length) {
+                    throw new RuntimeException("Corrupt corpus entry " + ids[i] + " in " + path);
+                }
+            } catch (DataFormatException e) {
+                throw new RuntimeException("Corrupt corpus entry " + ids[i] + " in " + path + ": " + e.getMessage());
+            } finally {
+                inflater.end();
+            }
+        } else {
+            raw = stored;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(raw);
+        if ((int) crc.getValue() != crcs[i]) {
+            throw new RuntimeException("Checksum mismatch for corpus entry " + ids[i] + " in " + path);
+        }
+        return raw;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException(path + " is truncated");
+            }
+        }
+    }
+
+    /**
+     * Closes the file; mapped regions are released when no longer referenced
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Could not close corpus: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Command line packer: pack <dir> <glob> <out.corpus> [none|deflate]
+     */
+    public static void main(String[] args) {
+        if (args.length < 4 || !"pack".equals(args[0])) {
+            System.out.println("Usage: FixtureCorpus pack <dir> <glob> <out.corpus> [none|deflate]");
+            return;
+        }
+        Codec codec = args.length > 4 ? Codec.valueOf(args[4].toUpperCase(Locale.ROOT)) : Codec.DEFLATE;
+        Path out = Paths.get(args[3]);
+        int count = pack(Paths.get(args[1]), args[2], out, codec);
+        try {
+            System.out.println("Packed " + count + " pages into " + out + " (" + Files.size(out) + " bytes)");
+        } catch (IOException e) {
+            System.out.println("Packed " + count + " pages into " + out);
+        }
+    }
+
+    /**
+     * One saved page
+     */
+    public static class Entry {
+
+        private final long itemId;
+        private final String name;
+        private final byte[] bytes;
+
+        Entry(long itemId, String name, byte[] bytes) {
+            this.itemId = itemId;
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        public long getItemId() {
+            return itemId;
+        }
+
+        // Original file name
+        public String getName() {
+            return name;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getHtml() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Builds a corpus file; the index is written on close()
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final Path path;
+        private final Codec codec;
+        private final FileChannel channel;
+        private final Map<Long, byte[]> indexEntries = new HashMap<>();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private long position = HEADER_BYTES;
+
+        private Writer(Path path, Codec codec) throws IOException {
+            this.path = path;
+            this.codec = codec;
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Add a page
+         * @param name original file name (at most 65535 UTF-8 bytes)
+         */
+        public Writer add(long itemId, String name, byte[] page) throws IOException {
+            if (indexEntries.containsKey(itemId)) {
+                throw new IllegalArgumentException("Duplicate item id " + itemId + " (" + name + ")");
+            }
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Name too long: " + name);
+            }
+
+            byte[] stored = page;
+            Codec used = Codec.NONE;
+            if (codec == Codec.DEFLATE) {
+                byte[] compressed = deflate(page);
+                if (compressed.length < page.length) {
+                    stored = compressed;
+                    used = Codec.DEFLATE;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(page);
+
+            ByteBuffer body = ByteBuffer.wrap(stored);
+            while (body.hasRemaining()) {
+                position += channel.write(body, position);
+            }
+
+            ByteBuffer entry = ByteBuffer.allocate(8 + 8 + 4 + 4 + 1 + 4 + 2 + nameBytes.length);
+            entry.putLong(itemId).putLong(position - stored.length).putInt(stored.length).putInt(page.length)
+                    .put((byte) used.ordinal()).putInt((int) crc.getValue())
+                    .putShort((short) nameBytes.length).put(nameBytes);
+            indexEntries.put(itemId, entry.array());
+            return this;
+        }
+
+        private byte[] deflate(byte[] page) {
+            deflater.reset();
+            deflater.setInput(page);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, page.length / 4));
+            byte[] buffer = new byte[16384];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                List<Long> sortedIds = new ArrayList<>(indexEntries.keySet());
+                Collections.sort(sortedIds);
+                long indexOffset = position;
+                for (long id : sortedIds) {
+                    ByteBuffer entry = ByteBuffer.wrap(indexEntries.get(id));
+                    while (entry.hasRemaining()) {
+                        position += channel.write(entry, position);
+                    }
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(sortedIds.size()).putInt(0)
+                        .putLong(indexOffset).putLong(position - indexOffset);
+                header.flip();
+                long at = 0;
+                while (header.hasRemaining()) {
+                    at += channel.write(header, at);
+                }
+                channel.force(false);
+            } finally {
+                deflater.end();
+                channel.close();
+            }
+        }
+
+        public Path getPath() {
+            return path;
+        }
+    }
+}
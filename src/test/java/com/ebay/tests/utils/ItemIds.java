@@ -0,0 +1,68 @@
+package com.ebay.tests.utils;
+
+/**
+ * ItemIds.java
+ * Parses eBay item ids out of product hrefs without building substrings
+ * Supports both "/itm/123456" and the older "/itm/Some-Title/123456" form
+ */
+public final class ItemIds {
+
+    public static final long NO_ID = -1L;
+
+    private static final String ITEM_PATH = "/itm/";
+
+    private ItemIds() {
+    }
+
+    /**
+     * Parse the numeric item id from a product URL
+     * @param href product URL (absolute or relative)
+     * @return item id, or NO_ID if the URL has no numeric id
+     */
+    public static long parse(String href) {
+        if (href == null) {
+            return NO_ID;
+        }
+
+        int start = href.indexOf(ITEM_PATH);
+        if (start < 0) {
+            return NO_ID;
+        }
+        start += ITEM_PATH.length();
+
+        long id = NO_ID;
+        long current = 0;
+        int digits = 0;
+
+        for (int i = start; i < href.length(); i++) {
+            char c = href.charAt(i);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            if (c == '/') {
+                // Last numeric path segment wins (title-slug URLs)
+                if (digits > 0) {
+                    id = current;
+                }
+                current = 0;
+                digits = 0;
+                continue;
+            }
+            if (c >= '0' && c <= '9' && digits >= 0) {
+                if (digits == 18) {
+                    digits = -1; // Too long for a long, not an item id
+                    continue;
+                }
+                current = current * 10 + (c - '0');
+                digits++;
+            } else {
+                digits = -1; // Segment is not purely numeric
+            }
+        }
+
+        if (digits > 0) {
+            id = current;
+        }
+        return id;
+    }
+}
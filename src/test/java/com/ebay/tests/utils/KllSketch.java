@@ -0,0 +1,229 @@
+package com.ebay.tests.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * KllSketch.java
+ * Streaming quantile sketch (Karnin, Lang, Liberty 2016)
+ *
+ * Values live in a stack of compactors. Level h holds items of weight 2^h;
+ * when the sketch is over capacity the lowest full level is sorted and every
+ * other item is promoted to the next level. Total retained items stay around
+ * 3k no matter how many values are added, and two sketches merge by
+ * concatenating levels and compacting again.
+ *
+ * Not thread-safe; keep one sketch per thread and merge.
+ */
+public class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private final Random random;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> levelSizes = new ArrayList<>();
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter (rank error is roughly 1.65 / k)
+     */
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+        this.random = new Random(k);
+        addLevel();
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        compressWhileNeeded();
+    }
+
+    /**
+     * Fold another sketch into this one (other is left unchanged)
+     */
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            double[] items = other.levels.get(h);
+            int size = other.levelSizes.get(h);
+            while (levels.size() <= h) {
+                addLevel();
+            }
+            for (int i = 0; i < size; i++) {
+                append(h, items[i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compressWhileNeeded();
+    }
+
+    /**
+     * Estimate the value at quantile q
+     * @param q quantile in [0, 1]
+     * @return estimated value, NaN if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        int retained = retainedItems();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            double[] items = levels.get(h);
+            int size = levelSizes.get(h);
+            for (int i = 0; i < size; i++) {
+                values[n] = items[i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        sortByValue(values, weights, n);
+
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            totalWeight += weights[i];
+        }
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i = 0; i < n; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Number of values currently stored (bounded by roughly 3k)
+     */
+    public int retainedItems() {
+        int total = 0;
+        for (int size : levelSizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels.get(level);
+        int size = levelSizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        levelSizes.set(level, size + 1);
+    }
+
+    private void addLevel() {
+        levels.add(new double[MIN_LEVEL_CAPACITY * 4]);
+        levelSizes.add(0);
+    }
+
+    private int levelCapacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int maxRetained() {
+        int total = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            total += levelCapacity(h);
+        }
+        return total;
+    }
+
+    private void compressWhileNeeded() {
+        while (retainedItems() > maxRetained()) {
+            compactOneLevel();
+        }
+    }
+
+    private void compactOneLevel() {
+        for (int h = 0; h < levels.size(); h++) {
+            int size = levelSizes.get(h);
+            if (size < levelCapacity(h)) {
+                continue;
+            }
+            if (h + 1 == levels.size()) {
+                addLevel();
+            }
+
+            double[] items = levels.get(h);
+            Arrays.sort(items, 0, size);
+
+            // Odd leftover (smallest item) stays behind so weights stay exact
+            int leftover = size % 2;
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = leftover + offset; i < size; i += 2) {
+                append(h + 1, items[i]);
+            }
+            levelSizes.set(h, leftover);
+            return;
+        }
+    }
+
+    private static void sortByValue(double[] values, long[] weights, int n) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double[] sortedValues = new double[n];
+        long[] sortedWeights = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, n);
+        System.arraycopy(sortedWeights, 0, weights, 0, n);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ebay.tests.utils;
+
+/**
+ * LongBloomFilter.java
+ * Bloom filter over primitive longs backed by a fixed bit array
+ * Uses double hashing (h1 + i * h2) to derive the probe positions
+ */
+public class LongBloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Size the filter for an expected number of entries and false positive rate
+     * @param expectedEntries expected number of distinct values
+     * @param falsePositiveRate target false positive probability (0-1)
+     */
+    public LongBloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("expectedEntries must be positive: " + expectedEntries);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        m = Math.max(64, (m + 63) / 64 * 64);
+
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, m / 64)];
+        this.bitCount = (long) bits.length * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * ln2));
+    }
+
+    /**
+     * Record a value
+     * @return true if the value was definitely not present before
+     */
+    public boolean put(long value) {
+        long hash = LongHashSet.mix(value);
+        long h1 = hash;
+        long h2 = LongHashSet.mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            if ((bits[word] & flag) == 0) {
+                bits[word] |= flag;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return false if definitely absent, true if possibly present
+     */
+    public boolean mightContain(long value) {
+        long hash = LongHashSet.mix(value);
+        long h1 = hash;
+        long h2 = LongHashSet.mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ebay.tests.utils;
+
+import java.util.Arrays;
+
+/**
+ * LongHashSet.java
+ * Fixed-capacity open-addressing set of primitive longs (linear probing)
+ * Never resizes, so memory is fixed at construction time
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD = 0.75;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // Keeps at least one empty slot so probing always terminates
+    public static final int MAX_SIZE = (int) (MAX_CAPACITY * MAX_LOAD);
+
+    private final long[] slots;
+    private final int mask;
+    private final int maxSize;
+    private boolean hasZero;
+    private int size;
+
+    /**
+     * @param maxSize maximum number of values the set will accept, at most MAX_SIZE
+     */
+    public LongHashSet(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (maxSize > MAX_SIZE) {
+            throw new IllegalArgumentException("maxSize must be at most " + MAX_SIZE + ": " + maxSize);
+        }
+        long needed = Math.max(2, (long) Math.ceil(maxSize / MAX_LOAD));
+        int capacity = (int) Math.min(MAX_CAPACITY, Long.highestOneBit(needed - 1) << 1);
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Add a value
+     * @return true if added, false if already present
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            ensureRoom();
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int index = indexFor(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        ensureRoom();
+        slots[index] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+
+        int index = indexFor(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size >= maxSize;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Approximate heap footprint of the slot table
+     */
+    public long memoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private void ensureRoom() {
+        if (isFull()) {
+            throw new IllegalStateException("LongHashSet full (" + maxSize + " entries)");
+        }
+    }
+
+    private int indexFor(long value) {
+        return (int) mix(value) & mask;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, spreads sequential ids across slots
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93e53b9e279L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
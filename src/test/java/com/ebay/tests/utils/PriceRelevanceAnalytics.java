@@ -0,0 +1,177 @@
+package com.ebay.tests.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * PriceRelevanceAnalytics.java
+ * Accumulates main/related price pairs across many pages
+ *
+ * Each pair is reduced to a relative delta ((related - main) / main) and fed
+ * into a per-thread KllSketch, so recording never contends across threads and
+ * memory stays constant no matter how many pages are visited. summarize()
+ * merges the per-thread sketches into one distribution.
+ */
+public class PriceRelevanceAnalytics {
+
+    // Same +/-20% band RelatedProductsPage.isPriceRangeValid() uses
+    public static final double DEFAULT_RANGE_PERCENTAGE = 0.20;
+
+    private static final double[] REPORTED_QUANTILES = {0.01, 0.05, 0.25, 0.50, 0.75, 0.95, 0.99};
+
+    private final double rangePercentage;
+    private final int k;
+    private final List<ThreadState> states = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadState> localState = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            ThreadState state = new ThreadState(k);
+            states.add(state);
+            return state;
+        }
+    };
+
+    public PriceRelevanceAnalytics() {
+        this(DEFAULT_RANGE_PERCENTAGE, KllSketch.DEFAULT_K);
+    }
+
+    /**
+     * @param rangePercentage band counted as "in range" (0.20 = +/-20%)
+     * @param k sketch accuracy parameter
+     */
+    public PriceRelevanceAnalytics(double rangePercentage, int k) {
+        this.rangePercentage = rangePercentage;
+        this.k = k;
+    }
+
+    /**
+     * Record one main/related price pair
+     * Pairs with a missing (zero) price are counted but not sketched
+     */
+    public void record(double mainPrice, double relatedPrice) {
+        ThreadState state = localState.get();
+        synchronized (state) {
+            if (mainPrice <= 0 || relatedPrice <= 0) {
+                state.skipped++;
+                return;
+            }
+
+            double delta = (relatedPrice - mainPrice) / mainPrice;
+            state.sketch.update(delta);
+            if (Math.abs(delta) <= rangePercentage) {
+                state.inRange++;
+            }
+        }
+    }
+
+    /**
+     * Record every related price on a page against the main price
+     */
+    public void recordPage(double mainPrice, double[] relatedPrices) {
+        for (double relatedPrice : relatedPrices) {
+            record(mainPrice, relatedPrice);
+        }
+        ThreadState state = localState.get();
+        synchronized (state) {
+            state.pages++;
+        }
+    }
+
+    /**
+     * Merge all per-thread state into one summary
+     */
+    public Summary summarize() {
+        KllSketch merged = new KllSketch(k);
+        long inRange = 0;
+        long skipped = 0;
+        long pages = 0;
+
+        for (ThreadState state : states) {
+            synchronized (state) {
+                merged.merge(state.sketch);
+                inRange += state.inRange;
+                skipped += state.skipped;
+                pages += state.pages;
+            }
+        }
+        return new Summary(merged, inRange, skipped, pages, rangePercentage);
+    }
+
+    private static class ThreadState {
+        final KllSketch sketch;
+        long inRange;
+        long skipped;
+        long pages;
+
+        ThreadState(int k) {
+            this.sketch = new KllSketch(k);
+        }
+    }
+
+    /**
+     * Distribution of relative price deltas
+     */
+    public static class Summary {
+
+        private final KllSketch sketch;
+        private final long inRange;
+        private final long skipped;
+        private final long pages;
+        private final double rangePercentage;
+
+        Summary(KllSketch sketch, long inRange, long skipped, long pages, double rangePercentage) {
+            this.sketch = sketch;
+            this.inRange = inRange;
+            this.skipped = skipped;
+            this.pages = pages;
+            this.rangePercentage = rangePercentage;
+        }
+
+        public long getPairCount() {
+            return sketch.getCount();
+        }
+
+        public long getSkippedPairs() {
+            return skipped;
+        }
+
+        public long getPageCount() {
+            return pages;
+        }
+
+        // Fraction of pairs inside the +/-range band
+        public double getInRangeFraction() {
+            return sketch.getCount() > 0 ? (double) inRange / sketch.getCount() : 0;
+        }
+
+        // Relative delta at quantile q (0.5 = median)
+        public double getDeltaQuantile(double q) {
+            return sketch.quantile(q);
+        }
+
+        public double getMinDelta() {
+            return sketch.getMin();
+        }
+
+        public double getMaxDelta() {
+            return sketch.getMax();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append("Price relevance: ").append(getPairCount()).append(" pairs over ")
+                    .append(pages).append(" pages (").append(skipped).append(" skipped)\n");
+            report.append(String.format("  In +/-%.0f%% band: %.1f%%%n",
+                    rangePercentage * 100, getInRangeFraction() * 100));
+            if (getPairCount() > 0) {
+                report.append(String.format("  min: %+.1f%%  max: %+.1f%%%n",
+                        getMinDelta() * 100, getMaxDelta() * 100));
+                for (double q : REPORTED_QUANTILES) {
+                    report.append(String.format("  p%-3.0f %+.1f%%%n", q * 100, getDeltaQuantile(q) * 100));
+                }
+            }
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ebay.tests.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TimedRingBuffer.java
+ * Fixed-size ring that also drops entries older than a time window
+ * Holds at most capacity entries; when full the oldest is overwritten
+ */
+public class TimedRingBuffer<T> {
+
+    private final Object[] items;
+    private final long[] timestamps;
+    private final long windowMs;
+    private int head;
+    private int size;
+    private long dropped;
+
+    public TimedRingBuffer(int capacity, long windowMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+        this.timestamps = new long[capacity];
+        this.windowMs = windowMs;
+    }
+
+    public synchronized void add(T item) {
+        add(item, System.currentTimeMillis());
+    }
+
+    public synchronized void add(T item, long timestampMs) {
+        int tail = (head + size) % items.length;
+        if (size == items.length) {
+            head = (head + 1) % items.length;
+            dropped++;
+        } else {
+            size++;
+        }
+        items[tail] = item;
+        timestamps[tail] = timestampMs;
+    }
+
+    /**
+     * Entries inside the window, oldest first
+     */
+    public synchronized List<T> snapshot() {
+        return snapshot(System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> snapshot(long nowMs) {
+        evictOlderThan(nowMs - windowMs);
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add((T) items[(head + i) % items.length]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < items.length; i++) {
+            items[i] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Entries lost to capacity or age
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    private void evictOlderThan(long cutoffMs) {
+        while (size > 0 && timestamps[head] < cutoffMs) {
+            items[head] = null;
+            head = (head + 1) % items.length;
+            size--;
+            dropped++;
+        }
+    }
+}
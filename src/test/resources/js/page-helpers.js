@@ -0,0 +1,213 @@
+// page-helpers.js
+// In-page helpers for the page objects (see PageHelpers.java)
+// Injected once per context with addInitScript; Java calls them by name:
+//   window.__pageHelpers.call(name, arg)
+(() => {
+  if (window.__pageHelpers) return;
+
+  const text = (el) => (el && el.textContent ? el.textContent.trim() : '');
+
+  // Digits and '.' only, 0 if nothing parses
+  const parsePrice = (value) => {
+    const clean = String(value || '').replace(/[^0-9.]/g, '');
+    const price = parseFloat(clean);
+    return isNaN(price) ? 0 : price;
+  };
+
+  // Same rules as ItemIds.parse: last numeric path segment after /itm/
+  // Returned as a string; 18-digit ids don't fit a JS number
+  const itemId = (href) => {
+    if (!href) return '-1';
+    const path = String(href).split(/[?#]/)[0];
+    const at = path.indexOf('/itm/');
+    if (at < 0) return '-1';
+    const segments = path.substring(at + 5).split('/');
+    for (let i = segments.length - 1; i >= 0; i--) {
+      if (/^[0-9]{1,18}$/.test(segments[i])) return segments[i];
+    }
+    return '-1';
+  };
+
+  // pageshow events of this document, as epoch ms; persisted = restored from the
+  // back/forward cache (see NavigationTiming.java)
+  const shows = [];
+  window.addEventListener('pageshow', (event) => {
+    shows.push({persisted: event.persisted, at: performance.timeOrigin + event.timeStamp});
+  });
+
+  const helpers = {
+    // Related cards in one round trip: {total, cards: [{href, id, title, priceText, price, textLength}]}
+    cards: ({selector, titleSelector, priceSelector, max}) => {
+      const all = document.querySelectorAll(selector);
+      const cards = [];
+      for (let i = 0; i < Math.min(all.length, max); i++) {
+        const card = all[i];
+        const link = card.querySelector('a');
+        const href = link ? (link.getAttribute('href') || '') : '';
+        const priceText = text(card.querySelector(priceSelector) || card.querySelector('span'));
+        cards.push({
+          href,
+          id: itemId(href),
+          title: text(card.querySelector(titleSelector)),
+          priceText,
+          price: parsePrice(priceText),
+          textLength: (card.textContent || '').length
+        });
+      }
+      return {total: all.length, cards};
+    },
+
+    // Main product title and price
+    mainProduct: ({titleSelector, priceSelector}) => {
+      const priceText = text(document.querySelector(priceSelector));
+      return {title: text(document.querySelector(titleSelector)), priceText, price: parsePrice(priceText)};
+    },
+
+    // Which keywords appear in the page HTML (case-insensitive)
+    keywords: (keywords) => {
+      const html = document.documentElement ? document.documentElement.outerHTML.toLowerCase() : '';
+      return keywords.filter((keyword) => html.includes(keyword.toLowerCase()));
+    },
+
+    // Card boxes and their parts ({name: selector}) as [x, y, width, height]; null if absent
+    cardLayout: ({selector, parts, max}) => {
+      const box = (el) => {
+        if (!el) return null;
+        const r = el.getBoundingClientRect();
+        return [r.x, r.y, r.width, r.height];
+      };
+      const all = document.querySelectorAll(selector);
+      const cards = [];
+      for (let i = 0; i < Math.min(all.length, max); i++) {
+        const boxes = {};
+        for (const name of Object.keys(parts)) {
+          boxes[name] = box(all[i].querySelector(parts[name]));
+        }
+        cards.push({box: box(all[i]), parts: boxes});
+      }
+      return {viewportWidth: window.innerWidth, viewportHeight: window.innerHeight,
+          scrollWidth: document.documentElement.scrollWidth, total: all.length, cards};
+    },
+
+    // First image of each card: sizes, loading attributes, format, resource timing, decode time
+    imageAudit: async ({selector, imageSelector, max}) => {
+      const formatOf = (src) => {
+        const data = /^data:image\/([a-z0-9.+-]+)/i.exec(src);
+        if (data) return data[1].toLowerCase().replace('svg+xml', 'svg');
+        const ext = /\.([a-z0-9]{3,4})(?:[?#]|$)/i.exec(src);
+        return ext ? ext[1].toLowerCase().replace('jpg', 'jpeg') : 'unknown';
+      };
+      const all = document.querySelectorAll(selector);
+      const images = [];
+      for (let i = 0; i < Math.min(all.length, max); i++) {
+        const img = all[i].querySelector(imageSelector);
+        if (!img) {
+          images.push(null);
+          continue;
+        }
+        const src = img.currentSrc || img.src || '';
+        const r = img.getBoundingClientRect();
+        const timing = src ? performance.getEntriesByName(src)[0] : null;
+        // Decode a fresh copy (bytes come from the memory cache) to time decoding alone
+        let decodeMs = -1;
+        if (src && img.complete && img.naturalWidth > 0) {
+          const copy = new Image();
+          copy.src = src;
+          const start = performance.now();
+          try {
+            await copy.decode();
+            decodeMs = performance.now() - start;
+          } catch (e) {
+            decodeMs = -1;
+          }
+        }
+        images.push({
+          src: src.length > 200 ? src.substring(0, 200) : src,
+          format: formatOf(src),
+          naturalWidth: img.naturalWidth, naturalHeight: img.naturalHeight,
+          renderedWidth: r.width, renderedHeight: r.height, top: r.top + window.scrollY,
+          loading: img.getAttribute('loading') || '', decoding: img.getAttribute('decoding') || '',
+          complete: img.complete,
+          transferSize: timing ? timing.transferSize : -1,
+          encodedSize: timing ? timing.encodedBodySize : -1,
+          decodedSize: timing ? timing.decodedBodySize : -1,
+          decodeMs
+        });
+      }
+      return {viewportHeight: window.innerHeight, devicePixelRatio: window.devicePixelRatio, images};
+    },
+
+    // FNV-1a of the first match's markup as "length:hash", null if absent (cheap change detection)
+    domHash: ({selector}) => {
+      const el = document.querySelector(selector);
+      if (!el) return null;
+      const html = el.outerHTML;
+      let hash = 0x811c9dc5;
+      for (let i = 0; i < html.length; i++) {
+        hash ^= html.charCodeAt(i);
+        hash = Math.imul(hash, 0x01000193);
+      }
+      return html.length + ':' + (hash >>> 0).toString(16);
+    },
+
+    // How this document was loaded, and when it was shown
+    navigation: () => {
+      const entry = performance.getEntriesByType('navigation')[0];
+      return {
+        type: entry ? entry.type : 'unknown',
+        shows: shows.slice(),
+        responseStart: entry ? entry.responseStart : -1,
+        loadEnd: entry ? entry.loadEventEnd : -1
+      };
+    },
+
+    // Canonical tree of the first match for DomSnapshot.java, null if absent. Nodes are
+    // {t: tag, a: attributes, x: own text, c: children}; cards add k: item id and p: price.
+    // Whitespace is collapsed, style/on* attributes and script/style/noscript elements
+    // dropped, and href/src lose their query (tracking parameters change on every load).
+    domTree: ({selector, cardSelector, priceSelector, maxNodes}) => {
+      const root = document.querySelector(selector);
+      if (!root) return null;
+      const skip = new Set(['SCRIPT', 'STYLE', 'NOSCRIPT', 'TEMPLATE']);
+      const cards = new Set(root.querySelectorAll(cardSelector));
+      let budget = maxNodes;
+      let truncated = false;
+      const walk = (el) => {
+        budget--;
+        const attrs = {};
+        for (const attr of el.attributes) {
+          if (attr.name === 'style' || attr.name.startsWith('on')) continue;
+          attrs[attr.name] = (attr.name === 'href' || attr.name === 'src')
+            ? attr.value.split(/[?#]/)[0] : attr.value;
+        }
+        let own = '';
+        const children = [];
+        for (const child of el.childNodes) {
+          if (child.nodeType === Node.TEXT_NODE) {
+            own += child.textContent;
+          } else if (child.nodeType === Node.ELEMENT_NODE && !skip.has(child.tagName)) {
+            if (budget > 0) children.push(walk(child));
+            else truncated = true;
+          }
+        }
+        const node = {t: el.tagName.toLowerCase(), a: attrs, x: own.replace(/\s+/g, ' ').trim(), c: children};
+        if (cards.has(el)) {
+          const link = el.querySelector('a');
+          node.k = itemId(link ? link.getAttribute('href') : '');
+          node.p = text(el.querySelector(priceSelector));
+        }
+        return node;
+      };
+      const tree = walk(root);
+      return {tree, truncated};
+    },
+
+    parsePrice,
+    itemId
+  };
+
+  window.__pageHelpers = {
+    version: 1,
+    call: (name, arg) => helpers[name](arg)
+  };
+})();